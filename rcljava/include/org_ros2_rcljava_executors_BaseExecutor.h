@@ -49,20 +49,22 @@ JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeDisposeWaitSet(JNIEnv
 
 /*
  * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetClear
- * Signature: (J)V
+ * Method:    nativeWaitSetResize
+ * Signature: (JIIIIII)V
  */
 JNIEXPORT void
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetClear(JNIEnv *, jclass, jlong);
+JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetResize(
+  JNIEnv *, jclass, jlong, jint, jint, jint, jint, jint, jint);
 
 /*
  * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetAddSubscription
- * Signature: (JJ)V
+ * Method:    nativeWaitSetAddEntities
+ * Signature: (J[J[J[J[J[J[J[J)V
  */
 JNIEXPORT void
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddSubscription(
-  JNIEnv *, jclass, jlong, jlong);
+JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddEntities(
+  JNIEnv *, jclass, jlong, jlongArray, jlongArray, jlongArray, jlongArray, jlongArray,
+  jlongArray, jlongArray);
 
 /*
  * Class:     org_ros2_rcljava_executors_BaseExecutor
@@ -75,36 +77,28 @@ JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWait(JNIEnv *, jclass
 /*
  * Class:     org_ros2_rcljava_executors_BaseExecutor
  * Method:    nativeTake
- * Signature: (JLjava/lang/Class;)Lorg/ros2/rcljava/interfaces/MessageDefinition;
+ * Signature: (JJJLorg/ros2/rcljava/interfaces/MessageDefinition;)Lorg/ros2/rcljava/interfaces/MessageDefinition;
  */
 JNIEXPORT jobject
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeTake(JNIEnv *, jclass, jlong, jclass);
+JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeTake(
+  JNIEnv *, jclass, jlong, jlong, jlong, jobject);
 
 /*
  * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetAddService
- * Signature: (JJ)V
+ * Method:    nativeTakeBatch
+ * Signature: (JJJ[Lorg/ros2/rcljava/interfaces/MessageDefinition;)I
  */
-JNIEXPORT void
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddService(
-  JNIEnv *, jclass, jlong, jlong);
+JNIEXPORT jint
+JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeBatch(
+  JNIEnv *, jclass, jlong, jlong, jlong, jobjectArray);
 
 /*
  * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetAddClient
- * Signature: (JJ)V
+ * Method:    nativeTakeSerialized
+ * Signature: (JJ)I
  */
-JNIEXPORT void
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddClient(
-  JNIEnv *, jclass, jlong, jlong);
-
-/*
- * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetAddActionServer
- * Signature: (JJ)V
- */
-JNIEXPORT void
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddActionServer(
+JNIEXPORT jint
+JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeSerialized(
   JNIEnv *, jclass, jlong, jlong);
 
 /*
@@ -136,66 +130,13 @@ JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeResponse(
 
 /*
  * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetAddTimer
- * Signature: (JJ)V
- */
-JNIEXPORT void
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddTimer(
-  JNIEnv *, jclass, jlong, jlong);
-
-/*
- * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetAddEvent
- * Signature: (JJ)V
+ * Method:    nativeWaitSetGetReadyEntities
+ * Signature: (J[J[J[J[J[J[J[J[J)V
  */
 JNIEXPORT void
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddEvent(
-  JNIEnv *, jclass, jlong, jlong);
-
-/*
- * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetSubscriptionIsReady
- * Signature: (JJ)Z
- */
-JNIEXPORT jboolean
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetSubscriptionIsReady(
-  JNIEnv *, jclass, jlong, jlong);
-
-/*
- * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetTimerIsReady
- * Signature: (JJ)Z
- */
-JNIEXPORT jboolean
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetTimerIsReady(
-  JNIEnv *, jclass, jlong, jlong);
-
-/*
- * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetEventIsReady
- * Signature: (JJ)Z
- */
-JNIEXPORT jboolean
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetEventIsReady(
-  JNIEnv *, jclass, jlong, jlong);
-
-/*
- * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetServiceIsReady
- * Signature: (JJ)Z
- */
-JNIEXPORT jboolean
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetServiceIsReady(
-  JNIEnv *, jclass, jlong, jlong);
-
-/*
- * Class:     org_ros2_rcljava_executors_BaseExecutor
- * Method:    nativeWaitSetClientIsReady
- * Signature: (JJ)Z
- */
-JNIEXPORT jboolean
-JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetClientIsReady(
-  JNIEnv *, jclass, jlong, jlong);
+JNICALL Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetGetReadyEntities(
+  JNIEnv *, jclass, jlong, jlongArray, jlongArray, jlongArray, jlongArray, jlongArray,
+  jlongArray, jlongArray, jlongArray);
 
 #ifdef __cplusplus
 }
@@ -20,6 +20,60 @@
 #ifdef __cplusplus
 extern "C" {
 #endif
+/*
+ * Class:     org_ros2_rcljava_subscription_SubscriptionImpl
+ * Method:    nativeCanLoanMessages
+ * Signature: (J)Z
+ */
+JNIEXPORT jboolean
+JNICALL Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeCanLoanMessages(
+  JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_ros2_rcljava_subscription_SubscriptionImpl
+ * Method:    nativeCreateMessage
+ * Signature: (JLorg/ros2/rcljava/interfaces/MessageDefinition;)J
+ */
+JNIEXPORT jlong
+JNICALL Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeCreateMessage(
+  JNIEnv *, jclass, jlong, jobject);
+
+/*
+ * Class:     org_ros2_rcljava_subscription_SubscriptionImpl
+ * Method:    nativeDestroyMessage
+ * Signature: (JJ)V
+ */
+JNIEXPORT void
+JNICALL Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeDestroyMessage(
+  JNIEnv *, jclass, jlong, jlong);
+
+/*
+ * Class:     org_ros2_rcljava_subscription_SubscriptionImpl
+ * Method:    nativeCreateSerializedMessage
+ * Signature: ()J
+ */
+JNIEXPORT jlong
+JNICALL Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeCreateSerializedMessage(
+  JNIEnv *, jclass);
+
+/*
+ * Class:     org_ros2_rcljava_subscription_SubscriptionImpl
+ * Method:    nativeDestroySerializedMessage
+ * Signature: (J)V
+ */
+JNIEXPORT void
+JNICALL Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeDestroySerializedMessage(
+  JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     org_ros2_rcljava_subscription_SubscriptionImpl
+ * Method:    nativeWrapSerializedMessage
+ * Signature: (JLjava/nio/ByteBuffer;)Ljava/nio/ByteBuffer;
+ */
+JNIEXPORT jobject
+JNICALL Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeWrapSerializedMessage(
+  JNIEnv *, jclass, jlong, jobject);
+
 /*
  * Class:     org_ros2_rcljava_subscription_SubscriptionImpl
  * Method:    nativeDispose
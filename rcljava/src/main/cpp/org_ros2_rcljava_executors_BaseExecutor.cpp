@@ -24,6 +24,7 @@
 #include "rcl/timer.h"
 #include "rcl_action/rcl_action.h"
 #include "rmw/rmw.h"
+#include "rmw/serialized_message.h"
 #include "rosidl_runtime_c/message_type_support_struct.h"
 
 #include "rcljava_common/exceptions.hpp"
@@ -73,40 +74,120 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeDisposeWaitSet(
   rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
 
   rcl_ret_t ret = rcl_wait_set_fini(wait_set);
+  free(wait_set);
   if (ret != RCL_RET_OK) {
-    std::string msg = "Failed to destroy timer: " + std::string(rcl_get_error_string().str);
+    std::string msg = "Failed to destroy wait set: " + std::string(rcl_get_error_string().str);
     rcl_reset_error();
     rcljava_throw_rclexception(env, ret, msg);
   }
 }
 
 JNIEXPORT void JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetClear(
-  JNIEnv * env, jclass, jlong wait_set_handle)
+Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetResize(
+  JNIEnv * env, jclass, jlong wait_set_handle, jint number_of_subscriptions,
+  jint number_of_guard_conditions, jint number_of_timers, jint number_of_clients,
+  jint number_of_services, jint number_of_events)
 {
   rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  rcl_ret_t ret = rcl_wait_set_clear(wait_set);
+
+  rcl_ret_t ret = rcl_wait_set_resize(
+    wait_set, number_of_subscriptions, number_of_guard_conditions, number_of_timers,
+    number_of_clients, number_of_services, number_of_events);
   if (ret != RCL_RET_OK) {
-    std::string msg =
-      "Failed to clear wait set: " + std::string(rcl_get_error_string().str);
+    std::string msg = "Failed to resize wait set: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
+}
+
+namespace
+{
+
+// Add the entities whose handles are stored in jhandles to the wait set, skipping the
+// zero handles.
+// Returns false if an exception was thrown.
+template<typename EntityT>
+bool
+wait_set_add_entities(
+  JNIEnv * env, rcl_wait_set_t * wait_set, jlongArray jhandles,
+  rcl_ret_t (* add_entity)(rcl_wait_set_t *, const EntityT *, size_t *),
+  const char * entity_name)
+{
+  jsize length = env->GetArrayLength(jhandles);
+  if (length == 0) {
+    return true;
+  }
+  jlong * handles = static_cast<jlong *>(env->GetPrimitiveArrayCritical(jhandles, nullptr));
+  rcl_ret_t ret = RCL_RET_OK;
+  for (jsize i = 0; i < length && ret == RCL_RET_OK; ++i) {
+    if (handles[i] != 0) {
+      ret = add_entity(wait_set, reinterpret_cast<EntityT *>(handles[i]), nullptr);
+    }
+  }
+  env->ReleasePrimitiveArrayCritical(jhandles, handles, JNI_ABORT);
+  if (ret != RCL_RET_OK) {
+    std::string msg = "Failed to add " + std::string(entity_name) + " to wait set: " +
+      std::string(rcl_get_error_string().str);
     rcl_reset_error();
     rcljava_throw_rclexception(env, ret, msg);
+    return false;
   }
+  return true;
 }
 
+// Take a message loaned by the middleware, convert it to Java and return the loan.
+// The converted message is stored in jtaken_msg if the take succeeded.
+rcl_ret_t
+take_loaned_message(
+  rcl_subscription_t * subscription, convert_to_java_signature convert_to_java, jobject jmsg,
+  jobject * jtaken_msg)
+{
+  void * loaned_msg = nullptr;
+  rcl_ret_t ret = rcl_take_loaned_message(subscription, &loaned_msg, nullptr, nullptr);
+  if (ret != RCL_RET_OK) {
+    return ret;
+  }
+
+  *jtaken_msg = convert_to_java(loaned_msg, jmsg);
+  return rcl_return_loaned_message_from_subscription(subscription, loaned_msg);
+}
+
+}  // namespace
+
 JNIEXPORT void JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddSubscription(
-  JNIEnv * env, jclass, jlong wait_set_handle, jlong subscription_handle)
+Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddEntities(
+  JNIEnv * env, jclass, jlong wait_set_handle, jlongArray jsubscription_handles,
+  jlongArray jtimer_handles, jlongArray jservice_handles, jlongArray jclient_handles,
+  jlongArray jevent_handles, jlongArray jguard_condition_handles,
+  jlongArray jaction_server_handles)
 {
   rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  rcl_subscription_t * subscription = reinterpret_cast<rcl_subscription_t *>(subscription_handle);
-  rcl_ret_t ret = rcl_wait_set_add_subscription(wait_set, subscription, nullptr);
+  rcl_ret_t ret = rcl_wait_set_clear(wait_set);
   if (ret != RCL_RET_OK) {
     std::string msg =
-      "Failed to add subscription to wait set: " + std::string(rcl_get_error_string().str);
+      "Failed to clear wait set: " + std::string(rcl_get_error_string().str);
     rcl_reset_error();
     rcljava_throw_rclexception(env, ret, msg);
+    return;
   }
+
+  if (!wait_set_add_entities(
+      env, wait_set, jsubscription_handles, rcl_wait_set_add_subscription, "subscription") ||
+    !wait_set_add_entities(env, wait_set, jtimer_handles, rcl_wait_set_add_timer, "timer") ||
+    !wait_set_add_entities(env, wait_set, jservice_handles, rcl_wait_set_add_service, "service") ||
+    !wait_set_add_entities(env, wait_set, jclient_handles, rcl_wait_set_add_client, "client") ||
+    !wait_set_add_entities(env, wait_set, jevent_handles, rcl_wait_set_add_event, "event") ||
+    !wait_set_add_entities(
+      env, wait_set, jguard_condition_handles, rcl_wait_set_add_guard_condition,
+      "guard condition"))
+  {
+    return;
+  }
+
+  // Action servers are added last, so they don't shift the indexes of the other entities.
+  wait_set_add_entities(
+    env, wait_set, jaction_server_handles, rcl_action_wait_set_add_action_server,
+    "action server");
 }
 
 JNIEXPORT void JNICALL
@@ -124,32 +205,37 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeWait(
 
 JNIEXPORT jobject JNICALL
 Java_org_ros2_rcljava_executors_BaseExecutor_nativeTake(
-  JNIEnv * env, jclass, jlong subscription_handle, jclass jmessage_class)
+  JNIEnv * env, jclass, jlong subscription_handle, jlong native_message_handle,
+  jlong jto_java_converter_handle, jobject jmsg)
 {
-  rcl_subscription_t * subscription = reinterpret_cast<rcl_subscription_t *>(subscription_handle);
-
-  jmethodID jfrom_mid = env->GetStaticMethodID(jmessage_class, "getFromJavaConverter", "()J");
-  jlong jfrom_java_converter = env->CallStaticLongMethod(jmessage_class, jfrom_mid);
+  assert(native_message_handle != 0);
+  assert(jto_java_converter_handle != 0);
 
-  jmethodID jdestructor_mid = env->GetStaticMethodID(jmessage_class, "getDestructor", "()J");
-  jlong jdestructor_handle = env->CallStaticLongMethod(jmessage_class, jdestructor_mid);
-
-  convert_from_java_signature convert_from_java =
-    reinterpret_cast<convert_from_java_signature>(jfrom_java_converter);
-
-  destroy_ros_message_signature destroy_ros_message =
-    reinterpret_cast<destroy_ros_message_signature>(jdestructor_handle);
+  rcl_subscription_t * subscription = reinterpret_cast<rcl_subscription_t *>(subscription_handle);
 
-  jmethodID jconstructor = env->GetMethodID(jmessage_class, "<init>", "()V");
-  jobject jmsg = env->NewObject(jmessage_class, jconstructor);
+  convert_to_java_signature convert_to_java =
+    reinterpret_cast<convert_to_java_signature>(jto_java_converter_handle);
+
+  // Convert straight from the memory of the middleware, if it loans messages
+  if (rcl_subscription_can_loan_messages(subscription)) {
+    jobject jtaken_msg = nullptr;
+    rcl_ret_t ret = take_loaned_message(subscription, convert_to_java, jmsg, &jtaken_msg);
+    if (ret != RCL_RET_OK && ret != RCL_RET_SUBSCRIPTION_TAKE_FAILED) {
+      std::string msg =
+        "Failed to take a loaned message: " + std::string(rcl_get_error_string().str);
+      rcl_reset_error();
+      rcljava_throw_rclexception(env, ret, msg);
+      return nullptr;
+    }
+    return jtaken_msg;
+  }
 
-  void * taken_msg = convert_from_java(jmsg, nullptr);
+  // The native message of the subscription is reused for every take
+  void * taken_msg = reinterpret_cast<void *>(native_message_handle);
 
   rcl_ret_t ret = rcl_take(subscription, taken_msg, nullptr, nullptr);
 
   if (ret != RCL_RET_OK && ret != RCL_RET_SUBSCRIPTION_TAKE_FAILED) {
-    destroy_ros_message(taken_msg);
-
     std::string msg =
       "Failed to take from a subscription: " + std::string(rcl_get_error_string().str);
     rcl_reset_error();
@@ -158,97 +244,96 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeTake(
   }
 
   if (ret != RCL_RET_SUBSCRIPTION_TAKE_FAILED) {
-    jmethodID jto_mid = env->GetStaticMethodID(jmessage_class, "getToJavaConverter", "()J");
-    jlong jto_java_converter = env->CallStaticLongMethod(jmessage_class, jto_mid);
-
-    convert_to_java_signature convert_to_java =
-      reinterpret_cast<convert_to_java_signature>(jto_java_converter);
-
-    jobject jtaken_msg = convert_to_java(taken_msg, nullptr);
-    destroy_ros_message(taken_msg);
-    return jtaken_msg;
+    // Fills jmsg in place if it is not null
+    return convert_to_java(taken_msg, jmsg);
   }
 
-  destroy_ros_message(taken_msg);
-
   return nullptr;
 }
 
-JNIEXPORT void JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddService(
-  JNIEnv * env, jclass, jlong wait_set_handle, jlong service_handle)
+JNIEXPORT jint JNICALL
+Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeBatch(
+  JNIEnv * env, jclass, jlong subscription_handle, jlong native_message_handle,
+  jlong jto_java_converter_handle, jobjectArray jmessages)
 {
-  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  rcl_service_t * service = reinterpret_cast<rcl_service_t *>(service_handle);
-  rcl_ret_t ret = rcl_wait_set_add_service(wait_set, service, nullptr);
-  if (ret != RCL_RET_OK) {
-    std::string msg =
-      "Failed to add service to wait set: " + std::string(rcl_get_error_string().str);
-    rcl_reset_error();
-    rcljava_throw_rclexception(env, ret, msg);
-  }
-}
+  assert(native_message_handle != 0);
+  assert(jto_java_converter_handle != 0);
 
-JNIEXPORT void JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddClient(
-  JNIEnv * env, jclass, jlong wait_set_handle, jlong client_handle)
-{
-  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  rcl_client_t * client = reinterpret_cast<rcl_client_t *>(client_handle);
-  rcl_ret_t ret = rcl_wait_set_add_client(wait_set, client, nullptr);
-  if (ret != RCL_RET_OK) {
-    std::string msg =
-      "Failed to add client to wait set: " + std::string(rcl_get_error_string().str);
-    rcl_reset_error();
-    rcljava_throw_rclexception(env, ret, msg);
+  rcl_subscription_t * subscription = reinterpret_cast<rcl_subscription_t *>(subscription_handle);
+
+  convert_to_java_signature convert_to_java =
+    reinterpret_cast<convert_to_java_signature>(jto_java_converter_handle);
+
+  // Messages are converted straight from the memory of the middleware if it loans them,
+  // otherwise they are taken into the native message of the subscription.
+  const bool loan_messages = rcl_subscription_can_loan_messages(subscription);
+  void * taken_msg = reinterpret_cast<void *>(native_message_handle);
+
+  jsize max_messages = env->GetArrayLength(jmessages);
+  jint number_of_messages = 0;
+  while (number_of_messages < max_messages) {
+    // Messages already in the array, e.g. acquired from a pool, are filled in place
+    jobject jmsg = env->GetObjectArrayElement(jmessages, number_of_messages);
+    jobject jtaken_msg = nullptr;
+    rcl_ret_t ret;
+    if (loan_messages) {
+      ret = take_loaned_message(subscription, convert_to_java, jmsg, &jtaken_msg);
+    } else {
+      ret = rcl_take(subscription, taken_msg, nullptr, nullptr);
+      if (ret == RCL_RET_OK) {
+        jtaken_msg = convert_to_java(taken_msg, jmsg);
+      }
+    }
+    if (ret != RCL_RET_OK && jmsg != nullptr) {
+      env->DeleteLocalRef(jmsg);
+    }
+    if (ret == RCL_RET_SUBSCRIPTION_TAKE_FAILED) {
+      break;
+    }
+    if (ret != RCL_RET_OK) {
+      std::string msg =
+        "Failed to take from a subscription: " + std::string(rcl_get_error_string().str);
+      rcl_reset_error();
+      rcljava_throw_rclexception(env, ret, msg);
+      return number_of_messages;
+    }
+
+    if (jmsg == nullptr) {
+      env->SetObjectArrayElement(jmessages, number_of_messages, jtaken_msg);
+    }
+    env->DeleteLocalRef(jtaken_msg);
+    ++number_of_messages;
   }
+
+  return number_of_messages;
 }
 
-JNIEXPORT void JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddActionServer(
-  JNIEnv * env, jclass, jlong wait_set_handle, jlong action_server_handle)
+JNIEXPORT jint JNICALL
+Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeSerialized(
+  JNIEnv * env, jclass, jlong subscription_handle, jlong serialized_message_handle)
 {
-  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  rcl_action_server_t * action_server = reinterpret_cast<rcl_action_server_t *>(
-    action_server_handle);
+  assert(serialized_message_handle != 0);
 
-  rcl_ret_t ret = rcl_action_wait_set_add_action_server(wait_set, action_server, NULL);
-  if (ret != RCL_RET_OK) {
-    std::string msg =
-      "Failed to add action server to wait set: " + std::string(rcl_get_error_string().str);
-    rcl_reset_error();
-    rcljava_throw_rclexception(env, ret, msg);
-  }
-}
+  rcl_subscription_t * subscription = reinterpret_cast<rcl_subscription_t *>(subscription_handle);
 
-JNIEXPORT void JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddTimer(
-  JNIEnv * env, jclass, jlong wait_set_handle, jlong timer_handle)
-{
-  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  rcl_timer_t * timer = reinterpret_cast<rcl_timer_t *>(timer_handle);
-  rcl_ret_t ret = rcl_wait_set_add_timer(wait_set, timer, nullptr);
-  if (ret != RCL_RET_OK) {
+  // The middleware grows the buffer to the size of the message
+  rcl_serialized_message_t * serialized_msg =
+    reinterpret_cast<rcl_serialized_message_t *>(serialized_message_handle);
+  rcl_ret_t ret = rcl_take_serialized_message(subscription, serialized_msg, nullptr, nullptr);
+
+  if (ret != RCL_RET_OK && ret != RCL_RET_SUBSCRIPTION_TAKE_FAILED) {
     std::string msg =
-      "Failed to add timer to wait set: " + std::string(rcl_get_error_string().str);
+      "Failed to take from a subscription: " + std::string(rcl_get_error_string().str);
     rcl_reset_error();
     rcljava_throw_rclexception(env, ret, msg);
+    return -1;
   }
-}
 
-JNIEXPORT void JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetAddEvent(
-  JNIEnv * env, jclass, jlong wait_set_handle, jlong event_handle)
-{
-  auto * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  auto * event = reinterpret_cast<rcl_event_t *>(event_handle);
-  rcl_ret_t ret = rcl_wait_set_add_event(wait_set, event, nullptr);
-  if (ret != RCL_RET_OK) {
-    std::string msg =
-      "Failed to add event to wait set: " + std::string(rcl_get_error_string().str);
-    rcl_reset_error();
-    rcljava_throw_rclexception(env, ret, msg);
+  if (ret != RCL_RET_OK || serialized_msg->buffer == nullptr) {
+    return -1;
   }
+
+  return static_cast<jint>(serialized_msg->buffer_length);
 }
 
 JNIEXPORT jobject JNICALL
@@ -387,42 +472,138 @@ Java_org_ros2_rcljava_executors_BaseExecutor_nativeTakeResponse(
   return nullptr;
 }
 
-JNIEXPORT jboolean JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetSubscriptionIsReady(
-  JNIEnv *, jclass, jlong wait_set_handle, jlong index)
+namespace
 {
-  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  return wait_set->subscriptions[index] != nullptr;
-}
 
-JNIEXPORT jboolean JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetTimerIsReady(
-  JNIEnv *, jclass, jlong wait_set_handle, jlong index)
+inline void
+set_ready_bit(jlong * ready_entities, size_t index)
 {
-  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  return wait_set->timers[index] != nullptr;
+  ready_entities[index / 64] |= static_cast<jlong>(1ULL << (index % 64));
 }
 
-JNIEXPORT jboolean JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetEventIsReady(
-  JNIEnv *, jclass, jlong wait_set_handle, jlong index)
+// Set the bits of the ready entities, whose handles are stored in jhandles.
+// Entities with a zero handle were not added to the wait set, so they don't take a slot
+// in it and are never ready.
+// The length of jhandles is passed in, as no JNI functions other than the critical ones
+// can be called while the critical region of ready_entities is open.
+template<typename EntityT>
+size_t
+get_ready_entities(
+  JNIEnv * env, const EntityT ** entities, jlongArray jhandles, jsize length, size_t offset,
+  jlong * ready_entities)
 {
-  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  return wait_set->events[index] != nullptr;
+  if (length == 0) {
+    return offset;
+  }
+  jlong * handles = static_cast<jlong *>(env->GetPrimitiveArrayCritical(jhandles, nullptr));
+  size_t wait_set_index = 0;
+  for (jsize i = 0; i < length; ++i) {
+    if (handles[i] != 0) {
+      if (entities[wait_set_index] != nullptr) {
+        set_ready_bit(ready_entities, offset + i);
+      }
+      ++wait_set_index;
+    }
+  }
+  env->ReleasePrimitiveArrayCritical(jhandles, handles, JNI_ABORT);
+  return offset + length;
 }
 
-JNIEXPORT jboolean JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetServiceIsReady(
-  JNIEnv *, jclass, jlong wait_set_handle, jlong index)
-{
-  rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  return wait_set->services[index] != nullptr;
-}
+}  // namespace
 
-JNIEXPORT jboolean JNICALL
-Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetClientIsReady(
-  JNIEnv *, jclass, jlong wait_set_handle, jlong index)
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_executors_BaseExecutor_nativeWaitSetGetReadyEntities(
+  JNIEnv * env, jclass, jlong wait_set_handle, jlongArray jsubscription_handles,
+  jlongArray jtimer_handles, jlongArray jservice_handles, jlongArray jclient_handles,
+  jlongArray jevent_handles, jlongArray jguard_condition_handles,
+  jlongArray jaction_server_handles, jlongArray jready_entities)
 {
   rcl_wait_set_t * wait_set = reinterpret_cast<rcl_wait_set_t *>(wait_set_handle);
-  return wait_set->clients[index] != nullptr;
+
+  jsize number_of_subscriptions = env->GetArrayLength(jsubscription_handles);
+  jsize number_of_timers = env->GetArrayLength(jtimer_handles);
+  jsize number_of_services = env->GetArrayLength(jservice_handles);
+  jsize number_of_clients = env->GetArrayLength(jclient_handles);
+  jsize number_of_events = env->GetArrayLength(jevent_handles);
+  jsize number_of_guard_conditions = env->GetArrayLength(jguard_condition_handles);
+  jsize number_of_action_servers = env->GetArrayLength(jaction_server_handles);
+  jsize ready_entities_length = env->GetArrayLength(jready_entities);
+
+  jlong * action_server_handles = nullptr;
+  if (number_of_action_servers > 0) {
+    action_server_handles = env->GetLongArrayElements(jaction_server_handles, nullptr);
+  }
+
+  // The readiness of every entity is written in a single pass, without allocating.
+  jlong * ready_entities =
+    static_cast<jlong *>(env->GetPrimitiveArrayCritical(jready_entities, nullptr));
+  for (jsize i = 0; i < ready_entities_length; ++i) {
+    ready_entities[i] = 0;
+  }
+
+  size_t offset = 0;
+  offset = get_ready_entities(
+    env, wait_set->subscriptions, jsubscription_handles, number_of_subscriptions, offset,
+    ready_entities);
+  offset = get_ready_entities(
+    env, wait_set->timers, jtimer_handles, number_of_timers, offset, ready_entities);
+  offset = get_ready_entities(
+    env, wait_set->services, jservice_handles, number_of_services, offset, ready_entities);
+  offset = get_ready_entities(
+    env, wait_set->clients, jclient_handles, number_of_clients, offset, ready_entities);
+  offset = get_ready_entities(
+    env, wait_set->events, jevent_handles, number_of_events, offset, ready_entities);
+  offset = get_ready_entities(
+    env, wait_set->guard_conditions, jguard_condition_handles, number_of_guard_conditions,
+    offset, ready_entities);
+
+  rcl_ret_t ret = RCL_RET_OK;
+  for (jsize i = 0; i < number_of_action_servers; ++i) {
+    if (action_server_handles[i] == 0) {
+      // Not in the wait set.
+      offset += 4;
+      continue;
+    }
+    rcl_action_server_t * action_server =
+      reinterpret_cast<rcl_action_server_t *>(action_server_handles[i]);
+    bool is_goal_request_ready = false;
+    bool is_cancel_request_ready = false;
+    bool is_result_request_ready = false;
+    bool is_goal_expired = false;
+    ret = rcl_action_server_wait_set_get_entities_ready(
+      wait_set,
+      action_server,
+      &is_goal_request_ready,
+      &is_cancel_request_ready,
+      &is_result_request_ready,
+      &is_goal_expired);
+    if (ret != RCL_RET_OK) {
+      break;
+    }
+    if (is_goal_request_ready) {
+      set_ready_bit(ready_entities, offset);
+    }
+    if (is_cancel_request_ready) {
+      set_ready_bit(ready_entities, offset + 1);
+    }
+    if (is_result_request_ready) {
+      set_ready_bit(ready_entities, offset + 2);
+    }
+    if (is_goal_expired) {
+      set_ready_bit(ready_entities, offset + 3);
+    }
+    offset += 4;
+  }
+
+  env->ReleasePrimitiveArrayCritical(jready_entities, ready_entities, 0);
+  if (action_server_handles != nullptr) {
+    env->ReleaseLongArrayElements(jaction_server_handles, action_server_handles, JNI_ABORT);
+  }
+
+  if (ret != RCL_RET_OK) {
+    std::string msg = "Failed to get ready entities for action server: " +
+      std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
 }
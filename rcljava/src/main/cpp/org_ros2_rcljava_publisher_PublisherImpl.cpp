@@ -15,6 +15,7 @@
 #include <jni.h>
 
 #include <cassert>
+#include <cstdint>
 #include <cstdio>
 #include <cstdlib>
 #include <string>
@@ -24,6 +25,8 @@
 #include "rcl/node.h"
 #include "rcl/rcl.h"
 #include "rmw/rmw.h"
+#include "rmw/serialized_message.h"
+#include "rosidl_runtime_c/message_type_support_struct.h"
 
 #include "rcljava_common/exceptions.hpp"
 #include "rcljava_common/signatures.hpp"
@@ -37,25 +40,64 @@ using rcljava_common::signatures::destroy_ros_message_signature;
 
 JNIEXPORT void JNICALL
 Java_org_ros2_rcljava_publisher_PublisherImpl_nativePublish(
-  JNIEnv * env, jclass, jlong publisher_handle, jlong jmsg_destructor_handle, jobject jmsg)
+  JNIEnv * env, jclass, jlong publisher_handle, jlong jmsg_type_support_handle,
+  jlong jmsg_from_java_converter_handle, jlong jmsg_destructor_handle, jlong ros_message_handle,
+  jobject jmsg)
 {
-  rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
-
-  jclass jmessage_class = env->GetObjectClass(jmsg);
+  assert(jmsg_type_support_handle != 0);
+  assert(jmsg_from_java_converter_handle != 0);
+  assert(jmsg_destructor_handle != 0);
 
-  jmethodID mid = env->GetStaticMethodID(jmessage_class, "getFromJavaConverter", "()J");
-  jlong jfrom_java_converter = env->CallStaticLongMethod(jmessage_class, mid);
+  rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
 
   convert_from_java_signature convert_from_java =
-    reinterpret_cast<convert_from_java_signature>(jfrom_java_converter);
+    reinterpret_cast<convert_from_java_signature>(jmsg_from_java_converter_handle);
+
+  // Convert straight into the memory of the middleware, if it loans messages.
+  // Only messages of fixed size can be loaned. The loaned memory isn't initialized, which is
+  // fine as the converter writes every field, resetting the ones that are null in Java.
+  if (rcl_publisher_can_loan_messages(publisher)) {
+    const rosidl_message_type_support_t * ts =
+      reinterpret_cast<const rosidl_message_type_support_t *>(jmsg_type_support_handle);
+    void * loaned_msg = nullptr;
+    rcl_ret_t ret = rcl_borrow_loaned_message(publisher, ts, &loaned_msg);
+    if (ret != RCL_RET_OK) {
+      std::string msg =
+        "Failed to borrow a loaned message: " + std::string(rcl_get_error_string().str);
+      rcl_reset_error();
+      rcljava_throw_rclexception(env, ret, msg);
+      return;
+    }
+
+    convert_from_java(jmsg, loaned_msg);
+    if (env->ExceptionCheck()) {
+      if (rcl_return_loaned_message_from_publisher(publisher, loaned_msg) != RCL_RET_OK) {
+        rcl_reset_error();
+      }
+      return;
+    }
+
+    // The loan is returned by publishing it
+    ret = rcl_publish_loaned_message(publisher, loaned_msg, nullptr);
+    if (ret != RCL_RET_OK) {
+      std::string msg = "Failed to publish: " + std::string(rcl_get_error_string().str);
+      rcl_reset_error();
+      rcljava_throw_rclexception(env, ret, msg);
+    }
+    return;
+  }
 
-  void * raw_ros_message = convert_from_java(jmsg, nullptr);
+  // Convert into the native message of the publisher, if it keeps one
+  void * raw_ros_message =
+    convert_from_java(jmsg, reinterpret_cast<void *>(ros_message_handle));
 
   rcl_ret_t ret = rcl_publish(publisher, raw_ros_message, nullptr);
 
-  destroy_ros_message_signature destroy_ros_message =
-    reinterpret_cast<destroy_ros_message_signature>(jmsg_destructor_handle);
-  destroy_ros_message(raw_ros_message);
+  if (ros_message_handle == 0) {
+    destroy_ros_message_signature destroy_ros_message =
+      reinterpret_cast<destroy_ros_message_signature>(jmsg_destructor_handle);
+    destroy_ros_message(raw_ros_message);
+  }
 
   if (ret != RCL_RET_OK) {
     std::string msg = "Failed to publish: " + std::string(rcl_get_error_string().str);
@@ -64,6 +106,71 @@ Java_org_ros2_rcljava_publisher_PublisherImpl_nativePublish(
   }
 }
 
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_publisher_PublisherImpl_nativePublishSerialized(
+  JNIEnv * env, jclass, jlong publisher_handle, jobject jserialized_msg, jint offset,
+  jint length)
+{
+  assert(publisher_handle != 0);
+
+  rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
+
+  uint8_t * buffer = static_cast<uint8_t *>(env->GetDirectBufferAddress(jserialized_msg));
+  if (buffer == nullptr) {
+    rcljava_throw_exception(
+      env, "java/lang/IllegalArgumentException", "Failed to access the serialized message");
+    return;
+  }
+
+  // Wraps the memory of the Java buffer, the message is only read from
+  rcl_serialized_message_t serialized_msg = rmw_get_zero_initialized_serialized_message();
+  serialized_msg.buffer = buffer + offset;
+  serialized_msg.buffer_length = static_cast<size_t>(length);
+  serialized_msg.buffer_capacity = static_cast<size_t>(length);
+  serialized_msg.allocator = rcl_get_default_allocator();
+
+  rcl_ret_t ret = rcl_publish_serialized_message(publisher, &serialized_msg, nullptr);
+
+  if (ret != RCL_RET_OK) {
+    std::string msg = "Failed to publish: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
+}
+
+JNIEXPORT jlong JNICALL
+Java_org_ros2_rcljava_publisher_PublisherImpl_nativeCreateMessage(
+  JNIEnv *, jclass, jlong jmsg_from_java_converter_handle, jobject jmsg)
+{
+  assert(jmsg_from_java_converter_handle != 0);
+
+  convert_from_java_signature convert_from_java =
+    reinterpret_cast<convert_from_java_signature>(jmsg_from_java_converter_handle);
+
+  return reinterpret_cast<jlong>(convert_from_java(jmsg, nullptr));
+}
+
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_publisher_PublisherImpl_nativeDestroyMessage(
+  JNIEnv *, jclass, jlong jmsg_destructor_handle, jlong ros_message_handle)
+{
+  assert(jmsg_destructor_handle != 0);
+
+  destroy_ros_message_signature destroy_ros_message =
+    reinterpret_cast<destroy_ros_message_signature>(jmsg_destructor_handle);
+  destroy_ros_message(reinterpret_cast<void *>(ros_message_handle));
+}
+
+JNIEXPORT jboolean JNICALL
+Java_org_ros2_rcljava_publisher_PublisherImpl_nativeCanLoanMessages(
+  JNIEnv *, jclass, jlong publisher_handle)
+{
+  assert(publisher_handle != 0);
+
+  rcl_publisher_t * publisher = reinterpret_cast<rcl_publisher_t *>(publisher_handle);
+  return rcl_publisher_can_loan_messages(publisher);
+}
+
 JNIEXPORT void JNICALL
 Java_org_ros2_rcljava_publisher_PublisherImpl_nativeDispose(
   JNIEnv * env, jclass, jlong node_handle, jlong publisher_handle)
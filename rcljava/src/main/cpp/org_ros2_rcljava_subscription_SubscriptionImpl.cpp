@@ -23,6 +23,7 @@
 #include "rcl/node.h"
 #include "rcl/rcl.h"
 #include "rmw/rmw.h"
+#include "rmw/serialized_message.h"
 #include "rosidl_runtime_c/message_type_support_struct.h"
 
 #include "rcljava_common/exceptions.hpp"
@@ -32,6 +33,115 @@
 
 using rcljava_common::exceptions::rcljava_throw_exception;
 using rcljava_common::exceptions::rcljava_throw_rclexception;
+using rcljava_common::signatures::convert_from_java_signature;
+using rcljava_common::signatures::destroy_ros_message_signature;
+
+JNIEXPORT jboolean JNICALL
+Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeCanLoanMessages(
+  JNIEnv *, jclass, jlong subscription_handle)
+{
+  assert(subscription_handle != 0);
+
+  rcl_subscription_t * subscription = reinterpret_cast<rcl_subscription_t *>(subscription_handle);
+  return rcl_subscription_can_loan_messages(subscription);
+}
+
+JNIEXPORT jlong JNICALL
+Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeCreateMessage(
+  JNIEnv *, jclass, jlong jmsg_from_java_converter_handle, jobject jmsg)
+{
+  assert(jmsg_from_java_converter_handle != 0);
+
+  convert_from_java_signature convert_from_java =
+    reinterpret_cast<convert_from_java_signature>(jmsg_from_java_converter_handle);
+
+  return reinterpret_cast<jlong>(convert_from_java(jmsg, nullptr));
+}
+
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeDestroyMessage(
+  JNIEnv *, jclass, jlong jmsg_destructor_handle, jlong ros_message_handle)
+{
+  assert(jmsg_destructor_handle != 0);
+
+  destroy_ros_message_signature destroy_ros_message =
+    reinterpret_cast<destroy_ros_message_signature>(jmsg_destructor_handle);
+  destroy_ros_message(reinterpret_cast<void *>(ros_message_handle));
+}
+
+JNIEXPORT jlong JNICALL
+Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeCreateSerializedMessage(
+  JNIEnv * env, jclass)
+{
+  rcl_allocator_t allocator = rcl_get_default_allocator();
+  rcl_serialized_message_t * serialized_msg = static_cast<rcl_serialized_message_t *>(
+    allocator.allocate(sizeof(rcl_serialized_message_t), allocator.state));
+  if (serialized_msg == nullptr) {
+    rcljava_throw_exception(
+      env, "java/lang/OutOfMemoryError", "Failed to allocate a serialized message");
+    return 0;
+  }
+
+  // The buffer is allocated by the middleware, once the size of the first message is known
+  *serialized_msg = rmw_get_zero_initialized_serialized_message();
+  rcl_ret_t ret = rmw_serialized_message_init(serialized_msg, 0, &allocator);
+  if (ret != RCL_RET_OK) {
+    allocator.deallocate(serialized_msg, allocator.state);
+    std::string msg =
+      "Failed to initialize a serialized message: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+    return 0;
+  }
+
+  return reinterpret_cast<jlong>(serialized_msg);
+}
+
+JNIEXPORT void JNICALL
+Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeDestroySerializedMessage(
+  JNIEnv * env, jclass, jlong serialized_message_handle)
+{
+  assert(serialized_message_handle != 0);
+
+  rcl_serialized_message_t * serialized_msg =
+    reinterpret_cast<rcl_serialized_message_t *>(serialized_message_handle);
+  rcl_ret_t ret = rmw_serialized_message_fini(serialized_msg);
+
+  // Allocated by the default allocator in nativeCreateSerializedMessage
+  rcl_allocator_t allocator = rcl_get_default_allocator();
+  allocator.deallocate(serialized_msg, allocator.state);
+
+  if (ret != RCL_RET_OK) {
+    std::string msg =
+      "Failed to finalize a serialized message: " + std::string(rcl_get_error_string().str);
+    rcl_reset_error();
+    rcljava_throw_rclexception(env, ret, msg);
+  }
+}
+
+JNIEXPORT jobject JNICALL
+Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeWrapSerializedMessage(
+  JNIEnv * env, jclass, jlong serialized_message_handle, jobject jbuffer)
+{
+  assert(serialized_message_handle != 0);
+
+  rcl_serialized_message_t * serialized_msg =
+    reinterpret_cast<rcl_serialized_message_t *>(serialized_message_handle);
+  assert(serialized_msg->buffer != nullptr);
+
+  // The buffer only moves when the middleware grows it for a larger message
+  jlong capacity = static_cast<jlong>(serialized_msg->buffer_capacity);
+  if (jbuffer != nullptr &&
+    env->GetDirectBufferAddress(jbuffer) == serialized_msg->buffer &&
+    env->GetDirectBufferCapacity(jbuffer) == capacity)
+  {
+    return jbuffer;
+  }
+
+  // Returns null with an OutOfMemoryError pending if it fails, the serialized message is
+  // still owned by the subscription
+  return env->NewDirectByteBuffer(serialized_msg->buffer, capacity);
+}
 
 JNIEXPORT void JNICALL
 Java_org_ros2_rcljava_subscription_SubscriptionImpl_nativeDispose(
@@ -0,0 +1,187 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.ros2.rcljava.interfaces.MessageDefinition;
+
+/**
+ * A pool of message instances of a single type, so that messages can be reused instead of
+ * allocating a new one for every message that is published or received.
+ *
+ * Every thread that acquires messages keeps a bounded free list of its own, which it reuses
+ * without synchronization.
+ * Messages released by threads that never acquire from the pool, e.g. the worker threads of a
+ * @{link org.ros2.rcljava.executors.MultiThreadedExecutor} whose messages are taken by the
+ * spinning thread, go to a bounded free list shared by all the threads instead.
+ * Messages released while the free lists are full are left to the garbage collector, so the
+ * number of pooled messages never exceeds the bounds.
+ *
+ * Acquired messages still hold the values they had when they were released, which lets them
+ * keep their arrays and nested messages when they are filled again with data of the same size.
+ * Call the reset() method of the generated messages to get the default values back.
+ *
+ * A pool can be passed to @{link org.ros2.rcljava.subscription.Subscription#setMessagePool},
+ * @{link org.ros2.rcljava.service.Service#setMessagePools},
+ * @{link org.ros2.rcljava.client.Client#setResponsePool} and
+ * @{link org.ros2.rcljava.publisher.Publisher#publish(T, MessagePool)}, and be shared by
+ * several of them, e.g. by a subscription and a publisher that forwards the received messages.
+ *
+ * @param <T> The type of the pooled messages.
+ */
+public final class MessagePool<T extends MessageDefinition> {
+  /**
+   * Default maximum number of free messages kept by every thread.
+   */
+  public static final int DEFAULT_MAX_FREE_MESSAGES = 16;
+
+  /**
+   * The free messages of a thread, used as a stack.
+   */
+  private static final class FreeList {
+    private final MessageDefinition[] messages;
+    private int size;
+
+    private FreeList(final int capacity) {
+      this.messages = new MessageDefinition[capacity];
+    }
+  }
+
+  private final Class<T> messageType;
+
+  private final Constructor<T> constructor;
+
+  private final int maxFreeMessages;
+
+  /**
+   * The free list of every thread that acquired from this pool, null for the other threads.
+   */
+  private final ThreadLocal<FreeList> freeLists = new ThreadLocal<FreeList>();
+
+  /**
+   * The free messages released by threads that don't have a free list of their own, or whose
+   * free list is full.
+   */
+  private final ArrayBlockingQueue<T> sharedFreeMessages;
+
+  /**
+   * Constructor.
+   *
+   * @param messageType The <code>Class</code> of the pooled messages.
+   */
+  public MessagePool(final Class<T> messageType) {
+    this(messageType, DEFAULT_MAX_FREE_MESSAGES);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param messageType The <code>Class</code> of the pooled messages.
+   * @param maxFreeMessages The maximum number of free messages kept by every thread, and by the
+   *   free list shared between threads. Must be at least 1.
+   */
+  public MessagePool(final Class<T> messageType, final int maxFreeMessages) {
+    if (maxFreeMessages < 1) {
+      throw new IllegalArgumentException("The maximum number of free messages must be at least 1");
+    }
+    try {
+      this.constructor = messageType.getDeclaredConstructor();
+    } catch (NoSuchMethodException e) {
+      throw new IllegalArgumentException("Failed to instantiate message type: ", e);
+    }
+    this.messageType = messageType;
+    this.maxFreeMessages = maxFreeMessages;
+    this.sharedFreeMessages = new ArrayBlockingQueue<T>(maxFreeMessages);
+  }
+
+  /**
+   * @return The <code>Class</code> of the pooled messages.
+   */
+  public Class<T> getMessageType() {
+    return this.messageType;
+  }
+
+  /**
+   * @return The maximum number of free messages kept by every thread.
+   */
+  public int getMaxFreeMessages() {
+    return this.maxFreeMessages;
+  }
+
+  /**
+   * Get a free message from the pool, or a new message if there is none.
+   *
+   * @return A message that is not used anywhere else, holding the values it was released with.
+   */
+  public T acquire() {
+    FreeList freeList = this.freeLists.get();
+    if (freeList == null) {
+      freeList = new FreeList(this.maxFreeMessages);
+      this.freeLists.set(freeList);
+    }
+    if (freeList.size > 0) {
+      --freeList.size;
+      MessageDefinition message = freeList.messages[freeList.size];
+      freeList.messages[freeList.size] = null;
+      return this.messageType.cast(message);
+    }
+    T message = this.sharedFreeMessages.poll();
+    if (message != null) {
+      return message;
+    }
+    try {
+      return this.constructor.newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Failed to instantiate message type: ", e);
+    }
+  }
+
+  /**
+   * Give a message back to the pool.
+   *
+   * The message must not be used anymore by the caller, and must not be released twice.
+   * It doesn't have to be acquired from this pool, but must be of the type of the pool.
+   *
+   * @param message The message to give back.
+   * @return true if the message was kept, false if the free lists were full.
+   */
+  public boolean release(final T message) {
+    if (message == null) {
+      throw new IllegalArgumentException("Can't release a null message");
+    }
+    FreeList freeList = this.freeLists.get();
+    if (freeList != null && freeList.size < freeList.messages.length) {
+      freeList.messages[freeList.size] = message;
+      ++freeList.size;
+      return true;
+    }
+    return this.sharedFreeMessages.offer(message);
+  }
+
+  /**
+   * @return The number of free messages that the calling thread can acquire without allocating.
+   */
+  public int getFreeMessageCount() {
+    FreeList freeList = this.freeLists.get();
+    int count = this.sharedFreeMessages.size();
+    if (freeList != null) {
+      count += freeList.size;
+    }
+    return count;
+  }
+}
@@ -390,6 +390,10 @@ public final class RCLJava {
   }
 
   public static synchronized void shutdown() {
+    // Shut down first, so that executors stop waiting on the entities that are destroyed below.
+    if (RCLJava.defaultContext != null && RCLJava.defaultContext.isValid()) {
+      RCLJava.defaultContext.shutdown();
+    }
     cleanup();
     if (RCLJava.defaultContext != null) {
       RCLJava.defaultContext.dispose();
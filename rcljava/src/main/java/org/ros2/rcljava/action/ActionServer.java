@@ -59,6 +59,21 @@ public interface ActionServer<T extends ActionDefinition> extends Disposable {
    */
   boolean isReady(long waitSetHandle);
 
+  /**
+   * Set which entities of the action server are ready to be executed.
+   *
+   * This is used by executors that query the readiness of all the entities in a wait set at
+   * once, instead of calling @{link #isReady(long)} for each action server.
+   *
+   * @param isGoalRequestReady true if a goal request is ready to be taken.
+   * @param isCancelRequestReady true if a cancel request is ready to be taken.
+   * @param isResultRequestReady true if a result request is ready to be taken.
+   * @param isGoalExpired true if a goal has expired.
+   */
+  void setReadyEntities(
+    boolean isGoalRequestReady, boolean isCancelRequestReady, boolean isResultRequestReady,
+    boolean isGoalExpired);
+
   /**
    * Execute any entities that are ready in the underlying wait set.
    */
@@ -224,7 +224,7 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
   private final CancelCallback<T> cancelCallback;
   private final Consumer<ActionServerGoalHandle<T>> acceptedCallback;
 
-  private boolean[] readyEntities;
+  private boolean[] readyEntities = new boolean[4];
 
   private Map<List<Byte>, GoalHandleImpl> goalHandles;
   private Map<List<Byte>, List<RMWRequestId>> goalRequests;
@@ -340,6 +340,19 @@ public class ActionServerImpl<T extends ActionDefinition> implements ActionServe
     return false;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public void setReadyEntities(
+    boolean isGoalRequestReady, boolean isCancelRequestReady, boolean isResultRequestReady,
+    boolean isGoalExpired)
+  {
+    this.readyEntities[0] = isGoalRequestReady;
+    this.readyEntities[1] = isCancelRequestReady;
+    this.readyEntities[2] = isResultRequestReady;
+    this.readyEntities[3] = isGoalExpired;
+  }
+
   @SuppressWarnings("unchecked")
   private GoalCallback.GoalResponse
   handleGoalUnchecked(GoalRequestDefinition<T> requestMessage) {
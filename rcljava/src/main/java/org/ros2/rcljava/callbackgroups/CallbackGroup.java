@@ -0,0 +1,49 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.callbackgroups;
+
+/**
+ * A group of callbacks that controls which of them an executor may run concurrently.
+ *
+ * Every subscription, timer, service and client belongs to a callback group.
+ * Entities that are not explicitly assigned to one use the default group of their
+ * @{link org.ros2.rcljava.node.Node}.
+ */
+public interface CallbackGroup {
+  /**
+   * Check whether a callback of this group could start executing right now.
+   *
+   * Executors use this to stop waiting on entities whose callbacks cannot run yet.
+   *
+   * @return true if a call to @{link #beginExecution()} would currently succeed.
+   */
+  boolean canExecute();
+
+  /**
+   * Try to start executing a callback of this group.
+   *
+   * Every successful call must be followed by a call to @{link #endExecution()} once the
+   * callback has finished.
+   *
+   * @return true if the callback can be executed now, false if it has to wait.
+   */
+  boolean beginExecution();
+
+  /**
+   * Signal that a callback that was started with @{link #beginExecution()} has finished.
+   */
+  void endExecution();
+}
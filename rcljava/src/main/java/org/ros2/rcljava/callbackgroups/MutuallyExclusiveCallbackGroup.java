@@ -0,0 +1,46 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.callbackgroups;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A callback group whose callbacks never run concurrently with each other.
+ */
+public class MutuallyExclusiveCallbackGroup implements CallbackGroup {
+  private final AtomicBoolean executing = new AtomicBoolean();
+
+  /**
+   * {@inheritDoc}
+   */
+  public final boolean canExecute() {
+    return !this.executing.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final boolean beginExecution() {
+    return this.executing.compareAndSet(false, true);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void endExecution() {
+    this.executing.set(false);
+  }
+}
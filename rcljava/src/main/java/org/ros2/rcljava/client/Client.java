@@ -18,16 +18,37 @@ package org.ros2.rcljava.client;
 import java.time.Duration;
 import java.util.concurrent.Future;
 
+import org.ros2.rcljava.MessagePool;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.concurrent.RCLFuture;
 import org.ros2.rcljava.consumers.Consumer;
+import org.ros2.rcljava.executors.Schedulable;
 import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.interfaces.MessageDefinition;
 import org.ros2.rcljava.interfaces.ServiceDefinition;
 import org.ros2.rcljava.service.RMWRequestId;
 
-public interface Client<T extends ServiceDefinition> extends Disposable {
+public interface Client<T extends ServiceDefinition> extends Disposable, Schedulable {
   ServiceDefinition getServiceDefinition();
 
+  /**
+   * @return The pool responses are taken into, or null if new responses are created.
+   */
+  MessagePool<? extends MessageDefinition> getResponsePool();
+
+  /**
+   * Take responses into messages acquired from a pool, instead of creating a new message for
+   * every response.
+   *
+   * A response is released to the pool once the callback passed to
+   * @{link #asyncSendRequest(U, Consumer)} returned, so neither the callback nor the caller may
+   * keep a reference to it, or read it from its future, afterwards.
+   * Responses to requests that were removed are released right away.
+   *
+   * @param responsePool The pool of the response type of the service, or null.
+   */
+  void setResponsePool(MessagePool<? extends MessageDefinition> responsePool);
+
   <U extends MessageDefinition> void handleResponse(RMWRequestId header, U response);
 
   <U extends MessageDefinition, V extends MessageDefinition> ResponseFuture<V> asyncSendRequest(
@@ -82,4 +103,10 @@ public interface Client<T extends ServiceDefinition> extends Disposable {
   boolean waitForService(Duration timeout);
 
   String getServiceName();
+
+  /**
+   * @return The @{link CallbackGroup} this client belongs to, or null if it uses the default
+   *   callback group of its @{link org.ros2.rcljava.node.Node}.
+   */
+  CallbackGroup getCallbackGroup();
 }
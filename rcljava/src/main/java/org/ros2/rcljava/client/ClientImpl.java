@@ -27,9 +27,13 @@ import java.util.Map;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import org.ros2.rcljava.MessagePool;
 import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.common.JNIUtils;
 import org.ros2.rcljava.consumers.Consumer;
+import org.ros2.rcljava.executors.SchedulingParameters;
+import org.ros2.rcljava.executors.SchedulingParametersHolder;
 import org.ros2.rcljava.interfaces.MessageDefinition;
 import org.ros2.rcljava.interfaces.ServiceDefinition;
 import org.ros2.rcljava.node.Node;
@@ -75,23 +79,65 @@ public class ClientImpl<T extends ServiceDefinition> implements Client<T> {
 
   private final ServiceDefinition serviceDefinition;
 
+  private final CallbackGroup callbackGroup;
+
+  private volatile MessagePool<? extends MessageDefinition> responsePool;
+
+  private final SchedulingParametersHolder schedulingParameters;
+
   public ClientImpl(
     final ServiceDefinition serviceDefinition,
     final WeakReference<Node> nodeReference,
     final long handle,
     final String serviceName)
+  {
+    this(serviceDefinition, nodeReference, handle, serviceName, null);
+  }
+
+  public ClientImpl(
+    final ServiceDefinition serviceDefinition,
+    final WeakReference<Node> nodeReference,
+    final long handle,
+    final String serviceName,
+    final CallbackGroup callbackGroup)
   {
     this.nodeReference = nodeReference;
+    this.schedulingParameters = new SchedulingParametersHolder(nodeReference);
     this.handle = handle;
     this.serviceName = serviceName;
     this.serviceDefinition = serviceDefinition;
+    this.callbackGroup = callbackGroup;
     this.pendingRequests = new HashMap<Long, PendingRequest>();
   }
 
+  public CallbackGroup getCallbackGroup() {
+    return this.callbackGroup;
+  }
+
+  public SchedulingParameters getSchedulingParameters() {
+    return this.schedulingParameters.get();
+  }
+
+  public void setSchedulingParameters(final SchedulingParameters schedulingParameters) {
+    this.schedulingParameters.set(schedulingParameters);
+  }
+
   public ServiceDefinition getServiceDefinition() {
     return this.serviceDefinition;
   }
 
+  public final MessagePool<? extends MessageDefinition> getResponsePool() {
+    return this.responsePool;
+  }
+
+  public final void setResponsePool(final MessagePool<? extends MessageDefinition> responsePool) {
+    if (responsePool != null
+        && responsePool.getMessageType() != this.serviceDefinition.newResponseInstance().getClass()) {
+      throw new IllegalArgumentException("The response pool must hold responses of this service");
+    }
+    this.responsePool = responsePool;
+  }
+
   public final <U extends MessageDefinition, V extends MessageDefinition> ResponseFuture<V>
   asyncSendRequest(final U request) {
     return asyncSendRequest(request, new Consumer<Future<V>>() {
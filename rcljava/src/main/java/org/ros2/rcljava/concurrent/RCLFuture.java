@@ -17,6 +17,8 @@ package org.ros2.rcljava.concurrent;
 
 import java.lang.Deprecated;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -27,9 +29,14 @@ import org.ros2.rcljava.node.Node;
 
 public class RCLFuture<V> implements Future<V> {
   private WeakReference<Node> nodeReference;
-  private boolean done = false;
+  private volatile boolean done = false;
   private V value = null;
 
+  /**
+   * Callbacks that are called once the future is done, see @{link #addDoneCallback(Callback)}.
+   */
+  private final List<Callback> doneCallbacks = new ArrayList<Callback>();
+
   public RCLFuture() {}
 
   public final synchronized V get() throws InterruptedException, ExecutionException {
@@ -84,9 +91,39 @@ public class RCLFuture<V> implements Future<V> {
     return false;
   }
 
-  public final synchronized void set(final V value) {
-    this.value = value;
-    done = true;
-    this.notify();
+  public final void set(final V value) {
+    Callback[] callbacks;
+    synchronized (this) {
+      this.value = value;
+      done = true;
+      this.notify();
+      callbacks = this.doneCallbacks.toArray(new Callback[this.doneCallbacks.size()]);
+    }
+    for (Callback callback : callbacks) {
+      callback.call();
+    }
+  }
+
+  /**
+   * Register a callback that is called from the thread that completes this future.
+   *
+   * If the future is already done, the callback is called right away from the calling thread.
+   * Executors use it to stop waiting as soon as the future they spin on is done.
+   */
+  public final void addDoneCallback(final Callback callback) {
+    synchronized (this) {
+      if (!this.done) {
+        this.doneCallbacks.add(callback);
+        return;
+      }
+    }
+    callback.call();
+  }
+
+  /**
+   * Remove a callback registered with @{link #addDoneCallback(Callback)}.
+   */
+  public final synchronized void removeDoneCallback(final Callback callback) {
+    this.doneCallbacks.remove(callback);
   }
 }
@@ -15,6 +15,7 @@
 
 package org.ros2.rcljava.contexts;
 
+import org.ros2.rcljava.concurrent.Callback;
 import org.ros2.rcljava.interfaces.Disposable;
 
 /**
@@ -50,4 +51,16 @@ public interface Context extends Disposable {
    * return true if the Context is valid, false otherwise.
    */
   boolean isValid();
+
+  /**
+   * Register a callback that is called every time the context is shut down.
+   *
+   * Executors use it to stop waiting as soon as the context is no longer valid.
+   */
+  void addOnShutdownCallback(Callback callback);
+
+  /**
+   * Remove a callback registered with @{link #addOnShutdownCallback(Callback)}.
+   */
+  void removeOnShutdownCallback(Callback callback);
 }
@@ -15,7 +15,11 @@
 
 package org.ros2.rcljava.contexts;
 
+import java.util.Collection;
+import java.util.concurrent.LinkedBlockingQueue;
+
 import org.ros2.rcljava.common.JNIUtils;
+import org.ros2.rcljava.concurrent.Callback;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +44,11 @@ public class ContextImpl implements Context {
    */
   private long handle;
 
+  /**
+   * Callbacks that are called after the context was shut down.
+   */
+  private final Collection<Callback> onShutdownCallbacks;
+
   /**
    * Constructor.
    *
@@ -48,6 +57,7 @@ public class ContextImpl implements Context {
    */
   public ContextImpl(final long handle) {
     this.handle = handle;
+    this.onShutdownCallbacks = new LinkedBlockingQueue<Callback>();
   }
 
   /**
@@ -112,6 +122,23 @@ public class ContextImpl implements Context {
    */
   public final void shutdown() {
     nativeShutdown(this.handle);
+    for (Callback callback : this.onShutdownCallbacks) {
+      callback.call();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void addOnShutdownCallback(Callback callback) {
+    this.onShutdownCallbacks.add(callback);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void removeOnShutdownCallback(Callback callback) {
+    this.onShutdownCallbacks.remove(callback);
   }
 
   /**
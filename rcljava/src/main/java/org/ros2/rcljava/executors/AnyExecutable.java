@@ -15,9 +15,17 @@
 
 package org.ros2.rcljava.executors;
 
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.ros2.rcljava.MessagePool;
 import org.ros2.rcljava.action.ActionServer;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.client.Client;
 import org.ros2.rcljava.events.EventHandler;
+import org.ros2.rcljava.guardcondition.GuardCondition;
+import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.service.RMWRequestId;
 import org.ros2.rcljava.subscription.Subscription;
 import org.ros2.rcljava.service.Service;
 import org.ros2.rcljava.timer.Timer;
@@ -28,5 +36,60 @@ public class AnyExecutable {
   public Service service;
   public Client client;
   public EventHandler eventHandler;
+  public GuardCondition guardCondition;
   public ActionServer actionServer;
+
+  /**
+   * The callback group whose execution was started for this executable, if any.
+   */
+  public CallbackGroup callbackGroup;
+
+  /**
+   * Data taken from the middleware for the executable, see BaseExecutor#takeAnyExecutable.
+   */
+  public MessageDefinition message;
+  public List<MessageDefinition> messages;
+  public ByteBuffer serializedMessage;
+  public RMWRequestId rmwRequestId;
+  public MessageDefinition request;
+  public MessageDefinition response;
+
+  /**
+   * The native serialized message that serializedMessage wraps, released once executed.
+   */
+  public long serializedMessageHandle;
+
+  /**
+   * The pool the taken message, messages or request are released to once executed, if any.
+   */
+  public MessagePool messagePool;
+
+  /**
+   * The pool the response of a service is released to once sent, or the response taken by a
+   * client once handled, if any.
+   */
+  public MessagePool responsePool;
+
+  /**
+   * Reset all the fields, so that the instance can be reused for another executable.
+   */
+  public void clear() {
+    this.timer = null;
+    this.subscription = null;
+    this.service = null;
+    this.client = null;
+    this.eventHandler = null;
+    this.guardCondition = null;
+    this.actionServer = null;
+    this.callbackGroup = null;
+    this.message = null;
+    this.messages = null;
+    this.serializedMessage = null;
+    this.serializedMessageHandle = 0;
+    this.rmwRequestId = null;
+    this.request = null;
+    this.response = null;
+    this.messagePool = null;
+    this.responsePool = null;
+  }
 }
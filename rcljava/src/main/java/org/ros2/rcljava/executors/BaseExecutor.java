@@ -17,14 +17,13 @@ package org.ros2.rcljava.executors;
 
 import java.lang.Math;
 import java.lang.SuppressWarnings;
-import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 
@@ -32,20 +31,30 @@ import java.util.concurrent.LinkedBlockingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.ros2.rcljava.MessagePool;
 import org.ros2.rcljava.RCLJava;
 import org.ros2.rcljava.action.ActionServer;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.client.Client;
 import org.ros2.rcljava.common.JNIUtils;
+import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.concurrent.RCLFuture;
+import org.ros2.rcljava.contexts.Context;
 import org.ros2.rcljava.events.EventHandler;
 import org.ros2.rcljava.executors.AnyExecutable;
 import org.ros2.rcljava.executors.Executor;
+import org.ros2.rcljava.guardcondition.GuardCondition;
+import org.ros2.rcljava.guardcondition.GuardConditionImpl;
 import org.ros2.rcljava.interfaces.ActionDefinition;
+import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.interfaces.MessageDefinition;
 import org.ros2.rcljava.interfaces.ServiceDefinition;
 import org.ros2.rcljava.node.ComposableNode;
+import org.ros2.rcljava.node.Node;
 import org.ros2.rcljava.publisher.Publisher;
 import org.ros2.rcljava.service.RMWRequestId;
 import org.ros2.rcljava.service.Service;
+import org.ros2.rcljava.subscription.SerializedSubscription;
 import org.ros2.rcljava.subscription.Subscription;
 import org.ros2.rcljava.timer.Timer;
 
@@ -63,25 +72,202 @@ public class BaseExecutor {
 
   private BlockingQueue<ComposableNode> nodes = new LinkedBlockingQueue<ComposableNode>();
 
-  private List<Map.Entry<Long, Subscription>> subscriptionHandles =
-      new ArrayList<Map.Entry<Long, Subscription>>();
-
-  private List<Map.Entry<Long, Timer>> timerHandles = new ArrayList<Map.Entry<Long, Timer>>();
-
-  private List<Map.Entry<Long, Service>> serviceHandles = new ArrayList<Map.Entry<Long, Service>>();
-
-  private List<Map.Entry<Long, Client>> clientHandles = new ArrayList<Map.Entry<Long, Client>>();
-
-  private List<Map.Entry<Long, EventHandler>> eventHandles = new ArrayList<Map.Entry<Long, EventHandler>>();
+  /**
+   * If true, the entities are only collected again when a node is added or removed, or when
+   * a node or an entity is disposed.
+   */
+  private final boolean staticEntities;
+
+  /**
+   * Set when a node is added or removed, so that the entities are collected again.
+   */
+  private volatile boolean nodesChanged = true;
+
+  /**
+   * Copy of nodes taken when they last changed, so that they can be iterated without
+   * allocating an iterator on every wait.
+   */
+  private ComposableNode[] composableNodes = new ComposableNode[0];
+
+  /**
+   * Executable that is reused by the next call to getNextExecutable(), see
+   * recycleExecutable(AnyExecutable).
+   */
+  private AnyExecutable spareExecutable = new AnyExecutable();
+
+  /**
+   * Batch of every subscription that takes messages in batches, kept between takes so that
+   * taking a batch does not allocate, see takeBatch(Subscription, int, AnyExecutable).
+   * A batch is removed while its messages are executed, and guarded by the map itself as
+   * it is put back by the thread that executed them.
+   */
+  private final Map<Subscription, MessageBatch> spareBatches =
+    new IdentityHashMap<Subscription, MessageBatch>();
+
+  /**
+   * Sum of the entities versions of the nodes at the time the entities were last collected.
+   */
+  private long entitiesVersion;
+
+  /**
+   * Handle of the wait set that is reused across spins, or zero if it was not created yet.
+   */
+  private long waitSetHandle;
+
+  /**
+   * The context the wait set was initialized with.
+   */
+  private Context waitSetContext;
+
+  /**
+   * Guard condition that is always in the wait set, triggered to wake up a waiting thread.
+   * Created together with the wait set, in the same context.
+   */
+  private volatile GuardCondition interruptGuardCondition;
+
+  /**
+   * Set by wakeUp(), so that a wake up that happens before the interrupt guard condition
+   * exists is not lost.
+   */
+  private volatile boolean wakeUpPending;
+
+  /**
+   * Registered on the context of the wait set, so that shutting it down stops the wait,
+   * and on the futures that are spun on, so that completing them stops the wait.
+   */
+  private final Callback wakeUpCallback = new Callback() {
+    public void call() {
+      BaseExecutor.this.wakeUp();
+    }
+  };
+
+  /**
+   * Set while some entities are left out of the wait set because their callback group is
+   * busy, so that ending the execution of a callback wakes up the waiting thread.
+   */
+  private volatile boolean hasBlockedEntities;
+
+  // For every kind of entity, the entities, their callback groups, their handles and the
+  // handles that are actually waited on, where entities whose callback group is busy are
+  // replaced by zero.
+  private Subscription[] subscriptions = new Subscription[0];
+  private CallbackGroup[] subscriptionCallbackGroups = new CallbackGroup[0];
+  private long[] subscriptionHandles = new long[0];
+  private long[] subscriptionWaitHandles = new long[0];
+
+  private Timer[] timers = new Timer[0];
+  private CallbackGroup[] timerCallbackGroups = new CallbackGroup[0];
+  private long[] timerHandles = new long[0];
+  private long[] timerWaitHandles = new long[0];
+
+  private Service[] services = new Service[0];
+  private CallbackGroup[] serviceCallbackGroups = new CallbackGroup[0];
+  private long[] serviceHandles = new long[0];
+  private long[] serviceWaitHandles = new long[0];
+
+  private Client[] clients = new Client[0];
+  private CallbackGroup[] clientCallbackGroups = new CallbackGroup[0];
+  private long[] clientHandles = new long[0];
+  private long[] clientWaitHandles = new long[0];
+
+  private EventHandler[] eventHandlers = new EventHandler[0];
+  private CallbackGroup[] eventHandlerCallbackGroups = new CallbackGroup[0];
+  private long[] eventHandles = new long[0];
+  private long[] eventWaitHandles = new long[0];
+
+  // Only the first guardConditions.length handles belong to guard conditions with a callback,
+  // the remaining ones are the interrupt guard condition and the notify guard conditions
+  // of the nodes, that only wake up the waiting thread.
+  private GuardCondition[] guardConditions = new GuardCondition[0];
+  private CallbackGroup[] guardConditionCallbackGroups = new CallbackGroup[0];
+  private long[] guardConditionHandles = new long[0];
+  private long[] guardConditionWaitHandles = new long[0];
+
+  private ActionServer[] actionServers = new ActionServer[0];
+  private CallbackGroup[] actionServerCallbackGroups = new CallbackGroup[0];
+  private long[] actionServerHandles = new long[0];
+  private long[] actionServerWaitHandles = new long[0];
+
+  /**
+   * Number of bits used in the ready entities bitset by each action server, one for each of
+   * goal request, cancel request, result request and goal expired.
+   */
+  private static final int ACTION_SERVER_READY_BITS = 4;
+
+  /**
+   * Bitset that the native code fills with the readiness of every entity after waiting.
+   *
+   * Bits are laid out as subscriptions, timers, services, clients, events, guard conditions
+   * and then ACTION_SERVER_READY_BITS bits per action server.
+   * A bit is cleared once the corresponding entity was picked for execution.
+   */
+  private long[] readyEntities = new long[0];
+
+  private int timersOffset;
+  private int servicesOffset;
+  private int clientsOffset;
+  private int eventHandlersOffset;
+  private int guardConditionsOffset;
+  private int actionServersOffset;
+
+  /**
+   * Set if any entity has scheduling parameters other than the default ones, in which case
+   * the most urgent ready entity is executed first instead of following the default order.
+   */
+  private boolean usesSchedulingParameters;
+
+  // The priority and relative deadline of every entity, indexed like the readyEntities bitset,
+  // up to the guard conditions with a callback.
+  private int[] schedulingPriorities = new int[0];
+  private long[] schedulingDeadlines = new long[0];
+
+  /**
+   * For every entity with scheduling parameters, the System.nanoTime() at which a wait first
+   * found it ready since its callback last ran, or NOT_READY.
+   * The deadline of a ready entity is that time plus its relative deadline.
+   */
+  private long[] readySinceNs = new long[0];
+
+  private static final long NOT_READY = Long.MIN_VALUE;
+
+  public BaseExecutor() {
+    this(false);
+  }
 
-  private List<Map.Entry<Long, ActionServer>> actionServerHandles = new ArrayList<Map.Entry<Long, ActionServer>>();
+  /**
+   * Constructor.
+   *
+   * @param staticEntities If true, the entities of the nodes are collected once and then only
+   *   when a node is added or removed, or a node or one of its entities is disposed.
+   *   Entities that are created afterwards are not noticed.
+   */
+  public BaseExecutor(boolean staticEntities) {
+    this.staticEntities = staticEntities;
+  }
 
   protected void addNode(ComposableNode node) {
     this.nodes.add(node);
+    this.nodesChanged = true;
+    this.wakeUp();
   }
 
   protected void removeNode(ComposableNode node) {
     this.nodes.remove(node);
+    this.nodesChanged = true;
+    this.wakeUp();
+  }
+
+  /**
+   * Wake up the thread waiting for work, if any, so that it checks the executor state again.
+   *
+   * If no thread is waiting, the next wait returns immediately.
+   */
+  protected void wakeUp() {
+    this.wakeUpPending = true;
+    GuardCondition interruptGuardCondition = this.interruptGuardCondition;
+    if (interruptGuardCondition != null) {
+      interruptGuardCondition.trigger();
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -92,6 +278,22 @@ public class BaseExecutor {
     subscription.executeCallback(message);
   }
 
+  @SuppressWarnings("unchecked")
+  protected static void executeSubscriptionCallbackUnchecked(
+    Subscription subscription,
+    List<MessageDefinition> messages)
+  {
+    subscription.executeCallback(messages);
+  }
+
+  @SuppressWarnings("unchecked")
+  protected static void releaseMessageUnchecked(
+    MessagePool messagePool,
+    MessageDefinition message)
+  {
+    messagePool.release(message);
+  }
+
   @SuppressWarnings("unchecked")
   protected static void clientHandleResponseUnchecked(
     Client client,
@@ -101,331 +303,1101 @@ public class BaseExecutor {
     client.handleResponse(rmwRequestId, response);
   }
 
-  protected void executeAnyExecutable(AnyExecutable anyExecutable) {
+  /**
+   * Take the data the passed executable will be executed with.
+   *
+   * Timers are called, and the message, request or response of subscriptions, services
+   * and clients is taken from the middleware and stored in the executable, so that the
+   * entity is not seen as ready again while its callback is pending.
+   *
+   * @return false if there was nothing to take, in which case the executable must not
+   *   be executed.
+   */
+  protected boolean takeAnyExecutable(AnyExecutable anyExecutable) {
     if (anyExecutable.timer != null) {
       anyExecutable.timer.callTimer();
-      anyExecutable.timer.executeCallback();
-      timerHandles.remove(anyExecutable.timer.getHandle());
     }
 
     if (anyExecutable.subscription != null) {
-      MessageDefinition message = nativeTake(
-          anyExecutable.subscription.getHandle(), anyExecutable.subscription.getMessageType());
-      if (message != null) {
-        // Safety: nativeTake() will return the correct type here.
-        // We can't do much better here, as subscriptions are type erased.
-        executeSubscriptionCallbackUnchecked(anyExecutable.subscription, message);
+      Subscription subscription = anyExecutable.subscription;
+      int maxBatchSize = subscription.getMaxBatchSize();
+      if (subscription instanceof SerializedSubscription) {
+        if (!takeSerialized((SerializedSubscription) subscription, anyExecutable)) {
+          return false;
+        }
+      } else if (maxBatchSize > 1) {
+        if (!this.takeBatch(subscription, maxBatchSize, anyExecutable)) {
+          return false;
+        }
+      } else {
+        MessageDefinition message = subscription.getReusableMessage();
+        MessagePool messagePool = null;
+        if (message == null) {
+          messagePool = subscription.getMessagePool();
+          if (messagePool != null) {
+            message = messagePool.acquire();
+          }
+        }
+        anyExecutable.message = nativeTake(
+            subscription.getHandle(), subscription.getNativeMessageHandle(),
+            subscription.getToJavaConverterHandle(), message);
+        if (anyExecutable.message == null) {
+          if (messagePool != null) {
+            releaseMessageUnchecked(messagePool, message);
+          }
+          return false;
+        }
+        anyExecutable.messagePool = messagePool;
       }
-      subscriptionHandles.remove(anyExecutable.subscription.getHandle());
     }
 
     if (anyExecutable.service != null) {
       ServiceDefinition serviceDefinition = anyExecutable.service.getServiceDefinition();
-      MessageDefinition requestMessage = serviceDefinition.newRequestInstance();
-      MessageDefinition responseMessage = serviceDefinition.newResponseInstance();
-
-      if (requestMessage != null && responseMessage != null) {
-        long requestFromJavaConverterHandle = requestMessage.getFromJavaConverterInstance();
-        long requestToJavaConverterHandle = requestMessage.getToJavaConverterInstance();
-        long requestDestructorHandle = requestMessage.getDestructorInstance();
-        long responseFromJavaConverterHandle = responseMessage.getFromJavaConverterInstance();
-        long responseToJavaConverterHandle = responseMessage.getToJavaConverterInstance();
-        long responseDestructorHandle = responseMessage.getDestructorInstance();
-
-        RMWRequestId rmwRequestId =
-          nativeTakeRequest(anyExecutable.service.getHandle(), requestFromJavaConverterHandle,
-            requestToJavaConverterHandle, requestDestructorHandle, requestMessage);
-        if (rmwRequestId != null) {
-          anyExecutable.service.executeCallback(rmwRequestId, requestMessage, responseMessage);
-          nativeSendServiceResponse(
-            anyExecutable.service.getHandle(), rmwRequestId,
-            responseFromJavaConverterHandle, responseDestructorHandle, responseMessage);
+      MessagePool requestPool = anyExecutable.service.getRequestPool();
+      MessageDefinition requestMessage = requestPool != null
+        ? requestPool.acquire() : serviceDefinition.newRequestInstance();
+
+      if (requestMessage == null) {
+        return false;
+      }
+
+      long requestFromJavaConverterHandle = requestMessage.getFromJavaConverterInstance();
+      long requestToJavaConverterHandle = requestMessage.getToJavaConverterInstance();
+      long requestDestructorHandle = requestMessage.getDestructorInstance();
+
+      anyExecutable.rmwRequestId =
+        nativeTakeRequest(anyExecutable.service.getHandle(), requestFromJavaConverterHandle,
+          requestToJavaConverterHandle, requestDestructorHandle, requestMessage);
+      if (anyExecutable.rmwRequestId == null) {
+        if (requestPool != null) {
+          releaseMessageUnchecked(requestPool, requestMessage);
+        }
+        return false;
+      }
+      // Only created once a request was taken, as it is handed to the callback to be filled.
+      MessagePool responsePool = anyExecutable.service.getResponsePool();
+      MessageDefinition responseMessage = responsePool != null
+        ? responsePool.acquire() : serviceDefinition.newResponseInstance();
+      if (responseMessage == null) {
+        if (requestPool != null) {
+          releaseMessageUnchecked(requestPool, requestMessage);
         }
+        return false;
       }
-      serviceHandles.remove(anyExecutable.service.getHandle());
+      anyExecutable.request = requestMessage;
+      anyExecutable.response = responseMessage;
+      // The pools of the service may be replaced before the executable is executed
+      anyExecutable.messagePool = requestPool;
+      anyExecutable.responsePool = responsePool;
     }
 
     if (anyExecutable.client != null) {
       ServiceDefinition serviceDefinition = anyExecutable.client.getServiceDefinition();
-      MessageDefinition responseMessage = serviceDefinition.newResponseInstance();
+      MessagePool responsePool = anyExecutable.client.getResponsePool();
+      MessageDefinition responseMessage = responsePool != null
+        ? responsePool.acquire() : serviceDefinition.newResponseInstance();
 
-      if (responseMessage != null) {
-        long responseFromJavaConverterHandle = responseMessage.getFromJavaConverterInstance();
-        long responseToJavaConverterHandle = responseMessage.getToJavaConverterInstance();
-        long responseDestructorHandle = responseMessage.getDestructorInstance();
+      if (responseMessage == null) {
+        return false;
+      }
 
-        RMWRequestId rmwRequestId =
-            nativeTakeResponse(anyExecutable.client.getHandle(), responseFromJavaConverterHandle,
-                responseToJavaConverterHandle, responseDestructorHandle, responseMessage);
+      long responseFromJavaConverterHandle = responseMessage.getFromJavaConverterInstance();
+      long responseToJavaConverterHandle = responseMessage.getToJavaConverterInstance();
+      long responseDestructorHandle = responseMessage.getDestructorInstance();
 
-        if (rmwRequestId != null) {
-          // Safety: nativeTakeResponse() will return the correct type here.
-          // We can't do much better here, as subscriptions are type erased.
-          clientHandleResponseUnchecked(anyExecutable.client, rmwRequestId, responseMessage);
+      anyExecutable.rmwRequestId =
+          nativeTakeResponse(anyExecutable.client.getHandle(), responseFromJavaConverterHandle,
+              responseToJavaConverterHandle, responseDestructorHandle, responseMessage);
+      if (anyExecutable.rmwRequestId == null) {
+        if (responsePool != null) {
+          releaseMessageUnchecked(responsePool, responseMessage);
         }
+        return false;
       }
-      clientHandles.remove(anyExecutable.client.getHandle());
+      anyExecutable.response = responseMessage;
+      // The pool of the client may be replaced before the executable is executed
+      anyExecutable.responsePool = responsePool;
     }
 
-    if (anyExecutable.eventHandler != null) {
-      anyExecutable.eventHandler.executeCallback();
-      eventHandles.remove(anyExecutable.eventHandler.getHandle());
+    return true;
+  }
+
+  /**
+   * Take a serialized message of a subscription into the executable.
+   *
+   * The message is taken into the serialized message of the subscription, which is released
+   * once the callback was executed.
+   *
+   * @return false if there was no message to take.
+   */
+  private static boolean takeSerialized(
+      SerializedSubscription subscription, AnyExecutable anyExecutable) {
+    long serializedMessageHandle = subscription.acquireSerializedMessage();
+    boolean taken = false;
+    try {
+      int length = nativeTakeSerialized(subscription.getHandle(), serializedMessageHandle);
+      if (length < 0) {
+        return false;
+      }
+      anyExecutable.serializedMessage =
+        subscription.wrapSerializedMessage(serializedMessageHandle, length);
+      anyExecutable.serializedMessageHandle = serializedMessageHandle;
+      taken = true;
+      return true;
+    } finally {
+      if (!taken) {
+        subscription.releaseSerializedMessage(serializedMessageHandle);
+      }
+    }
+  }
+
+  /**
+   * Take up to maxBatchSize messages of a subscription into the executable.
+   *
+   * The spare batch of the subscription is used if there is one, and if not, because the
+   * subscription is new or its previous batch is still executing, a new batch is created.
+   *
+   * @return false if there was no message to take.
+   */
+  private boolean takeBatch(
+    Subscription subscription, int maxBatchSize, AnyExecutable anyExecutable)
+  {
+    MessageBatch batch;
+    synchronized (this.spareBatches) {
+      batch = this.spareBatches.remove(subscription);
+    }
+    if (batch == null || batch.messages.length != maxBatchSize) {
+      batch = new MessageBatch(maxBatchSize);
     }
 
-    if (anyExecutable.actionServer != null) {
-      anyExecutable.actionServer.execute();
-      this.actionServerHandles.remove(anyExecutable.actionServer.getHandle());
+    // Spare batches hold no messages, so without a pool new messages are taken
+    MessagePool messagePool = subscription.getMessagePool();
+    MessageDefinition[] messages = batch.messages;
+    if (messagePool != null) {
+      for (int i = 0; i < maxBatchSize; ++i) {
+        messages[i] = messagePool.acquire();
+      }
     }
+    int numberOfMessages = nativeTakeBatch(
+        subscription.getHandle(), subscription.getNativeMessageHandle(),
+        subscription.getToJavaConverterHandle(), messages);
+    for (int i = numberOfMessages; i < maxBatchSize; ++i) {
+      if (messagePool != null) {
+        releaseMessageUnchecked(messagePool, messages[i]);
+      }
+      messages[i] = null;
+    }
+    batch.setSize(numberOfMessages);
+
+    if (numberOfMessages == 0) {
+      this.recycleBatch(subscription, batch);
+      return false;
+    }
+    anyExecutable.messages = batch;
+    anyExecutable.messagePool = messagePool;
+    return true;
   }
 
-  protected void waitForWork(long timeout) {
-    this.subscriptionHandles.clear();
-    this.timerHandles.clear();
-    this.serviceHandles.clear();
-    this.clientHandles.clear();
-    this.eventHandles.clear();
-    this.actionServerHandles.clear();
-
-    for (ComposableNode node : this.nodes) {
-      for (Subscription subscription : node.getNode().getSubscriptions()) {
-        this.subscriptionHandles.add(new AbstractMap.SimpleEntry<Long, Subscription>(
-            subscription.getHandle(), subscription));
-        Collection<EventHandler> eventHandlers = subscription.getEventHandlers();
-        for (EventHandler eventHandler : eventHandlers) {
-          this.eventHandles.add(new AbstractMap.SimpleEntry<Long, EventHandler>(
-            eventHandler.getHandle(), eventHandler));
+  /**
+   * Keep the batch of a subscription whose messages were executed for its next take.
+   *
+   * Batches of disposed subscriptions are dropped.
+   */
+  private void recycleBatch(Subscription subscription, List<MessageDefinition> messages) {
+    if (!(messages instanceof MessageBatch) || subscription.getHandle() == 0) {
+      return;
+    }
+    MessageBatch batch = (MessageBatch) messages;
+    // Messages are taken into the elements that aren't null, and the callback may keep the
+    // messages that weren't acquired from a pool
+    Arrays.fill(batch.messages, null);
+    batch.setSize(0);
+    synchronized (this.spareBatches) {
+      this.spareBatches.put(subscription, batch);
+    }
+  }
+
+  /**
+   * Execute the callback of an executable whose data was taken with takeAnyExecutable().
+   *
+   * This method only modifies the state of the executor to keep the batch of a subscription
+   * for its next take, and can be called from any thread.
+   */
+  protected void executeTakenExecutable(AnyExecutable anyExecutable) {
+    if (anyExecutable.timer != null) {
+      anyExecutable.timer.executeCallback();
+    }
+
+    if (anyExecutable.subscription != null) {
+      // Safety: nativeTake() and nativeTakeBatch() will return the correct type here.
+      // We can't do much better here, as subscriptions are type erased.
+      if (anyExecutable.serializedMessage != null) {
+        try {
+          ((SerializedSubscription) anyExecutable.subscription).executeCallback(
+            anyExecutable.serializedMessage);
+        } finally {
+          ((SerializedSubscription) anyExecutable.subscription).releaseSerializedMessage(
+            anyExecutable.serializedMessageHandle);
+          anyExecutable.serializedMessage = null;
+          anyExecutable.serializedMessageHandle = 0;
+        }
+      } else if (anyExecutable.messages != null) {
+        try {
+          executeSubscriptionCallbackUnchecked(anyExecutable.subscription, anyExecutable.messages);
+        } finally {
+          if (anyExecutable.messagePool != null) {
+            for (MessageDefinition message : anyExecutable.messages) {
+              releaseMessageUnchecked(anyExecutable.messagePool, message);
+            }
+            anyExecutable.messagePool = null;
+          }
+          this.recycleBatch(anyExecutable.subscription, anyExecutable.messages);
+          anyExecutable.messages = null;
+        }
+      } else {
+        try {
+          executeSubscriptionCallbackUnchecked(anyExecutable.subscription, anyExecutable.message);
+        } finally {
+          if (anyExecutable.messagePool != null) {
+            releaseMessageUnchecked(anyExecutable.messagePool, anyExecutable.message);
+            anyExecutable.messagePool = null;
+          }
         }
       }
+    }
 
-      for (Publisher publisher : node.getNode().getPublishers()) {
-        Collection<EventHandler> eventHandlers = publisher.getEventHandlers();
-        for (EventHandler eventHandler : eventHandlers) {
-          this.eventHandles.add(new AbstractMap.SimpleEntry<Long, EventHandler>(
-            eventHandler.getHandle(), eventHandler));
+    if (anyExecutable.service != null) {
+      MessageDefinition responseMessage = anyExecutable.response;
+      try {
+        anyExecutable.service.executeCallback(
+          anyExecutable.rmwRequestId, anyExecutable.request, responseMessage);
+        nativeSendServiceResponse(
+          anyExecutable.service.getHandle(), anyExecutable.rmwRequestId,
+          responseMessage.getFromJavaConverterInstance(), responseMessage.getDestructorInstance(),
+          responseMessage);
+      } finally {
+        if (anyExecutable.messagePool != null) {
+          releaseMessageUnchecked(anyExecutable.messagePool, anyExecutable.request);
+          anyExecutable.messagePool = null;
+        }
+        if (anyExecutable.responsePool != null) {
+          releaseMessageUnchecked(anyExecutable.responsePool, responseMessage);
+          anyExecutable.responsePool = null;
         }
       }
+    }
 
-      for (Timer timer : node.getNode().getTimers()) {
-        this.timerHandles.add(new AbstractMap.SimpleEntry<Long, Timer>(timer.getHandle(), timer));
+    if (anyExecutable.client != null) {
+      // Safety: nativeTakeResponse() will return the correct type here.
+      // We can't do much better here, as subscriptions are type erased.
+      try {
+        clientHandleResponseUnchecked(
+          anyExecutable.client, anyExecutable.rmwRequestId, anyExecutable.response);
+      } finally {
+        if (anyExecutable.responsePool != null) {
+          releaseMessageUnchecked(anyExecutable.responsePool, anyExecutable.response);
+          anyExecutable.responsePool = null;
+        }
       }
+    }
 
-      for (Service service : node.getNode().getServices()) {
-        this.serviceHandles.add(
-            new AbstractMap.SimpleEntry<Long, Service>(service.getHandle(), service));
-      }
+    if (anyExecutable.eventHandler != null) {
+      anyExecutable.eventHandler.executeCallback();
+    }
 
-      for (Client client : node.getNode().getClients()) {
-        this.clientHandles.add(
-            new AbstractMap.SimpleEntry<Long, Client>(client.getHandle(), client));
-      }
+    if (anyExecutable.guardCondition != null) {
+      anyExecutable.guardCondition.executeCallback();
+    }
 
-      for (ActionServer actionServer : node.getNode().getActionServers()) {
-        this.actionServerHandles.add(
-            new AbstractMap.SimpleEntry<Long, ActionServer>(actionServer.getHandle(), actionServer));
-      }
+    if (anyExecutable.actionServer != null) {
+      anyExecutable.actionServer.execute();
     }
+  }
 
-    int subscriptionsSize = 0;
-    int timersSize = 0;
-    int clientsSize = 0;
-    int servicesSize = 0;
-    int eventsSize = this.eventHandles.size();
+  protected void executeAnyExecutable(AnyExecutable anyExecutable) {
+    try {
+      if (this.takeAnyExecutable(anyExecutable)) {
+        this.executeTakenExecutable(anyExecutable);
+      }
+    } finally {
+      endExecution(anyExecutable);
+      this.recycleExecutable(anyExecutable);
+    }
+  }
 
-    for (ComposableNode node : this.nodes) {
-      subscriptionsSize += node.getNode().getSubscriptions().size();
-      timersSize += node.getNode().getTimers().size();
-      clientsSize += node.getNode().getClients().size();
-      servicesSize += node.getNode().getServices().size();
+  /**
+   * Keep an executable that is no longer used, so that getNextExecutable() does not have to
+   * allocate a new one.
+   *
+   * Only one executable is kept, an executable that is still in use by an outer spin call
+   * when spinning is nested is simply not recycled.
+   */
+  private void recycleExecutable(AnyExecutable anyExecutable) {
+    anyExecutable.clear();
+    this.spareExecutable = anyExecutable;
+  }
 
-      for (ActionServer actionServer : node.getNode().getActionServers()) {
-        subscriptionsSize += actionServer.getNumberOfSubscriptions();
-        timersSize += actionServer.getNumberOfTimers();
-        clientsSize += actionServer.getNumberOfClients();
-        servicesSize += actionServer.getNumberOfServices();
+  /**
+   * Release the callback group of an executable, if its execution was started.
+   *
+   * If entities of the group were left out of the wait set, the waiting thread is woken up
+   * so that it waits on them again.
+   */
+  protected void endExecution(AnyExecutable anyExecutable) {
+    if (anyExecutable.callbackGroup != null) {
+      anyExecutable.callbackGroup.endExecution();
+      anyExecutable.callbackGroup = null;
+      if (this.hasBlockedEntities) {
+        this.wakeUp();
       }
     }
+  }
 
-    if (subscriptionsSize == 0 && timersSize == 0 && clientsSize == 0 && servicesSize == 0) {
-      return;
+  private static long[] getHandles(Disposable[] entities) {
+    long[] handles = new long[entities.length];
+    for (int i = 0; i < entities.length; ++i) {
+      handles[i] = entities[i].getHandle();
     }
+    return handles;
+  }
 
-    long waitSetHandle = nativeGetZeroInitializedWaitSet();
-    long contextHandle = RCLJava.getDefaultContext().getHandle();
-    nativeWaitSetInit(
-      waitSetHandle, contextHandle, subscriptionsSize, 0,
-      timersSize, clientsSize, servicesSize, eventsSize);
+  private static long[] getHandles(Disposable[] entities, List<Long> extraHandles) {
+    long[] handles = new long[entities.length + extraHandles.size()];
+    for (int i = 0; i < entities.length; ++i) {
+      handles[i] = entities[i].getHandle();
+    }
+    for (int i = 0; i < extraHandles.size(); ++i) {
+      handles[entities.length + i] = extraHandles.get(i);
+    }
+    return handles;
+  }
 
-    nativeWaitSetClear(waitSetHandle);
+  private static CallbackGroup getCallbackGroup(CallbackGroup callbackGroup, Node node) {
+    return callbackGroup != null ? callbackGroup : node.getDefaultCallbackGroup();
+  }
 
-    for (Map.Entry<Long, Subscription> entry : this.subscriptionHandles) {
-      nativeWaitSetAddSubscription(waitSetHandle, entry.getKey());
+  /**
+   * @return true if any of the attached nodes or of the collected entities was disposed,
+   *   so that its handle must not be waited on anymore.
+   */
+  private boolean hasDisposedEntities() {
+    ComposableNode[] composableNodes = this.composableNodes;
+    for (int i = 0; i < composableNodes.length; ++i) {
+      if (composableNodes[i].getNode().getHandle() == 0) {
+        return true;
+      }
     }
+    return hasDisposed(this.subscriptions) || hasDisposed(this.timers) ||
+      hasDisposed(this.services) || hasDisposed(this.clients) ||
+      hasDisposed(this.eventHandlers) || hasDisposed(this.guardConditions) ||
+      hasDisposed(this.actionServers);
+  }
 
-    for (Map.Entry<Long, Timer> entry : this.timerHandles) {
-      nativeWaitSetAddTimer(waitSetHandle, entry.getKey());
+  private static boolean hasDisposed(Disposable[] entities) {
+    for (int i = 0; i < entities.length; ++i) {
+      if (entities[i].getHandle() == 0) {
+        return true;
+      }
     }
+    return false;
+  }
 
-    for (Map.Entry<Long, Service> entry : this.serviceHandles) {
-      nativeWaitSetAddService(waitSetHandle, entry.getKey());
+  /**
+   * Check if entities were added to or removed from the attached nodes since they were
+   * last collected, and if so collect them again and resize the wait set.
+   *
+   * The wait set is not created while the context is shut down.
+   */
+  private void refreshEntities() {
+    boolean nodesChanged = this.nodesChanged;
+    if (nodesChanged) {
+      // Cleared before the nodes are copied, so that a concurrent change is never missed.
+      this.nodesChanged = false;
+      this.composableNodes = this.nodes.toArray(new ComposableNode[this.nodes.size()]);
     }
 
-    for (Map.Entry<Long, Client> entry : this.clientHandles) {
-      nativeWaitSetAddClient(waitSetHandle, entry.getKey());
+    ComposableNode[] composableNodes = this.composableNodes;
+    long version = 0;
+    for (int i = 0; i < composableNodes.length; ++i) {
+      version += composableNodes[i].getNode().getEntitiesVersion();
     }
 
-    for (Map.Entry<Long, EventHandler> entry : this.eventHandles) {
-      nativeWaitSetAddEvent(waitSetHandle, entry.getKey());
+    Context context = RCLJava.getDefaultContext();
+    boolean contextChanged = this.waitSetHandle != 0 && this.waitSetContext != context;
+    if (!nodesChanged && version == this.entitiesVersion && !contextChanged &&
+      this.waitSetHandle != 0)
+    {
+      return;
+    }
+    if (this.staticEntities && !nodesChanged && !contextChanged && this.waitSetHandle != 0 &&
+      !this.hasDisposedEntities())
+    {
+      // New entities are left out, but disposed ones are never waited on.
+      this.entitiesVersion = version;
+      return;
     }
 
-    for (Map.Entry<Long, ActionServer> entry : this.actionServerHandles) {
-      nativeWaitSetAddActionServer(waitSetHandle, entry.getKey());
+    if (contextChanged) {
+      this.disposeWaitSet();
+    }
+    if (this.waitSetHandle == 0 && !context.isValid()) {
+      return;
     }
 
-    nativeWait(waitSetHandle, timeout);
+    this.entitiesVersion = version;
+
+    List<Subscription> subscriptions = new ArrayList<Subscription>();
+    List<Timer> timers = new ArrayList<Timer>();
+    List<Service> services = new ArrayList<Service>();
+    List<Client> clients = new ArrayList<Client>();
+    List<EventHandler> eventHandlers = new ArrayList<EventHandler>();
+    List<GuardCondition> guardConditions = new ArrayList<GuardCondition>();
+    List<Long> wakeUpGuardConditionHandles = new ArrayList<Long>();
+    List<ActionServer> actionServers = new ArrayList<ActionServer>();
+    List<CallbackGroup> subscriptionCallbackGroups = new ArrayList<CallbackGroup>();
+    List<CallbackGroup> timerCallbackGroups = new ArrayList<CallbackGroup>();
+    List<CallbackGroup> serviceCallbackGroups = new ArrayList<CallbackGroup>();
+    List<CallbackGroup> clientCallbackGroups = new ArrayList<CallbackGroup>();
+    List<CallbackGroup> eventHandlerCallbackGroups = new ArrayList<CallbackGroup>();
+    List<CallbackGroup> guardConditionCallbackGroups = new ArrayList<CallbackGroup>();
+    List<CallbackGroup> actionServerCallbackGroups = new ArrayList<CallbackGroup>();
+
+    if (this.waitSetHandle == 0) {
+      this.interruptGuardCondition = new GuardConditionImpl(null, context, null, null);
+      this.waitSetContext = context;
+      context.addOnShutdownCallback(this.wakeUpCallback);
+    }
+    wakeUpGuardConditionHandles.add(this.interruptGuardCondition.getHandle());
+
+    for (ComposableNode composableNode : composableNodes) {
+      Node node = composableNode.getNode();
+      long notifyGuardConditionHandle = node.getNotifyGuardCondition().getHandle();
+      if (node.getHandle() == 0 || notifyGuardConditionHandle == 0) {
+        // The node was disposed, none of its handles can be waited on anymore. It stays added
+        // until it is removed, disposing it incremented its version so it is skipped here.
+        continue;
+      }
+      wakeUpGuardConditionHandles.add(notifyGuardConditionHandle);
+      // Event handlers and action servers always use the default callback group of the node.
+      CallbackGroup defaultCallbackGroup = node.getDefaultCallbackGroup();
+
+      for (Subscription subscription : node.getSubscriptions()) {
+        subscriptions.add(subscription);
+        subscriptionCallbackGroups.add(getCallbackGroup(subscription.getCallbackGroup(), node));
+        Collection<EventHandler> subscriptionEventHandlers = subscription.getEventHandlers();
+        for (EventHandler eventHandler : subscriptionEventHandlers) {
+          eventHandlers.add(eventHandler);
+          eventHandlerCallbackGroups.add(defaultCallbackGroup);
+        }
+      }
 
-    for (int i = 0; i < this.subscriptionHandles.size(); ++i) {
-      if (!nativeWaitSetSubscriptionIsReady(waitSetHandle, i)) {
-        this.subscriptionHandles.get(i).setValue(null);
+      for (Publisher publisher : node.getPublishers()) {
+        Collection<EventHandler> publisherEventHandlers = publisher.getEventHandlers();
+        for (EventHandler eventHandler : publisherEventHandlers) {
+          eventHandlers.add(eventHandler);
+          eventHandlerCallbackGroups.add(defaultCallbackGroup);
+        }
       }
-    }
 
-    for (int i = 0; i < this.timerHandles.size(); ++i) {
-      if (!nativeWaitSetTimerIsReady(waitSetHandle, i)) {
-        this.timerHandles.get(i).setValue(null);
+      for (Timer timer : node.getTimers()) {
+        timers.add(timer);
+        timerCallbackGroups.add(getCallbackGroup(timer.getCallbackGroup(), node));
       }
-    }
 
-    for (int i = 0; i < this.serviceHandles.size(); ++i) {
-      if (!nativeWaitSetServiceIsReady(waitSetHandle, i)) {
-        this.serviceHandles.get(i).setValue(null);
+      for (Service service : node.getServices()) {
+        services.add(service);
+        serviceCallbackGroups.add(getCallbackGroup(service.getCallbackGroup(), node));
       }
-    }
 
-    for (int i = 0; i < this.clientHandles.size(); ++i) {
-      if (!nativeWaitSetClientIsReady(waitSetHandle, i)) {
-        this.clientHandles.get(i).setValue(null);
+      for (Client client : node.getClients()) {
+        clients.add(client);
+        clientCallbackGroups.add(getCallbackGroup(client.getCallbackGroup(), node));
       }
-    }
 
-    for (int i = 0; i < this.eventHandles.size(); ++i) {
-      if (!nativeWaitSetEventIsReady(waitSetHandle, i)) {
-        this.eventHandles.get(i).setValue(null);
+      for (GuardCondition guardCondition : node.getGuardConditions()) {
+        guardConditions.add(guardCondition);
+        guardConditionCallbackGroups.add(
+          getCallbackGroup(guardCondition.getCallbackGroup(), node));
       }
-    }
 
-    for (Map.Entry<Long, ActionServer> entry : this.actionServerHandles) {
-      if (!entry.getValue().isReady(waitSetHandle)) {
-        entry.setValue(null);
+      for (ActionServer actionServer : node.getActionServers()) {
+        actionServers.add(actionServer);
+        actionServerCallbackGroups.add(defaultCallbackGroup);
       }
     }
 
-    Iterator<Map.Entry<Long, Subscription>> subscriptionIterator =
-        this.subscriptionHandles.iterator();
-    while (subscriptionIterator.hasNext()) {
-      Map.Entry<Long, Subscription> entry = subscriptionIterator.next();
-      if (entry.getValue() == null) {
-        subscriptionIterator.remove();
-      }
+    this.subscriptions = subscriptions.toArray(new Subscription[subscriptions.size()]);
+    this.subscriptionCallbackGroups = subscriptionCallbackGroups.toArray(
+      new CallbackGroup[subscriptionCallbackGroups.size()]);
+    this.subscriptionHandles = getHandles(this.subscriptions);
+    this.subscriptionWaitHandles = new long[this.subscriptionHandles.length];
+    // Drop the batches of the subscriptions that were removed
+    synchronized (this.spareBatches) {
+      this.spareBatches.keySet().retainAll(subscriptions);
     }
 
-    Iterator<Map.Entry<Long, Timer>> timerIterator = this.timerHandles.iterator();
-    while (timerIterator.hasNext()) {
-      Map.Entry<Long, Timer> entry = timerIterator.next();
-      if (entry.getValue() == null) {
-        timerIterator.remove();
-      }
+    this.timers = timers.toArray(new Timer[timers.size()]);
+    this.timerCallbackGroups = timerCallbackGroups.toArray(
+      new CallbackGroup[timerCallbackGroups.size()]);
+    this.timerHandles = getHandles(this.timers);
+    this.timerWaitHandles = new long[this.timerHandles.length];
+
+    this.services = services.toArray(new Service[services.size()]);
+    this.serviceCallbackGroups = serviceCallbackGroups.toArray(
+      new CallbackGroup[serviceCallbackGroups.size()]);
+    this.serviceHandles = getHandles(this.services);
+    this.serviceWaitHandles = new long[this.serviceHandles.length];
+
+    this.clients = clients.toArray(new Client[clients.size()]);
+    this.clientCallbackGroups = clientCallbackGroups.toArray(
+      new CallbackGroup[clientCallbackGroups.size()]);
+    this.clientHandles = getHandles(this.clients);
+    this.clientWaitHandles = new long[this.clientHandles.length];
+
+    this.eventHandlers = eventHandlers.toArray(new EventHandler[eventHandlers.size()]);
+    this.eventHandlerCallbackGroups = eventHandlerCallbackGroups.toArray(
+      new CallbackGroup[eventHandlerCallbackGroups.size()]);
+    this.eventHandles = getHandles(this.eventHandlers);
+    this.eventWaitHandles = new long[this.eventHandles.length];
+
+    this.guardConditions = guardConditions.toArray(new GuardCondition[guardConditions.size()]);
+    this.guardConditionCallbackGroups = guardConditionCallbackGroups.toArray(
+      new CallbackGroup[guardConditionCallbackGroups.size()]);
+    this.guardConditionHandles = getHandles(this.guardConditions, wakeUpGuardConditionHandles);
+    this.guardConditionWaitHandles = new long[this.guardConditionHandles.length];
+
+    this.actionServers = actionServers.toArray(new ActionServer[actionServers.size()]);
+    this.actionServerCallbackGroups = actionServerCallbackGroups.toArray(
+      new CallbackGroup[actionServerCallbackGroups.size()]);
+    this.actionServerHandles = getHandles(this.actionServers);
+    this.actionServerWaitHandles = new long[this.actionServerHandles.length];
+
+    this.timersOffset = this.subscriptions.length;
+    this.servicesOffset = this.timersOffset + this.timers.length;
+    this.clientsOffset = this.servicesOffset + this.services.length;
+    this.eventHandlersOffset = this.clientsOffset + this.clients.length;
+    this.guardConditionsOffset = this.eventHandlersOffset + this.eventHandlers.length;
+    this.actionServersOffset = this.guardConditionsOffset + this.guardConditionHandles.length;
+    int numberOfReadyBits =
+      this.actionServersOffset + this.actionServers.length * ACTION_SERVER_READY_BITS;
+    this.readyEntities = new long[(numberOfReadyBits + 63) / 64];
+
+    int numberOfScheduledEntities = this.guardConditionsOffset + this.guardConditions.length;
+    this.schedulingPriorities = new int[numberOfScheduledEntities];
+    this.schedulingDeadlines = new long[numberOfScheduledEntities];
+    this.readySinceNs = new long[numberOfScheduledEntities];
+    Arrays.fill(this.schedulingPriorities, SchedulingParameters.DEFAULT_PRIORITY);
+    Arrays.fill(this.schedulingDeadlines, SchedulingParameters.NO_DEADLINE);
+    Arrays.fill(this.readySinceNs, NOT_READY);
+    boolean usesSchedulingParameters = false;
+    for (int i = 0; i < this.subscriptions.length; ++i) {
+      usesSchedulingParameters |= this.storeSchedulingParameters(
+        i, this.subscriptions[i].getSchedulingParameters());
+    }
+    for (int i = 0; i < this.timers.length; ++i) {
+      usesSchedulingParameters |= this.storeSchedulingParameters(
+        this.timersOffset + i, this.timers[i].getSchedulingParameters());
+    }
+    for (int i = 0; i < this.services.length; ++i) {
+      usesSchedulingParameters |= this.storeSchedulingParameters(
+        this.servicesOffset + i, this.services[i].getSchedulingParameters());
+    }
+    for (int i = 0; i < this.clients.length; ++i) {
+      usesSchedulingParameters |= this.storeSchedulingParameters(
+        this.clientsOffset + i, this.clients[i].getSchedulingParameters());
+    }
+    this.usesSchedulingParameters = usesSchedulingParameters;
+
+    int subscriptionsSize = this.subscriptions.length;
+    int timersSize = this.timers.length;
+    int clientsSize = this.clients.length;
+    int servicesSize = this.services.length;
+    for (ActionServer actionServer : this.actionServers) {
+      subscriptionsSize += actionServer.getNumberOfSubscriptions();
+      timersSize += actionServer.getNumberOfTimers();
+      clientsSize += actionServer.getNumberOfClients();
+      servicesSize += actionServer.getNumberOfServices();
+    }
+
+    if (this.waitSetHandle == 0) {
+      this.waitSetHandle = nativeGetZeroInitializedWaitSet();
+      nativeWaitSetInit(
+        this.waitSetHandle, context.getHandle(), subscriptionsSize,
+        this.guardConditionHandles.length, timersSize, clientsSize, servicesSize,
+        this.eventHandlers.length);
+    } else {
+      nativeWaitSetResize(
+        this.waitSetHandle, subscriptionsSize, this.guardConditionHandles.length,
+        timersSize, clientsSize, servicesSize, this.eventHandlers.length);
     }
+  }
+
+  /**
+   * Store the scheduling parameters of the entity at the passed index of the ready entities.
+   *
+   * @return true if the parameters are not the default ones.
+   */
+  private boolean storeSchedulingParameters(
+    int index, SchedulingParameters schedulingParameters)
+  {
+    this.schedulingPriorities[index] = schedulingParameters.getPriority();
+    this.schedulingDeadlines[index] = schedulingParameters.getRelativeDeadlineNs();
+    return !schedulingParameters.isDefault();
+  }
 
-    Iterator<Map.Entry<Long, Service>> serviceIterator = this.serviceHandles.iterator();
-    while (serviceIterator.hasNext()) {
-      Map.Entry<Long, Service> entry = serviceIterator.next();
-      if (entry.getValue() == null) {
-        serviceIterator.remove();
+  private void disposeWaitSet() {
+    if (this.waitSetHandle != 0) {
+      long waitSetHandle = this.waitSetHandle;
+      this.waitSetHandle = 0;
+      nativeDisposeWaitSet(waitSetHandle);
+
+      this.waitSetContext.removeOnShutdownCallback(this.wakeUpCallback);
+      this.waitSetContext = null;
+      GuardCondition interruptGuardCondition = this.interruptGuardCondition;
+      this.interruptGuardCondition = null;
+      interruptGuardCondition.dispose();
+    }
+  }
+
+  /**
+   * Copy the handles of the entities whose callback group can execute a callback right now
+   * into waitHandles, and set the others to zero so they are left out of the wait set.
+   * Handles beyond the passed callback groups are always copied.
+   *
+   * @return true if any entity was left out.
+   */
+  private static boolean getWaitHandles(
+    long[] handles, CallbackGroup[] callbackGroups, long[] waitHandles)
+  {
+    boolean blocked = false;
+    for (int i = 0; i < handles.length; ++i) {
+      if (i >= callbackGroups.length || callbackGroups[i].canExecute()) {
+        waitHandles[i] = handles[i];
+      } else {
+        waitHandles[i] = 0;
+        blocked = true;
       }
     }
+    return blocked;
+  }
+
+  protected void waitForWork(long timeout) {
+    this.waitForWork(timeout, false);
+  }
+
+  /**
+   * Wait until any of the entities of the attached nodes is ready, or the timeout elapses.
+   *
+   * @param timeout Timeout in nanoseconds, or a negative value to wait forever.
+   * @param useCallbackGroups If true, entities whose callback group can't execute a callback
+   *   right now are not waited on, see getNextExecutable(boolean).
+   */
+  protected void waitForWork(long timeout, boolean useCallbackGroups) {
+    this.refreshEntities();
+
+    if (this.waitSetHandle == 0) {
+      return;
+    }
+
+    long waitSetHandle = this.waitSetHandle;
+
+    long[] subscriptionHandles = this.subscriptionHandles;
+    long[] timerHandles = this.timerHandles;
+    long[] serviceHandles = this.serviceHandles;
+    long[] clientHandles = this.clientHandles;
+    long[] eventHandles = this.eventHandles;
+    long[] guardConditionHandles = this.guardConditionHandles;
+    long[] actionServerHandles = this.actionServerHandles;
+
+    if (useCallbackGroups) {
+      // Set before the callback groups are checked, so that a callback group that is
+      // released after it was seen busy always wakes up the wait below.
+      this.hasBlockedEntities = true;
+      // Non short-circuit or, all the wait handles have to be filled.
+      boolean blocked = getWaitHandles(
+        subscriptionHandles, this.subscriptionCallbackGroups, this.subscriptionWaitHandles) |
+        getWaitHandles(timerHandles, this.timerCallbackGroups, this.timerWaitHandles) |
+        getWaitHandles(serviceHandles, this.serviceCallbackGroups, this.serviceWaitHandles) |
+        getWaitHandles(clientHandles, this.clientCallbackGroups, this.clientWaitHandles) |
+        getWaitHandles(eventHandles, this.eventHandlerCallbackGroups, this.eventWaitHandles) |
+        getWaitHandles(
+          guardConditionHandles, this.guardConditionCallbackGroups,
+          this.guardConditionWaitHandles) |
+        getWaitHandles(
+          actionServerHandles, this.actionServerCallbackGroups, this.actionServerWaitHandles);
+
+      subscriptionHandles = this.subscriptionWaitHandles;
+      timerHandles = this.timerWaitHandles;
+      serviceHandles = this.serviceWaitHandles;
+      clientHandles = this.clientWaitHandles;
+      eventHandles = this.eventWaitHandles;
+      guardConditionHandles = this.guardConditionWaitHandles;
+      actionServerHandles = this.actionServerWaitHandles;
+
+      this.hasBlockedEntities = blocked;
+    }
+
+    nativeWaitSetAddEntities(
+      waitSetHandle, subscriptionHandles, timerHandles, serviceHandles,
+      clientHandles, eventHandles, guardConditionHandles, actionServerHandles);
+
+    if (this.wakeUpPending) {
+      // Woken up before the wait, possibly before the interrupt guard condition was created.
+      this.wakeUpPending = false;
+      timeout = 0;
+    }
+
+    nativeWait(waitSetHandle, timeout);
 
-    Iterator<Map.Entry<Long, Client>> clientIterator = this.clientHandles.iterator();
-    while (clientIterator.hasNext()) {
-      Map.Entry<Long, Client> entry = clientIterator.next();
-      if (entry.getValue() == null) {
-        clientIterator.remove();
+    nativeWaitSetGetReadyEntities(
+      waitSetHandle, subscriptionHandles, timerHandles, serviceHandles, clientHandles,
+      eventHandles, guardConditionHandles, actionServerHandles, this.readyEntities);
+
+    if (this.usesSchedulingParameters) {
+      long nowNs = System.nanoTime();
+      this.updateReadyTimes(0, subscriptionHandles, this.subscriptions.length, nowNs);
+      this.updateReadyTimes(this.timersOffset, timerHandles, this.timers.length, nowNs);
+      this.updateReadyTimes(this.servicesOffset, serviceHandles, this.services.length, nowNs);
+      this.updateReadyTimes(this.clientsOffset, clientHandles, this.clients.length, nowNs);
+      this.updateReadyTimes(
+        this.eventHandlersOffset, eventHandles, this.eventHandlers.length, nowNs);
+      this.updateReadyTimes(
+        this.guardConditionsOffset, guardConditionHandles, this.guardConditions.length, nowNs);
+    }
+  }
+
+  /**
+   * Record when the entities in [offset, offset + length) were first found ready.
+   *
+   * Entities that were left out of the wait, because their callback group was busy, keep the
+   * time they were found ready before.
+   */
+  private void updateReadyTimes(int offset, long[] waitHandles, int length, long nowNs) {
+    for (int i = 0; i < length; ++i) {
+      int index = offset + i;
+      if (this.isEntityReady(index)) {
+        if (this.readySinceNs[index] == NOT_READY) {
+          this.readySinceNs[index] = nowNs;
+        }
+      } else if (waitHandles[i] != 0) {
+        this.readySinceNs[index] = NOT_READY;
       }
     }
+  }
+
+  private boolean isEntityReady(int index) {
+    return (this.readyEntities[index >>> 6] & (1L << index)) != 0;
+  }
+
+  private void clearEntityReady(int index) {
+    this.readyEntities[index >>> 6] &= ~(1L << index);
+  }
+
+  /**
+   * Start the execution of a callback of the passed group, if callback groups are used.
+   *
+   * @return false if the callback group can't execute a callback right now.
+   */
+  private static boolean beginExecution(
+    AnyExecutable anyExecutable, CallbackGroup callbackGroup, boolean useCallbackGroups)
+  {
+    if (!useCallbackGroups) {
+      return true;
+    }
+    if (!callbackGroup.beginExecution()) {
+      return false;
+    }
+    anyExecutable.callbackGroup = callbackGroup;
+    return true;
+  }
 
-    Iterator<Map.Entry<Long, EventHandler>> eventIterator = this.eventHandles.iterator();
-    while (eventIterator.hasNext()) {
-      Map.Entry<Long, EventHandler> entry = eventIterator.next();
-      if (entry.getValue() == null) {
-        eventIterator.remove();
+  /**
+   * Find the first ready entity in [offset, offset + length) that can be executed,
+   * and clear its bit.
+   *
+   * @return The index of the entity relative to offset, or -1 if none is ready.
+   */
+  private int takeReadyEntity(
+    int offset, int length, CallbackGroup[] callbackGroups, AnyExecutable anyExecutable,
+    boolean useCallbackGroups)
+  {
+    for (int i = 0; i < length; ++i) {
+      if (this.isEntityReady(offset + i) &&
+        beginExecution(anyExecutable, callbackGroups[i], useCallbackGroups))
+      {
+        this.clearEntityReady(offset + i);
+        return i;
       }
     }
+    return -1;
+  }
+
+  protected AnyExecutable getNextExecutable() {
+    return this.getNextExecutable(false);
+  }
 
-    Iterator<Map.Entry<Long, ActionServer>> actionServerIterator = this.actionServerHandles.iterator();
-    while (actionServerIterator.hasNext()) {
-      Map.Entry<Long, ActionServer> entry = actionServerIterator.next();
-      if (entry.getValue() == null) {
-        actionServerIterator.remove();
+  /**
+   * Get the next ready entity to execute.
+   *
+   * Entities are picked in a fixed order, unless some of them have scheduling parameters,
+   * in which case the most urgent one is picked, see @{link SchedulingParameters}.
+   *
+   * @param useCallbackGroups If true, only entities whose callback group can execute a
+   *   callback right now are returned, and the execution of that callback group is started.
+   *   It must be ended with endExecution(AnyExecutable) once the callback has run, which
+   *   executeAnyExecutable(AnyExecutable) does.
+   *   Ready entities that are skipped stay ready.
+   * @return The next executable, or null if no entity is ready.
+   */
+  protected AnyExecutable getNextExecutable(boolean useCallbackGroups) {
+    AnyExecutable anyExecutable = this.spareExecutable;
+    if (anyExecutable != null) {
+      this.spareExecutable = null;
+      if (this.getNextExecutable(anyExecutable, useCallbackGroups)) {
+        return anyExecutable;
       }
+      this.recycleExecutable(anyExecutable);
+      return null;
     }
 
-    nativeDisposeWaitSet(waitSetHandle);
+    anyExecutable = new AnyExecutable();
+    return this.getNextExecutable(anyExecutable, useCallbackGroups) ? anyExecutable : null;
   }
 
-  protected AnyExecutable getNextExecutable() {
-    AnyExecutable anyExecutable = new AnyExecutable();
+  /**
+   * Fill the passed executable with the next ready entity to execute, see
+   * getNextExecutable(boolean).
+   *
+   * @param anyExecutable A cleared executable.
+   * @return false if no entity is ready.
+   */
+  protected boolean getNextExecutable(AnyExecutable anyExecutable, boolean useCallbackGroups) {
+    if (this.usesSchedulingParameters) {
+      return this.getNextScheduledExecutable(anyExecutable, useCallbackGroups);
+    }
 
-    for (Map.Entry<Long, Timer> entry : this.timerHandles) {
-      if (entry.getValue() != null) {
-        Timer timer = entry.getValue();
-        if (timer.isReady()) {
+    for (int i = 0; i < this.timers.length; ++i) {
+      if (this.isEntityReady(this.timersOffset + i)) {
+        Timer timer = this.timers[i];
+        if (timer.isReady() &&
+          beginExecution(anyExecutable, this.timerCallbackGroups[i], useCallbackGroups))
+        {
           anyExecutable.timer = timer;
-          entry.setValue(null);
-          return anyExecutable;
+          this.clearEntityReady(this.timersOffset + i);
+          return true;
         }
       }
     }
 
-    for (Map.Entry<Long, Subscription> entry : this.subscriptionHandles) {
-      if (entry.getValue() != null) {
-        anyExecutable.subscription = entry.getValue();
-        entry.setValue(null);
-        return anyExecutable;
-      }
+    int index = this.takeReadyEntity(
+      0, this.subscriptions.length, this.subscriptionCallbackGroups, anyExecutable,
+      useCallbackGroups);
+    if (index >= 0) {
+      anyExecutable.subscription = this.subscriptions[index];
+      return true;
     }
 
-    for (Map.Entry<Long, Service> entry : this.serviceHandles) {
-      if (entry.getValue() != null) {
-        anyExecutable.service = entry.getValue();
-        entry.setValue(null);
-        return anyExecutable;
-      }
+    index = this.takeReadyEntity(
+      this.servicesOffset, this.services.length, this.serviceCallbackGroups, anyExecutable,
+      useCallbackGroups);
+    if (index >= 0) {
+      anyExecutable.service = this.services[index];
+      return true;
     }
 
-    for (Map.Entry<Long, Client> entry : this.clientHandles) {
-      if (entry.getValue() != null) {
-        anyExecutable.client = entry.getValue();
-        entry.setValue(null);
-        return anyExecutable;
+    index = this.takeReadyEntity(
+      this.clientsOffset, this.clients.length, this.clientCallbackGroups, anyExecutable,
+      useCallbackGroups);
+    if (index >= 0) {
+      anyExecutable.client = this.clients[index];
+      return true;
+    }
+
+    index = this.takeReadyEntity(
+      this.eventHandlersOffset, this.eventHandlers.length, this.eventHandlerCallbackGroups,
+      anyExecutable, useCallbackGroups);
+    if (index >= 0) {
+      anyExecutable.eventHandler = this.eventHandlers[index];
+      return true;
+    }
+
+    index = this.takeReadyEntity(
+      this.guardConditionsOffset, this.guardConditions.length,
+      this.guardConditionCallbackGroups, anyExecutable, useCallbackGroups);
+    if (index >= 0) {
+      anyExecutable.guardCondition = this.guardConditions[index];
+      return true;
+    }
+
+    return this.takeReadyActionServer(anyExecutable, useCallbackGroups);
+  }
+
+  /**
+   * Find the first ready action server that can be executed, and clear its bits.
+   *
+   * @return false if no action server is ready.
+   */
+  private boolean takeReadyActionServer(AnyExecutable anyExecutable, boolean useCallbackGroups) {
+    for (int i = 0; i < this.actionServers.length; ++i) {
+      int offset = this.actionServersOffset + i * ACTION_SERVER_READY_BITS;
+      boolean isGoalRequestReady = this.isEntityReady(offset);
+      boolean isCancelRequestReady = this.isEntityReady(offset + 1);
+      boolean isResultRequestReady = this.isEntityReady(offset + 2);
+      boolean isGoalExpired = this.isEntityReady(offset + 3);
+      if ((isGoalRequestReady || isCancelRequestReady || isResultRequestReady || isGoalExpired) &&
+        beginExecution(anyExecutable, this.actionServerCallbackGroups[i], useCallbackGroups))
+      {
+        for (int bit = 0; bit < ACTION_SERVER_READY_BITS; ++bit) {
+          this.clearEntityReady(offset + bit);
+        }
+        ActionServer actionServer = this.actionServers[i];
+        actionServer.setReadyEntities(
+          isGoalRequestReady, isCancelRequestReady, isResultRequestReady, isGoalExpired);
+        anyExecutable.actionServer = actionServer;
+        return true;
       }
     }
+    return false;
+  }
+
+  private static boolean canExecute(CallbackGroup callbackGroup, boolean useCallbackGroups) {
+    return !useCallbackGroups || callbackGroup.canExecute();
+  }
+
+  /**
+   * @return true if the ready entity at the passed index of the ready entities should be
+   *   executed before the one at otherIndex, or if otherIndex is -1.
+   */
+  private boolean isMoreUrgent(int index, int otherIndex) {
+    if (otherIndex < 0) {
+      return true;
+    }
+    int priority = this.schedulingPriorities[index];
+    int otherPriority = this.schedulingPriorities[otherIndex];
+    if (priority != otherPriority) {
+      return priority > otherPriority;
+    }
+    long relativeDeadlineNs = this.schedulingDeadlines[index];
+    long otherRelativeDeadlineNs = this.schedulingDeadlines[otherIndex];
+    if (relativeDeadlineNs == SchedulingParameters.NO_DEADLINE ||
+      otherRelativeDeadlineNs == SchedulingParameters.NO_DEADLINE)
+    {
+      return relativeDeadlineNs < otherRelativeDeadlineNs;
+    }
+    // Compared through their difference, as System.nanoTime() may overflow
+    long deadlineNs = this.readySinceNs[index] + relativeDeadlineNs;
+    long otherDeadlineNs = this.readySinceNs[otherIndex] + otherRelativeDeadlineNs;
+    return deadlineNs - otherDeadlineNs < 0;
+  }
 
-    for (Map.Entry<Long, EventHandler> entry : this.eventHandles) {
-      if (entry.getValue() != null) {
-        anyExecutable.eventHandler = entry.getValue();
-        entry.setValue(null);
-        return anyExecutable;
+  /**
+   * Find the most urgent ready entity in [offset, offset + length) that can be executed.
+   *
+   * @return The index of the entity in the ready entities if it is more urgent than the one at
+   *   mostUrgentIndex, mostUrgentIndex otherwise.
+   */
+  private int findMostUrgentEntity(
+    int offset, int length, CallbackGroup[] callbackGroups, boolean useCallbackGroups,
+    int mostUrgentIndex)
+  {
+    for (int i = 0; i < length; ++i) {
+      int index = offset + i;
+      if (this.isEntityReady(index) && this.isMoreUrgent(index, mostUrgentIndex) &&
+        canExecute(callbackGroups[i], useCallbackGroups))
+      {
+        mostUrgentIndex = index;
       }
     }
+    return mostUrgentIndex;
+  }
 
-    for (Map.Entry<Long, ActionServer> entry : this.actionServerHandles) {
-      if (entry.getValue() != null) {
-        anyExecutable.actionServer = entry.getValue();
-        entry.setValue(null);
-        return anyExecutable;
+  /**
+   * Fill the passed executable with the most urgent ready entity, according to the scheduling
+   * parameters of the entities.
+   *
+   * Action servers use the default parameters, so they come after the other entities unless
+   * those have a lower priority.
+   *
+   * @return false if no entity is ready.
+   */
+  private boolean getNextScheduledExecutable(
+    AnyExecutable anyExecutable, boolean useCallbackGroups)
+  {
+    int index = -1;
+    for (int i = 0; i < this.timers.length; ++i) {
+      // Compared before checking the timer, to skip timers that would not be picked anyway.
+      int timerIndex = this.timersOffset + i;
+      if (this.isEntityReady(timerIndex) && this.isMoreUrgent(timerIndex, index) &&
+        this.timers[i].isReady() && canExecute(this.timerCallbackGroups[i], useCallbackGroups))
+      {
+        index = timerIndex;
       }
     }
+    index = this.findMostUrgentEntity(
+      0, this.subscriptions.length, this.subscriptionCallbackGroups, useCallbackGroups, index);
+    index = this.findMostUrgentEntity(
+      this.servicesOffset, this.services.length, this.serviceCallbackGroups, useCallbackGroups,
+      index);
+    index = this.findMostUrgentEntity(
+      this.clientsOffset, this.clients.length, this.clientCallbackGroups, useCallbackGroups,
+      index);
+    index = this.findMostUrgentEntity(
+      this.eventHandlersOffset, this.eventHandlers.length, this.eventHandlerCallbackGroups,
+      useCallbackGroups, index);
+    index = this.findMostUrgentEntity(
+      this.guardConditionsOffset, this.guardConditions.length,
+      this.guardConditionCallbackGroups, useCallbackGroups, index);
+
+    if ((index < 0 || this.schedulingPriorities[index] < SchedulingParameters.DEFAULT_PRIORITY) &&
+      this.takeReadyActionServer(anyExecutable, useCallbackGroups))
+    {
+      return true;
+    }
+    if (index < 0) {
+      return false;
+    }
 
-    return null;
+    if (index < this.timersOffset) {
+      if (!beginExecution(
+        anyExecutable, this.subscriptionCallbackGroups[index], useCallbackGroups))
+      {
+        return false;
+      }
+      anyExecutable.subscription = this.subscriptions[index];
+    } else if (index < this.servicesOffset) {
+      int i = index - this.timersOffset;
+      if (!beginExecution(anyExecutable, this.timerCallbackGroups[i], useCallbackGroups)) {
+        return false;
+      }
+      anyExecutable.timer = this.timers[i];
+    } else if (index < this.clientsOffset) {
+      int i = index - this.servicesOffset;
+      if (!beginExecution(anyExecutable, this.serviceCallbackGroups[i], useCallbackGroups)) {
+        return false;
+      }
+      anyExecutable.service = this.services[i];
+    } else if (index < this.eventHandlersOffset) {
+      int i = index - this.clientsOffset;
+      if (!beginExecution(anyExecutable, this.clientCallbackGroups[i], useCallbackGroups)) {
+        return false;
+      }
+      anyExecutable.client = this.clients[i];
+    } else if (index < this.guardConditionsOffset) {
+      int i = index - this.eventHandlersOffset;
+      if (!beginExecution(anyExecutable, this.eventHandlerCallbackGroups[i], useCallbackGroups)) {
+        return false;
+      }
+      anyExecutable.eventHandler = this.eventHandlers[i];
+    } else {
+      int i = index - this.guardConditionsOffset;
+      if (!beginExecution(anyExecutable, this.guardConditionCallbackGroups[i], useCallbackGroups)) {
+        return false;
+      }
+      anyExecutable.guardCondition = this.guardConditions[i];
+    }
+    this.clearEntityReady(index);
+    this.readySinceNs[index] = NOT_READY;
+    return true;
   }
 
   private boolean maxDurationNotElapsed(long maxDurationNs, long startNs) {
@@ -443,24 +1415,44 @@ public class BaseExecutor {
 
   public void spinUntilComplete(Future future, long maxDurationNs) {
     long startNs = System.nanoTime();
-    // only use a blocking call to waitForWork when maxDurationNs < 0
+    // An RCLFuture wakes up the wait as soon as it is done, whichever thread completes it.
+    RCLFuture rclFuture = future instanceof RCLFuture ? (RCLFuture) future : null;
+    // only use a blocking call to waitForWork when maxDurationNs <= 0
     long waitTimeout = -1;
-    if (maxDurationNs > 0) {
+    if (maxDurationNs > 0 && rclFuture == null) {
       // We cannot be waiting for work forever, if not we're not going to respect the passed timeout.
       // We can neither do a non-blocking call to waitForWork(), because if the future has not yet
       // been completed it will result in a busy loop.
       // Use an arbitrary timeout to relax cpu usage.
-      waitTimeout = Math.min(maxDurationNs / 10, 10000000 /* 1ms*/);
+      waitTimeout = Math.min(maxDurationNs / 10, 10000000 /* 10ms*/);
     }
-    while (RCLJava.ok() && (maxDurationNs  < 0 || maxDurationNotElapsed(maxDurationNs, startNs))) {
-      waitForWork(waitTimeout);
-      AnyExecutable anyExecutable = getNextExecutable();
-      while (anyExecutable != null) {
-        executeAnyExecutable(anyExecutable);
-        if (future.isDone()) {
-          return;
+    if (rclFuture != null) {
+      rclFuture.addDoneCallback(this.wakeUpCallback);
+    }
+    try {
+      while (RCLJava.ok() && !future.isDone()) {
+        if (maxDurationNs > 0) {
+          long remainingNs = maxDurationNs - (System.nanoTime() - startNs);
+          if (remainingNs <= 0) {
+            return;
+          }
+          if (rclFuture != null) {
+            waitTimeout = remainingNs;
+          }
         }
-        anyExecutable = getNextExecutable();
+        waitForWork(waitTimeout);
+        AnyExecutable anyExecutable = getNextExecutable();
+        while (anyExecutable != null) {
+          executeAnyExecutable(anyExecutable);
+          if (future.isDone()) {
+            return;
+          }
+          anyExecutable = getNextExecutable();
+        }
+      }
+    } finally {
+      if (rclFuture != null) {
+        rclFuture.removeDoneCallback(this.wakeUpCallback);
       }
     }
   }
@@ -495,9 +1487,22 @@ public class BaseExecutor {
 
   protected void spinOnce(long timeout) {
     AnyExecutable anyExecutable = getNextExecutable();
-    if (anyExecutable == null) {
-      waitForWork(timeout);
+    long startNs = System.nanoTime();
+    long remainingNs = timeout;
+    // Waking up through a guard condition without a callback, e.g. because entities were
+    // added, does not count as work, so wait again for what is left of the timeout.
+    while (anyExecutable == null) {
+      waitForWork(remainingNs);
       anyExecutable = getNextExecutable();
+      if (!RCLJava.ok()) {
+        break;
+      }
+      if (timeout >= 0) {
+        remainingNs = timeout - (System.nanoTime() - startNs);
+        if (remainingNs <= 0) {
+          break;
+        }
+      }
     }
 
     if (anyExecutable != null) {
@@ -514,25 +1519,57 @@ public class BaseExecutor {
       int numberOfGuardConditions, int numberOfTimers, int numberOfClients,
       int numberOfServices, int numberOfEvents);
 
-  private static native void nativeWaitSetClear(long waitSetHandle);
-
-  private static native void nativeWaitSetAddSubscription(
-      long waitSetHandle, long subscriptionHandle);
+  private static native void nativeWaitSetResize(
+      long waitSetHandle, int numberOfSubscriptions, int numberOfGuardConditions,
+      int numberOfTimers, int numberOfClients, int numberOfServices, int numberOfEvents);
+
+  /**
+   * Clear the wait set and add all the passed entities to it in a single call.
+   *
+   * Entities whose handle is zero are skipped.
+   * Action servers are added last, so they don't shift the indexes of the other entities
+   * in the wait set.
+   */
+  private static native void nativeWaitSetAddEntities(
+      long waitSetHandle, long[] subscriptionHandles, long[] timerHandles,
+      long[] serviceHandles, long[] clientHandles, long[] eventHandles,
+      long[] guardConditionHandles, long[] actionServerHandles);
 
   private static native void nativeWait(long waitSetHandle, long timeout);
 
+  /**
+   * Take a message from a subscription.
+   *
+   * @param nativeMessageHandle The native message of the subscription, which the message is
+   *   taken into before it is converted, unless the middleware loans it.
+   * @param message The message to fill in place, or null to create a new one.
+   * @return The taken message, or null if there was none.
+   */
   private static native MessageDefinition nativeTake(
-      long subscriptionHandle, Class<? extends MessageDefinition> messageType);
-
-  private static native void nativeWaitSetAddService(long waitSetHandle, long serviceHandle);
-
-  private static native void nativeWaitSetAddClient(long waitSetHandle, long clientHandle);
-
-  private static native void nativeWaitSetAddTimer(long waitSetHandle, long timerHandle);
-
-  private static native void nativeWaitSetAddEvent(long waitSetHandle, long eventHandle);
-
-  private static native void nativeWaitSetAddActionServer(long waitSetHandle, long actionServerHandle);
+      long subscriptionHandle, long nativeMessageHandle, long toJavaConverterHandle,
+      MessageDefinition message);
+
+  /**
+   * Take up to messages.length messages from a subscription in a single call.
+   *
+   * Messages that are already in the array are filled in place, null elements are replaced
+   * with new messages.
+   *
+   * @return The number of messages taken, which are stored at the start of messages.
+   */
+  private static native int nativeTakeBatch(
+      long subscriptionHandle, long nativeMessageHandle, long toJavaConverterHandle,
+      MessageDefinition[] messages);
+
+  /**
+   * Take a serialized message from a subscription.
+   *
+   * @param serializedMessageHandle The native serialized message to take into, whose buffer
+   *   the middleware grows if the message does not fit.
+   * @return The length of the taken message, or -1 if there was none.
+   */
+  private static native int nativeTakeSerialized(
+      long subscriptionHandle, long serializedMessageHandle);
 
   private static native RMWRequestId nativeTakeRequest(long serviceHandle,
       long requestFromJavaConverterHandle, long requestToJavaConverterHandle,
@@ -546,15 +1583,16 @@ public class BaseExecutor {
       long responseFromJavaConverterHandle, long responseToJavaConverterHandle,
       long responseDestructorHandle, MessageDefinition responseMessage);
 
-  private static native boolean nativeWaitSetSubscriptionIsReady(long waitSetHandle, long index);
-
-  private static native boolean nativeWaitSetTimerIsReady(long waitSetHandle, long index);
-
-  private static native boolean nativeWaitSetEventIsReady(long waitSetHandle, long index);
-
-  private static native boolean nativeWaitSetServiceIsReady(long waitSetHandle, long index);
-
-  private static native boolean nativeWaitSetClientIsReady(long waitSetHandle, long index);
-
-  private static native boolean nativeWaitSetActionServerIsReady(long waitSetHandle, long actionServerHandle);
+  /**
+   * Fill the passed bitset with the readiness of every entity in the wait set.
+   *
+   * The handles must be the same that were passed to nativeWaitSetAddEntities(), entities
+   * whose handle is zero are never ready.
+   * See readyEntities for the layout of the bitset, which must be large enough to hold
+   * all the entities.
+   */
+  private static native void nativeWaitSetGetReadyEntities(
+      long waitSetHandle, long[] subscriptionHandles, long[] timerHandles,
+      long[] serviceHandles, long[] clientHandles, long[] eventHandles,
+      long[] guardConditionHandles, long[] actionServerHandles, long[] readyEntities);
 }
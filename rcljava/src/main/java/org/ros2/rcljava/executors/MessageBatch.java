@@ -0,0 +1,58 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import org.ros2.rcljava.interfaces.MessageDefinition;
+
+/**
+ * Messages taken together from a subscription, which executors reuse for the following
+ * batches of the same subscription instead of allocating an array and a list every time.
+ */
+final class MessageBatch extends AbstractList<MessageDefinition> implements RandomAccess {
+  /**
+   * The array the messages are taken into, whose length is the maximum batch size.
+   */
+  final MessageDefinition[] messages;
+
+  /**
+   * The number of messages that were taken.
+   */
+  private int size;
+
+  MessageBatch(final int capacity) {
+    this.messages = new MessageDefinition[capacity];
+  }
+
+  void setSize(final int size) {
+    this.size = size;
+  }
+
+  @Override
+  public MessageDefinition get(final int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+    }
+    return this.messages[index];
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+}
@@ -15,25 +15,86 @@
 
 package org.ros2.rcljava.executors;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import org.ros2.rcljava.RCLJava;
 import org.ros2.rcljava.node.ComposableNode;
+import org.ros2.rcljava.executors.AnyExecutable;
 import org.ros2.rcljava.executors.BaseExecutor;
 
+/**
+ * An executor that runs callbacks concurrently in a pool of threads.
+ *
+ * While spinning with @{link #spin()}, a single thread waits for work and dispatches the
+ * ready callbacks to the pool, as far as their
+ * @{link org.ros2.rcljava.callbackgroups.CallbackGroup}s allow it.
+ * The other spin methods execute callbacks in the calling thread, one caller at a time, and
+ * throw an IllegalStateException while @{link #spin()} is running.
+ */
 public class MultiThreadedExecutor implements Executor {
   private BaseExecutor baseExecutor;
   private ExecutorService threadpool;
-  private Object mutex;
   private int numberOfThreads;
 
+  /**
+   * One permit per callback that may run at once, e.g. per thread of the pool, so that no more
+   * callbacks are dispatched than can run.
+   * Pending data is then left in the middleware queues, where the QoS settings apply.
+   */
+  private Semaphore idleThreads;
+
+  /**
+   * Tasks that are reused for every dispatched callback, created the first time they are
+   * needed. There are never more tasks than permits of idleThreads.
+   */
+  private final ArrayBlockingQueue<DispatchedTask> freeTasks;
+
+  /**
+   * Executes the callback of a taken executable in the pool, and recycles itself afterwards.
+   */
+  private final class DispatchedTask implements Runnable {
+    private final AnyExecutable anyExecutable = new AnyExecutable();
+
+    public void run() {
+      try {
+        MultiThreadedExecutor.this.baseExecutor.executeTakenExecutable(this.anyExecutable);
+      } finally {
+        MultiThreadedExecutor.this.recycle(this);
+      }
+    }
+  }
+
+  /**
+   * Serializes the spin methods, as they all use the state of the base executor.
+   */
+  private final Object mutex = new Object();
+
+  /**
+   * Set while the dispatcher thread started by spin() is running, guarded by mutex.
+   */
+  private boolean spinning;
+
   public MultiThreadedExecutor(int numberOfThreads) {
+    this(Executors.newFixedThreadPool(numberOfThreads), numberOfThreads);
+  }
+
+  /**
+   * Constructor for executors that run the callbacks on a different kind of threads.
+   *
+   * @param threadpool The pool the callbacks are run on, it is shut down when spinning stops.
+   * @param maxConcurrentCallbacks The maximum number of callbacks that are dispatched to the
+   *   pool at once.
+   */
+  protected MultiThreadedExecutor(ExecutorService threadpool, int maxConcurrentCallbacks) {
     this.baseExecutor = new BaseExecutor();
-    this.threadpool = Executors.newFixedThreadPool(numberOfThreads);
-    this.mutex = new Object();
-    this.numberOfThreads = numberOfThreads;
+    this.threadpool = threadpool;
+    this.numberOfThreads = maxConcurrentCallbacks;
+    this.idleThreads = new Semaphore(maxConcurrentCallbacks);
+    this.freeTasks = new ArrayBlockingQueue<DispatchedTask>(maxConcurrentCallbacks);
   }
 
   public MultiThreadedExecutor() {
@@ -53,15 +114,24 @@ public class MultiThreadedExecutor implements Executor {
   }
 
   public void spinOnce(long timeout) {
-    this.baseExecutor.spinOnce(timeout);
+    synchronized (this.mutex) {
+      this.checkNotSpinning();
+      this.baseExecutor.spinOnce(timeout);
+    }
   }
 
   public void spinUntilComplete(Future future, long timeoutNs) {
-    this.baseExecutor.spinUntilComplete(future, timeoutNs);
+    synchronized (this.mutex) {
+      this.checkNotSpinning();
+      this.baseExecutor.spinUntilComplete(future, timeoutNs);
+    }
   }
 
   public void spinUntilComplete(Future future) {
-    this.baseExecutor.spinUntilComplete(future, -1);
+    synchronized (this.mutex) {
+      this.checkNotSpinning();
+      this.baseExecutor.spinUntilComplete(future, -1);
+    }
   }
 
   public void spinSome() {
@@ -69,31 +139,110 @@ public class MultiThreadedExecutor implements Executor {
   }
 
   public void spinSome(long maxDurationNs) {
-    this.baseExecutor.spinSome(maxDurationNs);
+    synchronized (this.mutex) {
+      this.checkNotSpinning();
+      this.baseExecutor.spinSome(maxDurationNs);
+    }
   }
 
   public void spinAll(long maxDurationNs) {
-    this.baseExecutor.spinAll(maxDurationNs);
+    synchronized (this.mutex) {
+      this.checkNotSpinning();
+      this.baseExecutor.spinAll(maxDurationNs);
+    }
   }
 
+  /**
+   * Start spinning in the background.
+   *
+   * A dispatcher thread waits for work until RCLJava is shut down, and hands every ready
+   * callback to the pool of threads.
+   * This method returns immediately.
+   *
+   * @throws IllegalStateException if the executor is already spinning.
+   */
   public void spin() {
-    synchronized (mutex) {
-      for (int i = 0; i < this.numberOfThreads; i++) {
-        this.threadpool.execute(new Runnable() {
-          public void run() {
-            MultiThreadedExecutor.this.run();
-          }
-        });
-      }
+    synchronized (this.mutex) {
+      this.checkNotSpinning();
+      this.spinning = true;
     }
-    this.threadpool.shutdown();
+    Thread dispatcher = new Thread(new Runnable() {
+      public void run() {
+        MultiThreadedExecutor.this.run();
+      }
+    }, "MultiThreadedExecutor");
+    dispatcher.start();
   }
 
   private void run() {
-    while (RCLJava.ok()) {
-      synchronized (mutex) {
-        this.spinOnce();
+    try {
+      while (RCLJava.ok()) {
+        this.baseExecutor.waitForWork(-1, true);
+        while (this.dispatchNext()) {
+          // Dispatch every ready executable before waiting again
+        }
       }
+    } finally {
+      this.threadpool.shutdown();
+      synchronized (this.mutex) {
+        this.spinning = false;
+      }
+    }
+  }
+
+  /**
+   * The dispatcher thread owns the entities and the wait set of the base executor while
+   * spin() is running, so no other thread can wait for work or take data meanwhile.
+   */
+  private void checkNotSpinning() {
+    if (this.spinning) {
+      throw new IllegalStateException("The executor is spinning in the background");
     }
   }
+
+  /**
+   * Take the data of the next ready executable in the dispatcher thread, and execute its
+   * callback in the pool.
+   *
+   * Taking the data first ensures the same message, request or timer expiration is not
+   * dispatched twice while the callback is pending.
+   * The executable and the task that runs it are recycled, so dispatching a callback doesn't
+   * allocate, apart from what the pool of threads allocates to queue a task.
+   *
+   * @return false if no executable was ready.
+   */
+  private boolean dispatchNext() {
+    this.idleThreads.acquireUninterruptibly();
+    DispatchedTask task = this.freeTasks.poll();
+    if (task == null) {
+      task = new DispatchedTask();
+    }
+    AnyExecutable anyExecutable = task.anyExecutable;
+    boolean queued = false;
+    try {
+      if (!this.baseExecutor.getNextExecutable(anyExecutable, true)) {
+        return false;
+      }
+      if (this.baseExecutor.takeAnyExecutable(anyExecutable)) {
+        this.threadpool.execute(task);
+        queued = true;
+      }
+      return true;
+    } finally {
+      if (!queued) {
+        this.recycle(task);
+      }
+    }
+  }
+
+  /**
+   * End the execution of the executable of a task, and make the task and its permit available
+   * for the next callback.
+   */
+  private void recycle(DispatchedTask task) {
+    this.baseExecutor.endExecution(task.anyExecutable);
+    task.anyExecutable.clear();
+    this.freeTasks.offer(task);
+    this.idleThreads.release();
+  }
 }
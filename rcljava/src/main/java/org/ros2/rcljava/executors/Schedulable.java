@@ -0,0 +1,40 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+/**
+ * An entity whose callback is ordered by executors according to its
+ * @{link SchedulingParameters}: a subscription, timer, service or client.
+ */
+public interface Schedulable {
+  /**
+   * @return The parameters that decide when the callback of this entity runs, relative to
+   *   the other ready entities.
+   */
+  SchedulingParameters getSchedulingParameters();
+
+  /**
+   * Set the parameters that decide when the callback of this entity runs, relative to
+   * the other ready entities.
+   *
+   * Executors pick up the change the next time they wait for work, except
+   * @{link StaticSingleThreadedExecutor}, that only does so when it collects the entities again.
+   *
+   * @param schedulingParameters The new parameters, @{link SchedulingParameters#DEFAULT}
+   *   to restore the default order.
+   */
+  void setSchedulingParameters(SchedulingParameters schedulingParameters);
+}
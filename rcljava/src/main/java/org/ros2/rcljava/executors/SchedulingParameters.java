@@ -0,0 +1,107 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parameters that decide in which order an executor runs the callbacks of ready entities.
+ *
+ * Subscriptions, timers, services and clients, see @{link Schedulable}, can be given a priority
+ * and a relative deadline.
+ * When several entities are ready at once, the one with the highest priority runs first,
+ * and among entities of the same priority the one with the earliest deadline runs first.
+ * The deadline of an entity is its relative deadline after the moment the executor first
+ * found it ready, so an entity that has been kept waiting by others gets more urgent.
+ * Entities without a relative deadline come after the ones that have one.
+ * Entities with the same priority and deadline run in the default order: timers, subscriptions,
+ * services, clients, events, guard conditions and action servers, each in creation order.
+ *
+ * Event handlers, guard conditions and action servers always use the default parameters.
+ *
+ * Instances are immutable.
+ */
+public final class SchedulingParameters {
+  /**
+   * Priority of entities that were not given one.
+   */
+  public static final int DEFAULT_PRIORITY = 0;
+
+  /**
+   * Relative deadline of entities that were not given one, which is later than any other.
+   */
+  public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+  /**
+   * The parameters of entities that were not given any.
+   */
+  public static final SchedulingParameters DEFAULT =
+    new SchedulingParameters(DEFAULT_PRIORITY, NO_DEADLINE);
+
+  private final int priority;
+
+  private final long relativeDeadlineNs;
+
+  /**
+   * Constructor.
+   *
+   * @param priority Entities with a higher priority run first.
+   * @param relativeDeadlineNs Time in nanoseconds from the moment the entity is ready within
+   *   which its callback should run, or @{link #NO_DEADLINE}.
+   */
+  public SchedulingParameters(final int priority, final long relativeDeadlineNs) {
+    if (relativeDeadlineNs <= 0) {
+      throw new IllegalArgumentException("The relative deadline must be positive");
+    }
+    this.priority = priority;
+    this.relativeDeadlineNs = relativeDeadlineNs;
+  }
+
+  /**
+   * @param priority Entities with a higher priority run first.
+   * @return Parameters with the passed priority and no deadline.
+   */
+  public static SchedulingParameters withPriority(final int priority) {
+    return new SchedulingParameters(priority, NO_DEADLINE);
+  }
+
+  /**
+   * @param relativeDeadline Time from the moment the entity is ready within which its callback
+   *   should run.
+   * @param unit The unit of relativeDeadline.
+   * @return Parameters with the default priority and the passed deadline.
+   */
+  public static SchedulingParameters withRelativeDeadline(
+      final long relativeDeadline, final TimeUnit unit) {
+    return new SchedulingParameters(
+      DEFAULT_PRIORITY, TimeUnit.NANOSECONDS.convert(relativeDeadline, unit));
+  }
+
+  public final int getPriority() {
+    return this.priority;
+  }
+
+  public final long getRelativeDeadlineNs() {
+    return this.relativeDeadlineNs;
+  }
+
+  /**
+   * @return true if these parameters don't change the default order.
+   */
+  public final boolean isDefault() {
+    return this.priority == DEFAULT_PRIORITY && this.relativeDeadlineNs == NO_DEADLINE;
+  }
+}
@@ -0,0 +1,62 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+import java.lang.ref.WeakReference;
+
+import org.ros2.rcljava.node.Node;
+
+/**
+ * The scheduling parameters of an entity of a node, that the implementations of
+ * @{link Schedulable} delegate to.
+ */
+public final class SchedulingParametersHolder {
+  private final WeakReference<Node> nodeReference;
+
+  private volatile SchedulingParameters schedulingParameters = SchedulingParameters.DEFAULT;
+
+  /**
+   * Constructor.
+   *
+   * @param nodeReference A reference to the node of the entity, which is notified when the
+   *   parameters change.
+   */
+  public SchedulingParametersHolder(final WeakReference<Node> nodeReference) {
+    this.nodeReference = nodeReference;
+  }
+
+  /**
+   * @see Schedulable#getSchedulingParameters()
+   */
+  public SchedulingParameters get() {
+    return this.schedulingParameters;
+  }
+
+  /**
+   * @see Schedulable#setSchedulingParameters(SchedulingParameters)
+   */
+  public void set(final SchedulingParameters schedulingParameters) {
+    if (schedulingParameters == null) {
+      throw new IllegalArgumentException("The scheduling parameters must not be null");
+    }
+    this.schedulingParameters = schedulingParameters;
+    // Makes executors collect the entities of the node again, with the new parameters
+    Node node = this.nodeReference.get();
+    if (node != null) {
+      node.notifyEntitiesChanged();
+    }
+  }
+}
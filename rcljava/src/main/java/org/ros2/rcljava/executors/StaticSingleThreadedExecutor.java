@@ -0,0 +1,77 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+import java.util.concurrent.Future;
+
+import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.node.ComposableNode;
+import org.ros2.rcljava.executors.BaseExecutor;
+
+/**
+ * A single-threaded executor for nodes whose entities don't change once they are added.
+ *
+ * The entities of the nodes are collected when the executor first waits, and only again
+ * when a node is added or removed, or a node or one of its entities is disposed.
+ * Subscriptions, timers, services, clients, guard conditions and action servers that are
+ * created afterwards are not noticed, so the nodes should be fully set up before they are
+ * added.
+ */
+public class StaticSingleThreadedExecutor implements Executor {
+  private BaseExecutor baseExecutor = new BaseExecutor(true);
+
+  public void addNode(ComposableNode node) {
+    this.baseExecutor.addNode(node);
+  }
+
+  public void removeNode(ComposableNode node) {
+    this.baseExecutor.removeNode(node);
+  }
+
+  public void spinOnce() {
+    this.spinOnce(-1);
+  }
+
+  public void spinOnce(long timeout) {
+    this.baseExecutor.spinOnce(timeout);
+  }
+
+  public void spinUntilComplete(Future future, long timeoutNs) {
+    this.baseExecutor.spinUntilComplete(future, timeoutNs);
+  }
+
+  public void spinUntilComplete(Future future) {
+    this.baseExecutor.spinUntilComplete(future, -1);
+  }
+
+  public void spinSome() {
+    this.spinSome(0);
+  }
+
+  public void spinSome(long maxDurationNs) {
+    this.baseExecutor.spinSome(maxDurationNs);
+  }
+
+  public void spinAll(long maxDurationNs) {
+    this.baseExecutor.spinAll(maxDurationNs);
+  }
+
+  public void spin() {
+    while (RCLJava.ok()) {
+      this.spinOnce();
+    }
+  }
+}
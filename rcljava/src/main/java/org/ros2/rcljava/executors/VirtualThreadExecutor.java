@@ -0,0 +1,82 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+
+import org.ros2.rcljava.executors.MultiThreadedExecutor;
+
+/**
+ * An executor that runs every callback on its own virtual thread.
+ *
+ * While spinning with @{link #spin()}, a single platform thread waits for work and starts
+ * a virtual thread for each ready callback, as far as their
+ * @{link org.ros2.rcljava.callbackgroups.CallbackGroup}s allow it.
+ * Callbacks that block, e.g. on I/O or on other service calls, then don't hold up the others.
+ *
+ * Virtual threads require Java 21 or newer, the constructors throw an
+ * UnsupportedOperationException on older runtimes.
+ */
+public class VirtualThreadExecutor extends MultiThreadedExecutor {
+  /**
+   * Default maximum number of callbacks that run at once.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_CALLBACKS = 10000;
+
+  public VirtualThreadExecutor() {
+    this(DEFAULT_MAX_CONCURRENT_CALLBACKS);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param maxConcurrentCallbacks The maximum number of callbacks that run at once.
+   *   Once it is reached, no more data is taken from the middleware until a callback returns.
+   */
+  public VirtualThreadExecutor(int maxConcurrentCallbacks) {
+    super(newVirtualThreadPerTaskExecutor(), maxConcurrentCallbacks);
+  }
+
+  /**
+   * @return true if the running JVM supports virtual threads.
+   */
+  public static boolean isSupported() {
+    try {
+      getNewVirtualThreadPerTaskExecutorMethod();
+      return true;
+    } catch (NoSuchMethodException nsme) {
+      return false;
+    }
+  }
+
+  private static Method getNewVirtualThreadPerTaskExecutorMethod()
+      throws NoSuchMethodException {
+    // Looked up by reflection, so that rcljava still builds and runs on older Java versions.
+    return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+  }
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) getNewVirtualThreadPerTaskExecutorMethod().invoke(null);
+    } catch (NoSuchMethodException nsme) {
+      throw new UnsupportedOperationException("Virtual threads require Java 21 or newer", nsme);
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to create a virtual thread executor", e);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.guardcondition;
+
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.interfaces.Disposable;
+
+/**
+ * This class serves as a bridge between ROS2's rcl_guard_condition_t and RCLJava.
+ * A GuardCondition must be created via
+ * @{link org.ros2.rcljava.node.Node#createGuardCondition(Callback)}
+ *
+ * A guard condition can be triggered from any thread, which wakes up the executors waiting
+ * on it, and makes them call its callback.
+ */
+public interface GuardCondition extends Disposable {
+  /**
+   * Trigger the guard condition.
+   *
+   * It is safe to call this method from any thread, and after the guard condition was
+   * disposed, in which case nothing happens.
+   */
+  void trigger();
+
+  /**
+   * Call the callback of this guard condition, if any.
+   * Executors call this method after the guard condition was triggered.
+   */
+  void executeCallback();
+
+  /**
+   * @return The @{link CallbackGroup} this guard condition belongs to, or null if it uses
+   *   the default callback group of its @{link org.ros2.rcljava.node.Node}.
+   */
+  CallbackGroup getCallbackGroup();
+}
@@ -0,0 +1,110 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.guardcondition;
+
+import java.lang.ref.WeakReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.common.JNIUtils;
+import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.contexts.Context;
+import org.ros2.rcljava.node.Node;
+
+public class GuardConditionImpl implements GuardCondition {
+  private static final Logger logger = LoggerFactory.getLogger(GuardConditionImpl.class);
+
+  static {
+    try {
+      JNIUtils.loadImplementation(GuardConditionImpl.class);
+    } catch (UnsatisfiedLinkError ule) {
+      logger.error("Native code library failed to load.\n" + ule);
+      System.exit(1);
+    }
+  }
+
+  /**
+   * The node that created this guard condition, or null if it is not owned by a node.
+   */
+  private final WeakReference<Node> nodeReference;
+
+  private long handle;
+
+  private final Callback callback;
+
+  private final CallbackGroup callbackGroup;
+
+  private static native long nativeCreateHandle(long contextHandle);
+
+  private static native void nativeTrigger(long handle);
+
+  private static native void nativeDispose(long handle);
+
+  /**
+   * Constructor.
+   *
+   * @param nodeReference A @{link java.lang.ref.WeakReference} to the
+   *     @{link org.ros2.rcljava.node.Node} that created this guard condition,
+   *     or null if it is not owned by a node.
+   * @param context The context the guard condition is created in.
+   * @param callback The callback that is called when the guard condition was triggered,
+   *     or null if it is only used to wake up executors.
+   * @param callbackGroup The @{link CallbackGroup} this guard condition belongs to,
+   *     or null to use the default callback group of the node.
+   */
+  public GuardConditionImpl(final WeakReference<Node> nodeReference, final Context context,
+      final Callback callback, final CallbackGroup callbackGroup) {
+    this.nodeReference = nodeReference;
+    this.callback = callback;
+    this.callbackGroup = callbackGroup;
+    this.handle = nativeCreateHandle(context.getHandle());
+  }
+
+  public synchronized void trigger() {
+    if (this.handle != 0) {
+      nativeTrigger(this.handle);
+    }
+  }
+
+  public void executeCallback() {
+    if (this.callback != null) {
+      this.callback.call();
+    }
+  }
+
+  public CallbackGroup getCallbackGroup() {
+    return this.callbackGroup;
+  }
+
+  public long getHandle() {
+    return this.handle;
+  }
+
+  public void dispose() {
+    if (this.nodeReference != null) {
+      Node node = this.nodeReference.get();
+      if (node != null) {
+        node.removeGuardCondition(this);
+      }
+    }
+    synchronized (this) {
+      nativeDispose(this.handle);
+      this.handle = 0;
+    }
+  }
+}
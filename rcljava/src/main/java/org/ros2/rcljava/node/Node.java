@@ -15,6 +15,7 @@
 
 package org.ros2.rcljava.node;
 
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +25,7 @@ import org.ros2.rcljava.action.ActionServer;
 import org.ros2.rcljava.action.ActionServerGoalHandle;
 import org.ros2.rcljava.action.CancelCallback;
 import org.ros2.rcljava.action.GoalCallback;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.client.Client;
 import org.ros2.rcljava.concurrent.Callback;
 import org.ros2.rcljava.consumers.Consumer;
@@ -31,6 +33,7 @@ import org.ros2.rcljava.consumers.TriConsumer;
 import org.ros2.rcljava.graph.EndpointInfo;
 import org.ros2.rcljava.graph.NameAndTypes;
 import org.ros2.rcljava.graph.NodeNameInfo;
+import org.ros2.rcljava.guardcondition.GuardCondition;
 import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.interfaces.ActionDefinition;
 import org.ros2.rcljava.interfaces.GoalRequestDefinition;
@@ -45,6 +48,7 @@ import org.ros2.rcljava.publisher.Publisher;
 import org.ros2.rcljava.qos.QoSProfile;
 import org.ros2.rcljava.service.RMWRequestId;
 import org.ros2.rcljava.service.Service;
+import org.ros2.rcljava.subscription.SerializedSubscription;
 import org.ros2.rcljava.subscription.Subscription;
 import org.ros2.rcljava.time.Clock;
 import org.ros2.rcljava.timer.Timer;
@@ -90,6 +94,24 @@ public interface Node extends Disposable {
    */
   Collection<ActionServer> getActionServers();
 
+  /**
+   * @return All the @{link GuardCondition}s that were created by this instance.
+   */
+  Collection<GuardCondition> getGuardConditions();
+
+  /**
+   * Get the default callback group of this Node.
+   *
+   * Entities that are created without a callback group, as well as event handlers and
+   * action servers, belong to this group.
+   * It is a @{link org.ros2.rcljava.callbackgroups.MutuallyExclusiveCallbackGroup}, so
+   * by default no two callbacks of a node run at the same time, even in a
+   * @{link org.ros2.rcljava.executors.MultiThreadedExecutor}.
+   *
+   * @return The default @{link CallbackGroup} of this Node.
+   */
+  CallbackGroup getDefaultCallbackGroup();
+
   /**
    * Create a Subscription&lt;T&gt;.
    *
@@ -110,6 +132,88 @@ public interface Node extends Disposable {
   <T extends MessageDefinition> Subscription<T> createSubscription(
       final Class<T> messageType, final String topic, final Consumer<T> callback);
 
+  /**
+   * Create a Subscription&lt;T&gt; that belongs to the passed callback group.
+   *
+   * @param callbackGroup The @{link CallbackGroup} the created @{link Subscription} will
+   *     belong to, or null to use the default callback group of this Node.
+   * @see #createSubscription(Class, String, Consumer, QoSProfile)
+   */
+  <T extends MessageDefinition> Subscription<T> createSubscription(final Class<T> messageType,
+      final String topic, final Consumer<T> callback, final QoSProfile qosProfile,
+      final CallbackGroup callbackGroup);
+
+  /**
+   * Create a Subscription&lt;T&gt; that receives messages in batches.
+   *
+   * Every time the subscription is ready, up to maxBatchSize messages are taken from the
+   * middleware at once and passed to the callback together.
+   * The list is reused for the following batches, so the callback must copy it to keep the
+   * messages after it returns.
+   *
+   * @param <T> The type of the messages that will be received by the
+   *     created @{link Subscription}.
+   * @param messageType The class of the messages that will be received by the
+   *     created @{link Subscription}.
+   * @param topic The topic from which the created @{link Subscription} will
+   *     receive messages.
+   * @param callback The callback function that will be triggered with the messages
+   *     received by the @{link Subscription}, in the order they were received.
+   * @param maxBatchSize The maximum number of messages passed to the callback at once,
+   *     see @{link Subscription#setMaxBatchSize(int)}.
+   * @return A @{link Subscription} that represents the underlying ROS2
+   *     subscription structure.
+   */
+  <T extends MessageDefinition> Subscription<T> createBatchSubscription(
+      final Class<T> messageType, final String topic, final Consumer<List<T>> callback,
+      final QoSProfile qosProfile, final int maxBatchSize);
+
+  /**
+   * Create a Subscription&lt;T&gt; that receives messages in batches and belongs to the
+   * passed callback group.
+   *
+   * @param callbackGroup The @{link CallbackGroup} the created @{link Subscription} will
+   *     belong to, or null to use the default callback group of this Node.
+   * @see #createBatchSubscription(Class, String, Consumer, QoSProfile, int)
+   */
+  <T extends MessageDefinition> Subscription<T> createBatchSubscription(
+      final Class<T> messageType, final String topic, final Consumer<List<T>> callback,
+      final QoSProfile qosProfile, final int maxBatchSize, final CallbackGroup callbackGroup);
+
+  /**
+   * Create a subscription that receives messages in their serialized form.
+   *
+   * The messages are passed to the callback as the bytes the middleware received, without
+   * converting them to Java message objects, e.g. to forward them with
+   * @{link Publisher#publishSerialized(ByteBuffer)}.
+   *
+   * @param messageType The ROS type of the messages, e.g. "std_msgs/msg/String".
+   *     Its Java message class must be on the classpath, as it provides the type support.
+   * @param topic The topic from which the created @{link SerializedSubscription} will
+   *     receive messages.
+   * @param callback The callback function that will be triggered with every serialized
+   *     message, see @{link SerializedSubscription} for how long the buffer is valid.
+   * @return A @{link SerializedSubscription} that represents the underlying ROS2
+   *     subscription structure.
+   */
+  SerializedSubscription createSerializedSubscription(final String messageType,
+      final String topic, final Consumer<ByteBuffer> callback, final QoSProfile qosProfile);
+
+  SerializedSubscription createSerializedSubscription(final String messageType,
+      final String topic, final Consumer<ByteBuffer> callback);
+
+  /**
+   * Create a subscription that receives serialized messages and belongs to the passed
+   * callback group.
+   *
+   * @param callbackGroup The @{link CallbackGroup} the created @{link SerializedSubscription}
+   *     will belong to, or null to use the default callback group of this Node.
+   * @see #createSerializedSubscription(String, String, Consumer, QoSProfile)
+   */
+  SerializedSubscription createSerializedSubscription(final String messageType,
+      final String topic, final Consumer<ByteBuffer> callback, final QoSProfile qosProfile,
+      final CallbackGroup callbackGroup);
+
   /**
    * Create a Publisher&lt;T&gt;.
    *
@@ -141,12 +245,24 @@ public interface Node extends Disposable {
       final TriConsumer<RMWRequestId, ? extends MessageDefinition, ? extends MessageDefinition>
           callback);
 
+  <T extends ServiceDefinition> Service<T> createService(
+      final Class<T> serviceType,
+      final String serviceName,
+      final TriConsumer<RMWRequestId, ? extends MessageDefinition, ? extends MessageDefinition>
+          callback,
+      final QoSProfile qosProfile,
+      final CallbackGroup callbackGroup);
+
   <T extends ServiceDefinition> Client<T> createClient(
       final Class<T> serviceType, final String serviceName, final QoSProfile qosProfile);
 
   <T extends ServiceDefinition> Client<T> createClient(
       final Class<T> serviceType, final String serviceName);
 
+  <T extends ServiceDefinition> Client<T> createClient(
+      final Class<T> serviceType, final String serviceName, final QoSProfile qosProfile,
+      final CallbackGroup callbackGroup);
+
   /**
    * Create an ActionServer&lt;T&gt;.
    *
@@ -225,6 +341,79 @@ public interface Node extends Disposable {
    */
   boolean removeActionServer(final ActionServer actionServer);
 
+  /**
+   * Remove a Timer created by this Node.
+   *
+   * Calling this method effectively invalidates the passed @{link Timer}.
+   * If the timer was not created by this Node, then nothing happens.
+   *
+   * @param timer The object to remove from this node.
+   * @return true if the timer was removed, false if the timer was already
+   *   removed or was never created by this Node.
+   */
+  boolean removeTimer(final Timer timer);
+
+  /**
+   * Remove a GuardCondition created by this Node.
+   *
+   * Calling this method effectively invalidates the passed @{link GuardCondition}.
+   * If the guard condition was not created by this Node, then nothing happens.
+   *
+   * @param guardCondition The object to remove from this node.
+   * @return true if the guard condition was removed, false if the guard condition was
+   *   already removed or was never created by this Node.
+   */
+  boolean removeGuardCondition(final GuardCondition guardCondition);
+
+  /**
+   * Get the version of the set of entities owned by this Node.
+   *
+   * The version is incremented every time a subscription, publisher, timer, service, client,
+   * guard condition, action server or event handler is added to or removed from this Node.
+   * Executors use it to cache the entities they wait on, and only collect them again when
+   * the version changes.
+   *
+   * @return The current version of the entities of this Node.
+   */
+  long getEntitiesVersion();
+
+  /**
+   * Increment the version of the set of entities owned by this Node, and trigger its
+   * notify guard condition.
+   *
+   * Entities that own other waitable entities, e.g. publishers and subscriptions owning
+   * event handlers, call this method when those change.
+   */
+  void notifyEntitiesChanged();
+
+  /**
+   * Get the guard condition that is triggered every time the entities of this Node change.
+   *
+   * Executors wait on it, so that they pick up new entities without waiting for other work.
+   * It is not part of @{link #getGuardConditions()}.
+   *
+   * @return The notify @{link GuardCondition} of this Node.
+   */
+  GuardCondition getNotifyGuardCondition();
+
+  /**
+   * Create a guard condition.
+   *
+   * @param callback Function that is called by the executor after the guard condition was
+   *     triggered.
+   * @return The created guard condition.
+   */
+  GuardCondition createGuardCondition(final Callback callback);
+
+  /**
+   * Create a guard condition that belongs to the passed callback group.
+   *
+   * @param callbackGroup The @{link CallbackGroup} the created guard condition will belong to,
+   *     or null to use the default callback group of this Node.
+   * @see #createGuardCondition(Callback)
+   */
+  GuardCondition createGuardCondition(final Callback callback, final CallbackGroup callbackGroup);
+
   /**
    * Create a wall timer.
    *
@@ -239,6 +428,17 @@ public interface Node extends Disposable {
   @SuppressWarnings("deprecation")
   WallTimer createWallTimer(final long period, final TimeUnit unit, final Callback callback);
 
+  /**
+   * Create a wall timer that belongs to the passed callback group.
+   *
+   * @param callbackGroup The @{link CallbackGroup} the created timer will belong to,
+   *     or null to use the default callback group of this Node.
+   * @see #createWallTimer(long, TimeUnit, Callback)
+   */
+  @SuppressWarnings("deprecation")
+  WallTimer createWallTimer(final long period, final TimeUnit unit, final Callback callback,
+      final CallbackGroup callbackGroup);
+
   /**
    * Create a timer.
    *
@@ -251,6 +451,16 @@ public interface Node extends Disposable {
    */
   Timer createTimer(final long period, final TimeUnit unit, final Callback callback);
 
+  /**
+   * Create a timer that belongs to the passed callback group.
+   *
+   * @param callbackGroup The @{link CallbackGroup} the created timer will belong to,
+   *     or null to use the default callback group of this Node.
+   * @see #createTimer(long, TimeUnit, Callback)
+   */
+  Timer createTimer(final long period, final TimeUnit unit, final Callback callback,
+      final CallbackGroup callbackGroup);
+
   /** Get the name of the node.
    *
    * @return The name of the node.
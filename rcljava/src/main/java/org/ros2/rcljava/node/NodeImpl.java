@@ -21,6 +21,8 @@ import org.ros2.rcljava.action.ActionServerImpl;
 import org.ros2.rcljava.action.ActionServerGoalHandle;
 import org.ros2.rcljava.action.CancelCallback;
 import org.ros2.rcljava.action.GoalCallback;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.callbackgroups.MutuallyExclusiveCallbackGroup;
 import org.ros2.rcljava.client.Client;
 import org.ros2.rcljava.client.ClientImpl;
 import org.ros2.rcljava.common.JNIUtils;
@@ -31,6 +33,8 @@ import org.ros2.rcljava.graph.NodeNameInfo;
 import org.ros2.rcljava.contexts.Context;
 import org.ros2.rcljava.graph.EndpointInfo;
 import org.ros2.rcljava.graph.NameAndTypes;
+import org.ros2.rcljava.guardcondition.GuardCondition;
+import org.ros2.rcljava.guardcondition.GuardConditionImpl;
 import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.interfaces.ActionDefinition;
 import org.ros2.rcljava.interfaces.GoalRequestDefinition;
@@ -56,6 +60,8 @@ import org.ros2.rcljava.qos.QoSProfile;
 import org.ros2.rcljava.service.RMWRequestId;
 import org.ros2.rcljava.service.Service;
 import org.ros2.rcljava.service.ServiceImpl;
+import org.ros2.rcljava.subscription.SerializedSubscription;
+import org.ros2.rcljava.subscription.SerializedSubscriptionImpl;
 import org.ros2.rcljava.subscription.Subscription;
 import org.ros2.rcljava.subscription.SubscriptionImpl;
 import org.ros2.rcljava.time.Clock;
@@ -70,6 +76,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -81,6 +88,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * {@inheritDoc}
@@ -151,6 +159,26 @@ public class NodeImpl implements Node {
    */
   private final Collection<ActionServer> actionServers;
 
+  /**
+   * All the @{link GuardCondition}s that have been created through this instance.
+   */
+  private final Collection<GuardCondition> guardConditions;
+
+  /**
+   * Incremented every time an entity is added to or removed from this node.
+   */
+  private final AtomicLong entitiesVersion;
+
+  /**
+   * Triggered every time the entities of this node change, to wake up executors.
+   */
+  private final GuardCondition notifyGuardCondition;
+
+  /**
+   * The callback group of the entities that were not assigned one explicitly.
+   */
+  private final CallbackGroup defaultCallbackGroup;
+
   private Object parametersMutex;
 
   class ParameterAndDescriptor {
@@ -186,6 +214,10 @@ public class NodeImpl implements Node {
     this.clients = new LinkedBlockingQueue<Client>();
     this.timers = new LinkedBlockingQueue<Timer>();
     this.actionServers = new LinkedBlockingQueue<ActionServer>();
+    this.guardConditions = new LinkedBlockingQueue<GuardCondition>();
+    this.entitiesVersion = new AtomicLong();
+    this.notifyGuardCondition = new GuardConditionImpl(null, this.context, null, null);
+    this.defaultCallbackGroup = new MutuallyExclusiveCallbackGroup();
     this.parametersMutex = new Object();
     this.parameters = new ConcurrentHashMap<String, ParameterAndDescriptor>();
     this.allowUndeclaredParameters = nodeOptions.getAllowUndeclaredParameters();
@@ -256,6 +288,17 @@ public class NodeImpl implements Node {
     return this.clock;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroup getDefaultCallbackGroup() {
+    return this.defaultCallbackGroup;
+  }
+
+  private CallbackGroup getCallbackGroupOrDefault(final CallbackGroup callbackGroup) {
+    return callbackGroup == null ? this.defaultCallbackGroup : callbackGroup;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -267,8 +310,9 @@ public class NodeImpl implements Node {
     RCLJava.disposeQoSProfile(qosProfileHandle);
 
     Publisher<T> publisher =
-        new PublisherImpl<T>(new WeakReference<Node>(this), publisherHandle, topic);
+        new PublisherImpl<T>(new WeakReference<Node>(this), publisherHandle, messageType, topic);
     this.publishers.add(publisher);
+    this.notifyEntitiesChanged();
 
     return publisher;
   }
@@ -284,15 +328,26 @@ public class NodeImpl implements Node {
   public final <T extends MessageDefinition> Subscription<T> createSubscription(
       final Class<T> messageType, final String topic, final Consumer<T> callback,
       final QoSProfile qosProfile) {
+    return this.<T>createSubscription(messageType, topic, callback, qosProfile, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final <T extends MessageDefinition> Subscription<T> createSubscription(
+      final Class<T> messageType, final String topic, final Consumer<T> callback,
+      final QoSProfile qosProfile, final CallbackGroup callbackGroup) {
     long qosProfileHandle = RCLJava.convertQoSProfileToHandle(qosProfile);
     long subscriptionHandle =
         nativeCreateSubscriptionHandle(this.handle, messageType, topic, qosProfileHandle);
     RCLJava.disposeQoSProfile(qosProfileHandle);
 
     Subscription<T> subscription = new SubscriptionImpl<T>(
-        new WeakReference<Node>(this), subscriptionHandle, messageType, topic, callback);
+        new WeakReference<Node>(this), subscriptionHandle, messageType, topic, callback,
+        this.getCallbackGroupOrDefault(callbackGroup));
 
     this.subscriptions.add(subscription);
+    this.notifyEntitiesChanged();
 
     return subscription;
   }
@@ -302,18 +357,187 @@ public class NodeImpl implements Node {
     return this.<T>createSubscription(messageType, topic, callback, QoSProfile.DEFAULT);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  public final <T extends MessageDefinition> Subscription<T> createBatchSubscription(
+      final Class<T> messageType, final String topic, final Consumer<List<T>> callback,
+      final QoSProfile qosProfile, final int maxBatchSize) {
+    return this.<T>createBatchSubscription(
+      messageType, topic, callback, qosProfile, maxBatchSize, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final <T extends MessageDefinition> Subscription<T> createBatchSubscription(
+      final Class<T> messageType, final String topic, final Consumer<List<T>> callback,
+      final QoSProfile qosProfile, final int maxBatchSize, final CallbackGroup callbackGroup) {
+    long qosProfileHandle = RCLJava.convertQoSProfileToHandle(qosProfile);
+    long subscriptionHandle =
+        nativeCreateSubscriptionHandle(this.handle, messageType, topic, qosProfileHandle);
+    RCLJava.disposeQoSProfile(qosProfileHandle);
+
+    Subscription<T> subscription = new SubscriptionImpl<T>(
+        new WeakReference<Node>(this), subscriptionHandle, messageType, topic, callback,
+        maxBatchSize, this.getCallbackGroupOrDefault(callbackGroup));
+
+    this.subscriptions.add(subscription);
+    this.notifyEntitiesChanged();
+
+    return subscription;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final SerializedSubscription createSerializedSubscription(final String messageType,
+      final String topic, final Consumer<ByteBuffer> callback, final QoSProfile qosProfile) {
+    return this.createSerializedSubscription(messageType, topic, callback, qosProfile, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final SerializedSubscription createSerializedSubscription(final String messageType,
+      final String topic, final Consumer<ByteBuffer> callback) {
+    return this.createSerializedSubscription(messageType, topic, callback, QoSProfile.DEFAULT);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final SerializedSubscription createSerializedSubscription(final String messageType,
+      final String topic, final Consumer<ByteBuffer> callback, final QoSProfile qosProfile,
+      final CallbackGroup callbackGroup) {
+    Class<MessageDefinition> messageClass = getMessageClass(messageType);
+    long qosProfileHandle = RCLJava.convertQoSProfileToHandle(qosProfile);
+    long subscriptionHandle =
+        nativeCreateSubscriptionHandle(this.handle, messageClass, topic, qosProfileHandle);
+    RCLJava.disposeQoSProfile(qosProfileHandle);
+
+    SerializedSubscription subscription = new SerializedSubscriptionImpl(
+        new WeakReference<Node>(this), subscriptionHandle, messageClass, topic, callback,
+        this.getCallbackGroupOrDefault(callbackGroup));
+
+    this.subscriptions.add(subscription);
+    this.notifyEntitiesChanged();
+
+    return subscription;
+  }
+
+  /**
+   * Find the generated Java class of a ROS message type.
+   *
+   * @param messageType A ROS message type, e.g. "std_msgs/msg/String" or "std_msgs/String".
+   * @return The class of the message type.
+   */
+  @SuppressWarnings("unchecked")
+  private static Class<MessageDefinition> getMessageClass(final String messageType) {
+    String[] parts = messageType.split("/");
+    String className;
+    if (parts.length == 3) {
+      className = parts[0] + "." + parts[1] + "." + parts[2];
+    } else if (parts.length == 2) {
+      className = parts[0] + ".msg." + parts[1];
+    } else {
+      throw new IllegalArgumentException("Invalid message type: " + messageType);
+    }
+    Class<?> messageClass;
+    try {
+      messageClass = Class.forName(className);
+    } catch (ClassNotFoundException cnfe) {
+      throw new IllegalArgumentException("Unknown message type: " + messageType, cnfe);
+    }
+    if (!MessageDefinition.class.isAssignableFrom(messageClass)) {
+      throw new IllegalArgumentException("Not a message type: " + messageType);
+    }
+    return (Class<MessageDefinition>) messageClass;
+  }
+
   /**
    * {@inheritDoc}
    */
   public boolean removeSubscription(final Subscription subscription) {
-    return this.subscriptions.remove(subscription);
+    return this.removeEntity(this.subscriptions, subscription);
   }
 
   /**
    * {@inheritDoc}
    */
   public boolean removePublisher(final Publisher publisher) {
-    return this.publishers.remove(publisher);
+    return this.removeEntity(this.publishers, publisher);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean removeTimer(final Timer timer) {
+    return this.removeEntity(this.timers, timer);
+  }
+
+  private <T> boolean removeEntity(final Collection<T> entities, final T entity) {
+    boolean removed = entities.remove(entity);
+    if (removed) {
+      this.notifyEntitiesChanged();
+    }
+    return removed;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final long getEntitiesVersion() {
+    return this.entitiesVersion.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void notifyEntitiesChanged() {
+    this.entitiesVersion.incrementAndGet();
+    this.notifyGuardCondition.trigger();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final GuardCondition getNotifyGuardCondition() {
+    return this.notifyGuardCondition;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final Collection<GuardCondition> getGuardConditions() {
+    return this.guardConditions;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public GuardCondition createGuardCondition(final Callback callback) {
+    return this.createGuardCondition(callback, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public GuardCondition createGuardCondition(
+      final Callback callback, final CallbackGroup callbackGroup) {
+    GuardCondition guardCondition = new GuardConditionImpl(
+        new WeakReference<Node>(this), this.context, callback,
+        this.getCallbackGroupOrDefault(callbackGroup));
+    this.guardConditions.add(guardCondition);
+    this.notifyEntitiesChanged();
+    return guardCondition;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public boolean removeGuardCondition(final GuardCondition guardCondition) {
+    return this.removeEntity(this.guardConditions, guardCondition);
   }
 
   /**
@@ -338,6 +562,16 @@ public class NodeImpl implements Node {
     final TriConsumer<RMWRequestId, ? extends MessageDefinition, ? extends MessageDefinition>
       callback,
     final QoSProfile qosProfile)
+  {
+    return this.<T>createService(serviceType, serviceName, callback, qosProfile, null);
+  }
+
+  public final <T extends ServiceDefinition> Service<T> createService(final Class<T> serviceType,
+    final String serviceName,
+    final TriConsumer<RMWRequestId, ? extends MessageDefinition, ? extends MessageDefinition>
+      callback,
+    final QoSProfile qosProfile,
+    final CallbackGroup callbackGroup)
   {
     T serviceDefinition;
     try {
@@ -355,8 +589,10 @@ public class NodeImpl implements Node {
       new WeakReference<Node>(this),
       serviceHandle,
       serviceName,
-      callback);
+      callback,
+      this.getCallbackGroupOrDefault(callbackGroup));
     this.services.add(service);
+    this.notifyEntitiesChanged();
 
     return service;
   }
@@ -379,6 +615,13 @@ public class NodeImpl implements Node {
 
   public final <T extends ServiceDefinition> Client<T> createClient(
     final Class<T> serviceType, final String serviceName, final QoSProfile qosProfile)
+  {
+    return this.<T>createClient(serviceType, serviceName, qosProfile, null);
+  }
+
+  public final <T extends ServiceDefinition> Client<T> createClient(
+    final Class<T> serviceType, final String serviceName, final QoSProfile qosProfile,
+    final CallbackGroup callbackGroup)
   {
     long qosProfileHandle = RCLJava.convertQoSProfileToHandle(qosProfile);
     long clientHandle =
@@ -393,8 +636,10 @@ public class NodeImpl implements Node {
     }
 
     Client<T> client = new ClientImpl<T>(
-        serviceDefinition, new WeakReference<Node>(this), clientHandle, serviceName);
+        serviceDefinition, new WeakReference<Node>(this), clientHandle, serviceName,
+        this.getCallbackGroupOrDefault(callbackGroup));
     this.clients.add(client);
+    this.notifyEntitiesChanged();
 
     return client;
   }
@@ -416,6 +661,7 @@ public class NodeImpl implements Node {
         new WeakReference<Node>(this), actionType, actionName,
         goalCallback, cancelCallback, acceptedCallback);
     this.actionServers.add(actionServer);
+    this.notifyEntitiesChanged();
     return actionServer;
   }
 
@@ -423,21 +669,21 @@ public class NodeImpl implements Node {
    * {@inheritDoc}
    */
   public boolean removeService(final Service service) {
-    return this.services.remove(service);
+    return this.removeEntity(this.services, service);
   }
 
   /**
    * {@inheritDoc}
    */
   public boolean removeClient(final Client client) {
-    return this.clients.remove(client);
+    return this.removeEntity(this.clients, client);
   }
 
   /**
    * {@inheritDoc}
    */
   public boolean removeActionServer(final ActionServer actionServer) {
-    return this.actionServers.remove(actionServer);
+    return this.removeEntity(this.actionServers, actionServer);
   }
 
   /**
@@ -468,6 +714,7 @@ public class NodeImpl implements Node {
     cleanupDisposables(timers);
     cleanupDisposables(services);
     cleanupDisposables(clients);
+    cleanupDisposables(guardConditions);
   }
 
   /**
@@ -475,6 +722,10 @@ public class NodeImpl implements Node {
    */
   public final void dispose() {
     cleanup();
+    // Executors cache the handle of the notify guard condition until the entities version
+    // changes, which cleanup() does not do for a node without entities.
+    this.entitiesVersion.incrementAndGet();
+    this.notifyGuardCondition.dispose();
     nativeDispose(this.handle);
     this.handle = 0;
   }
@@ -489,11 +740,14 @@ public class NodeImpl implements Node {
   private static native long nativeCreateTimerHandle(long clockHandle, long contextHandle, long timerPeriod);
 
   @SuppressWarnings("deprecation")
-  private Timer createTimer(Clock clock, final long period, final TimeUnit unit, final Callback callback) {
+  private Timer createTimer(Clock clock, final long period, final TimeUnit unit,
+      final Callback callback, final CallbackGroup callbackGroup) {
     long timerPeriodNS = TimeUnit.NANOSECONDS.convert(period, unit);
     long timerHandle = nativeCreateTimerHandle(clock.getHandle(), this.context.getHandle(), timerPeriodNS);
-    Timer timer = new WallTimerImpl(new WeakReference<Node>(this), timerHandle, callback, timerPeriodNS);
+    Timer timer = new WallTimerImpl(new WeakReference<Node>(this), timerHandle, callback,
+        timerPeriodNS, this.getCallbackGroupOrDefault(callbackGroup));
     this.timers.add(timer);
+    this.notifyEntitiesChanged();
     return timer;
   }
 
@@ -502,14 +756,31 @@ public class NodeImpl implements Node {
    */
   @SuppressWarnings("deprecation")
   public WallTimer createWallTimer(final long period, final TimeUnit unit, final Callback callback) {
-    return (WallTimer) this.createTimer(this.wall_clock, period, unit, callback);
+    return this.createWallTimer(period, unit, callback, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @SuppressWarnings("deprecation")
+  public WallTimer createWallTimer(final long period, final TimeUnit unit,
+      final Callback callback, final CallbackGroup callbackGroup) {
+    return (WallTimer) this.createTimer(this.wall_clock, period, unit, callback, callbackGroup);
   }
 
   /**
    * {@inheritDoc}
    */
   public Timer createTimer(final long period, final TimeUnit unit, final Callback callback) {
-    return this.createTimer(this.clock, period, unit, callback);
+    return this.createTimer(period, unit, callback, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public Timer createTimer(final long period, final TimeUnit unit, final Callback callback,
+      final CallbackGroup callbackGroup) {
+    return this.createTimer(this.clock, period, unit, callback, callbackGroup);
   }
 
   /**
@@ -16,9 +16,11 @@
 package org.ros2.rcljava.publisher;
 
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.function.Supplier;
 
+import org.ros2.rcljava.MessagePool;
 import org.ros2.rcljava.consumers.Consumer;
 import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.interfaces.MessageDefinition;
@@ -41,6 +43,58 @@ public interface Publisher<T extends MessageDefinition> extends Disposable {
    */
   void publish(final T message);
 
+  /**
+   * Publish a message and release it to a pool.
+   *
+   * Messages are converted before publishing returns, so a message acquired from the pool
+   * can be released right away, and the next message acquired on this thread is the same
+   * instance, without allocating.
+   * The message is released even if publishing fails.
+   *
+   * @param message An instance of the &lt;T&gt; parameter, that must not be used afterwards.
+   * @param messagePool The pool to release the message to.
+   */
+  void publish(final T message, final MessagePool<T> messagePool);
+
+  /**
+   * Publish a message that is already serialized, without converting it from a Java message.
+   *
+   * The bytes must be the serialized form of a message of the type of this publisher, as
+   * received by a @{link org.ros2.rcljava.subscription.SerializedSubscription}.
+   * The position of the buffer is not changed.
+   *
+   * @param serializedMessage A direct buffer that holds the serialized message between its
+   *   position and its limit.
+   */
+  void publishSerialized(final ByteBuffer serializedMessage);
+
+  /**
+   * @return true if the middleware loans the memory messages are published from.
+   *   @{link #publish(T)} then converts messages straight into that memory, which the
+   *   middleware can share with subscribers on the same host without copying it again.
+   *   This is typically the case for messages of fixed size with a shared memory transport.
+   */
+  boolean canLoanMessages();
+
+  /**
+   * Convert every published message into the same native message.
+   *
+   * By default a native message is allocated and destroyed for every call to
+   * @{link #publish(T)}.
+   * When enabled, the publisher keeps a single native message instead, and the buffers of its
+   * sequence fields are only reallocated when a published message doesn't fit in them.
+   * The native message is destroyed when this is disabled again or the publisher is disposed.
+   * It isn't used while the middleware loans messages, see @{link #canLoanMessages()}.
+   *
+   * @param reuseNativeMessage true to keep a native message between calls to publish.
+   */
+  void setReuseNativeMessage(final boolean reuseNativeMessage);
+
+  /**
+   * @return true if every published message is converted into the same native message.
+   */
+  boolean isReusingNativeMessage();
+
   /**
    * A @{link java.lang.ref.WeakReference} to the @{link org.ros2.rcljava.Node}
    * that created this publisher.
@@ -16,6 +16,7 @@
 package org.ros2.rcljava.publisher;
 
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Supplier;
@@ -27,6 +28,7 @@ import org.ros2.rcljava.consumers.Consumer;
 import org.ros2.rcljava.events.EventHandler;
 import org.ros2.rcljava.events.EventHandlerImpl;
 import org.ros2.rcljava.events.PublisherEventStatus;
+import org.ros2.rcljava.MessagePool;
 import org.ros2.rcljava.RCLJava;
 import org.ros2.rcljava.common.JNIUtils;
 import org.ros2.rcljava.interfaces.MessageDefinition;
@@ -60,6 +62,18 @@ public class PublisherImpl<T extends MessageDefinition> implements Publisher<T>
    */
   private final String topic;
 
+  // Handles of the native functions of the message type, or zero if the message type is not
+  // known, in which case they are taken from every published message.
+  private final long typeSupportHandle;
+  private final long fromJavaConverterHandle;
+  private final long destructorHandle;
+
+  // Guarded by this: the native message kept between calls to publish, if enabled, and the
+  // handle of the function that destroys it.
+  private boolean reuseNativeMessage;
+  private long nativeMessageHandle;
+  private long nativeMessageDestructorHandle;
+
   private final Collection<EventHandler> eventHandlers;
 
   /**
@@ -76,6 +90,38 @@ public class PublisherImpl<T extends MessageDefinition> implements Publisher<T>
     this.nodeReference = nodeReference;
     this.handle = handle;
     this.topic = topic;
+    this.typeSupportHandle = 0;
+    this.fromJavaConverterHandle = 0;
+    this.destructorHandle = 0;
+    this.eventHandlers = new LinkedBlockingQueue<EventHandler>();
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param nodeReference A {@link java.lang.ref.WeakReference} to the
+   *     @{link org.ros2.rcljava.Node} that created this publisher.
+   * @param handle A pointer to the underlying ROS2 publisher
+   *     structure, as an integer. Must not be zero.
+   * @param messageType The <code>Class</code> of the messages that this publisher
+   *     will publish, whose native converter and destructor are resolved once here.
+   * @param topic The topic to which this publisher will publish messages.
+   */
+  public PublisherImpl(
+      final WeakReference<Node> nodeReference, final long handle, final Class<T> messageType,
+      final String topic) {
+    this.nodeReference = nodeReference;
+    this.handle = handle;
+    this.topic = topic;
+    T message;
+    try {
+      message = messageType.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Failed to instantiate message type: ", e);
+    }
+    this.typeSupportHandle = message.getTypeSupportInstance();
+    this.fromJavaConverterHandle = message.getFromJavaConverterInstance();
+    this.destructorHandle = message.getDestructorInstance();
     this.eventHandlers = new LinkedBlockingQueue<EventHandler>();
   }
 
@@ -85,16 +131,134 @@ public class PublisherImpl<T extends MessageDefinition> implements Publisher<T>
    * @param <T> The type of the messages that this publisher will publish.
    * @param handle A pointer to the underlying ROS2 publisher
    *     structure, as an integer. Must not be zero.
+   * @param messageTypeSupport A pointer to the type support of the message, used to borrow
+   *     a loaned message if the middleware supports it.
+   * @param messageFromJavaConverter A pointer to the function that converts the message
+   *     to its native representation.
+   * @param messageDestructor A pointer to the function that destroys the native message.
+   * @param nativeMessageHandle A pointer to a native message to convert the message into,
+   *     or zero to convert it into a new native message that is destroyed after publishing.
    * @param message An instance of the &lt;T&gt; parameter.
    */
   private static native <T extends MessageDefinition> void nativePublish(
-      long handle, long messageDestructor, T message);
+      long handle, long messageTypeSupport, long messageFromJavaConverter,
+      long messageDestructor, long nativeMessageHandle, T message);
+
+  /**
+   * Create a native message from a message.
+   *
+   * @param <T> The type of the messages that this publisher will publish.
+   * @param messageFromJavaConverter A pointer to the function that converts the message
+   *     to its native representation.
+   * @param message An instance of the &lt;T&gt; parameter.
+   * @return A pointer to the created native message.
+   */
+  private static native <T extends MessageDefinition> long nativeCreateMessage(
+      long messageFromJavaConverter, T message);
+
+  /**
+   * Destroy a native message created by @{link #nativeCreateMessage(long, T)}.
+   *
+   * @param messageDestructor A pointer to the function that destroys the native message.
+   * @param nativeMessageHandle A pointer to the native message. Must not be zero.
+   */
+  private static native void nativeDestroyMessage(
+      long messageDestructor, long nativeMessageHandle);
 
   /**
    * {@inheritDoc}
    */
   public final void publish(final T message) {
-    nativePublish(this.handle, message.getDestructorInstance(), message);
+    long typeSupport = this.typeSupportHandle;
+    long fromJavaConverter = this.fromJavaConverterHandle;
+    long destructor = this.destructorHandle;
+    if (fromJavaConverter == 0) {
+      typeSupport = message.getTypeSupportInstance();
+      fromJavaConverter = message.getFromJavaConverterInstance();
+      destructor = message.getDestructorInstance();
+    }
+    synchronized (this) {
+      if (this.reuseNativeMessage) {
+        if (this.nativeMessageHandle == 0) {
+          this.nativeMessageHandle = nativeCreateMessage(fromJavaConverter, message);
+          this.nativeMessageDestructorHandle = destructor;
+        }
+        nativePublish(
+          this.handle, typeSupport, fromJavaConverter, destructor, this.nativeMessageHandle,
+          message);
+        return;
+      }
+    }
+    nativePublish(this.handle, typeSupport, fromJavaConverter, destructor, 0, message);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void publish(final T message, final MessagePool<T> messagePool) {
+    try {
+      this.publish(message);
+    } finally {
+      messagePool.release(message);
+    }
+  }
+
+  private static native boolean nativeCanLoanMessages(long handle);
+
+  /**
+   * {@inheritDoc}
+   */
+  public final boolean canLoanMessages() {
+    return nativeCanLoanMessages(this.handle);
+  }
+
+  /**
+   * Publish a serialized message via the underlying ROS2 mechanisms.
+   *
+   * @param handle A pointer to the underlying ROS2 publisher
+   *     structure, as an integer. Must not be zero.
+   * @param serializedMessage A direct buffer that holds the serialized message.
+   * @param offset The index of the first byte of the serialized message in the buffer.
+   * @param length The number of bytes of the serialized message.
+   */
+  private static native void nativePublishSerialized(
+      long handle, ByteBuffer serializedMessage, int offset, int length);
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void publishSerialized(final ByteBuffer serializedMessage) {
+    if (!serializedMessage.isDirect()) {
+      throw new IllegalArgumentException("Serialized messages must be passed in a direct buffer");
+    }
+    nativePublishSerialized(
+      this.handle, serializedMessage, serializedMessage.position(),
+      serializedMessage.remaining());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final synchronized void setReuseNativeMessage(final boolean reuseNativeMessage) {
+    this.reuseNativeMessage = reuseNativeMessage;
+    if (!reuseNativeMessage) {
+      this.destroyNativeMessage();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final synchronized boolean isReusingNativeMessage() {
+    return this.reuseNativeMessage;
+  }
+
+  private synchronized void destroyNativeMessage() {
+    if (this.nativeMessageHandle != 0) {
+      nativeDestroyMessage(this.nativeMessageDestructorHandle, this.nativeMessageHandle);
+      this.nativeMessageHandle = 0;
+      this.nativeMessageDestructorHandle = 0;
+    }
   }
 
   /**
@@ -119,11 +283,15 @@ public class PublisherImpl<T extends MessageDefinition> implements Publisher<T>
   createEventHandler(Supplier<T> factory, Consumer<T> callback) {
     final WeakReference<Collection<EventHandler>> weakEventHandlers =
       new WeakReference<Collection<EventHandler>>(this.eventHandlers);
+    final WeakReference<Node> nodeReference = this.nodeReference;
     Consumer<EventHandler> disposeCallback = new Consumer<EventHandler>() {
       public void accept(EventHandler eventHandler) {
         Collection<EventHandler> eventHandlers = weakEventHandlers.get();
-        if (eventHandlers != null) {
-          eventHandlers.remove(eventHandler);
+        if (eventHandlers != null && eventHandlers.remove(eventHandler)) {
+          Node node = nodeReference.get();
+          if (node != null) {
+            node.notifyEntitiesChanged();
+          }
         }
       }
     };
@@ -132,6 +300,10 @@ public class PublisherImpl<T extends MessageDefinition> implements Publisher<T>
     EventHandler<T, Publisher> eventHandler = new EventHandlerImpl<T, Publisher>(
       new WeakReference<Publisher>(this), eventHandle, factory, callback, disposeCallback);
     this.eventHandlers.add(eventHandler);
+    Node node = this.nodeReference.get();
+    if (node != null) {
+      node.notifyEntitiesChanged();
+    }
     return eventHandler;
   }
 
@@ -146,6 +318,10 @@ public class PublisherImpl<T extends MessageDefinition> implements Publisher<T>
       throw new IllegalArgumentException("The passed eventHandler wasn't created by this publisher");
     }
     eventHandler.dispose();
+    Node node = this.nodeReference.get();
+    if (node != null) {
+      node.notifyEntitiesChanged();
+    }
   }
 
   /**
@@ -182,6 +358,7 @@ public class PublisherImpl<T extends MessageDefinition> implements Publisher<T>
    * {@inheritDoc}
    */
   public final void dispose() {
+    this.setReuseNativeMessage(false);
     for (EventHandler eventHandler : this.eventHandlers) {
       eventHandler.dispose();
     }
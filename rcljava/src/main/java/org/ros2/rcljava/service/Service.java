@@ -15,15 +15,49 @@
 
 package org.ros2.rcljava.service;
 
+import org.ros2.rcljava.MessagePool;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.consumers.TriConsumer;
+import org.ros2.rcljava.executors.Schedulable;
 import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.interfaces.MessageDefinition;
 import org.ros2.rcljava.interfaces.ServiceDefinition;
 
-public interface Service<T extends ServiceDefinition> extends Disposable {
+public interface Service<T extends ServiceDefinition> extends Disposable, Schedulable {
   ServiceDefinition getServiceDefinition();
 
   void executeCallback(RMWRequestId rmwRequestId, MessageDefinition request, MessageDefinition response);
 
   String getServiceName();
+
+  /**
+   * @return The pool requests are taken into, or null if new requests are created.
+   */
+  MessagePool<? extends MessageDefinition> getRequestPool();
+
+  /**
+   * @return The pool responses are acquired from, or null if new responses are created.
+   */
+  MessagePool<? extends MessageDefinition> getResponsePool();
+
+  /**
+   * Take requests into messages acquired from a pool, and acquire the responses passed to the
+   * callback from a pool, instead of creating new messages for every request.
+   *
+   * Both are released to their pool once the response was sent, so the callback must not keep
+   * a reference to them after it returns.
+   * The response still holds the values of a previous response, see @{link MessagePool}.
+   *
+   * @param requestPool The pool of the request type of the service, or null.
+   * @param responsePool The pool of the response type of the service, or null.
+   */
+  void setMessagePools(
+    MessagePool<? extends MessageDefinition> requestPool,
+    MessagePool<? extends MessageDefinition> responsePool);
+
+  /**
+   * @return The @{link CallbackGroup} this service belongs to, or null if it uses the default
+   *   callback group of its @{link org.ros2.rcljava.node.Node}.
+   */
+  CallbackGroup getCallbackGroup();
 }
@@ -17,9 +17,13 @@ package org.ros2.rcljava.service;
 
 import java.lang.ref.WeakReference;
 
+import org.ros2.rcljava.MessagePool;
 import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.common.JNIUtils;
 import org.ros2.rcljava.consumers.TriConsumer;
+import org.ros2.rcljava.executors.SchedulingParameters;
+import org.ros2.rcljava.executors.SchedulingParametersHolder;
 import org.ros2.rcljava.interfaces.MessageDefinition;
 import org.ros2.rcljava.interfaces.ServiceDefinition;
 import org.ros2.rcljava.node.Node;
@@ -47,6 +51,14 @@ public class ServiceImpl<T extends ServiceDefinition> implements Service<T> {
 
   private final ServiceDefinition serviceDefinition;
 
+  private final CallbackGroup callbackGroup;
+
+  private volatile MessagePool<? extends MessageDefinition> requestPool;
+
+  private volatile MessagePool<? extends MessageDefinition> responsePool;
+
+  private final SchedulingParametersHolder schedulingParameters;
+
   public ServiceImpl(
     final ServiceDefinition serviceDefinition,
     final WeakReference<Node> nodeReference,
@@ -54,18 +66,67 @@ public class ServiceImpl<T extends ServiceDefinition> implements Service<T> {
     final String serviceName,
     final TriConsumer<RMWRequestId, ? extends MessageDefinition, ? extends MessageDefinition>
       callback)
+  {
+    this(serviceDefinition, nodeReference, handle, serviceName, callback, null);
+  }
+
+  public ServiceImpl(
+    final ServiceDefinition serviceDefinition,
+    final WeakReference<Node> nodeReference,
+    final long handle,
+    final String serviceName,
+    final TriConsumer<RMWRequestId, ? extends MessageDefinition, ? extends MessageDefinition>
+      callback,
+    final CallbackGroup callbackGroup)
   {
     this.nodeReference = nodeReference;
+    this.schedulingParameters = new SchedulingParametersHolder(nodeReference);
     this.handle = handle;
     this.serviceName = serviceName;
     this.callback = callback;
     this.serviceDefinition = serviceDefinition;
+    this.callbackGroup = callbackGroup;
+  }
+
+  public CallbackGroup getCallbackGroup() {
+    return this.callbackGroup;
+  }
+
+  public SchedulingParameters getSchedulingParameters() {
+    return this.schedulingParameters.get();
+  }
+
+  public void setSchedulingParameters(final SchedulingParameters schedulingParameters) {
+    this.schedulingParameters.set(schedulingParameters);
   }
 
   public final ServiceDefinition getServiceDefinition() {
     return this.serviceDefinition;
   }
 
+  public final MessagePool<? extends MessageDefinition> getRequestPool() {
+    return this.requestPool;
+  }
+
+  public final MessagePool<? extends MessageDefinition> getResponsePool() {
+    return this.responsePool;
+  }
+
+  public final void setMessagePools(
+      final MessagePool<? extends MessageDefinition> requestPool,
+      final MessagePool<? extends MessageDefinition> responsePool) {
+    if (requestPool != null
+        && requestPool.getMessageType() != this.serviceDefinition.newRequestInstance().getClass()) {
+      throw new IllegalArgumentException("The request pool must hold requests of this service");
+    }
+    if (responsePool != null
+        && responsePool.getMessageType() != this.serviceDefinition.newResponseInstance().getClass()) {
+      throw new IllegalArgumentException("The response pool must hold responses of this service");
+    }
+    this.requestPool = requestPool;
+    this.responsePool = responsePool;
+  }
+
   /**
    * Destroy a ROS2 service (rcl_service_t).
    *
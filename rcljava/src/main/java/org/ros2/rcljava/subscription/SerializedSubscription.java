@@ -0,0 +1,71 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.subscription;
+
+import java.nio.ByteBuffer;
+
+import org.ros2.rcljava.interfaces.MessageDefinition;
+
+/**
+ * A subscription that receives messages in their serialized form, without converting them to
+ * Java message objects.
+ * A SerializedSubscription must be created via
+ * @{link org.ros2.rcljava.node.Node#createSerializedSubscription(String, String, Consumer)}
+ *
+ * The messages taken by an executor are passed to the callback as direct
+ * @{link java.nio.ByteBuffer}s that wrap the memory the middleware serialized them into.
+ * That memory is reused for the next message once the callback returns, so the callback must
+ * copy whatever it wants to keep.
+ */
+public interface SerializedSubscription extends Subscription<MessageDefinition> {
+  /**
+   * Execute the callback with a serialized message.
+   *
+   * @param serializedMessage A direct buffer that holds the serialized message between its
+   *   position and its limit. It is only valid until this method returns.
+   */
+  void executeCallback(ByteBuffer serializedMessage);
+
+  /**
+   * Get a native serialized message to take a message into.
+   *
+   * The subscription keeps a single serialized message, whose buffer grows to the size of the
+   * largest message taken, so that taking does not allocate.
+   * If it is still in use, e.g. by a callback running in another thread, a new one is
+   * created instead.
+   *
+   * @return A pointer to the native serialized message, which must be released with
+   *   @{link #releaseSerializedMessage(long)}.
+   */
+  long acquireSerializedMessage();
+
+  /**
+   * @param serializedMessageHandle A serialized message acquired from this subscription, which
+   *   holds a message.
+   * @param length The length of the message, in bytes.
+   * @return A direct buffer that wraps the serialized message, with its position at 0 and its
+   *   limit at the length of the message. It is reused while the memory of the message does
+   *   not move.
+   */
+  ByteBuffer wrapSerializedMessage(long serializedMessageHandle, int length);
+
+  /**
+   * Make a serialized message acquired from this subscription available for the next take.
+   *
+   * @param serializedMessageHandle The pointer returned by @{link #acquireSerializedMessage()}.
+   */
+  void releaseSerializedMessage(long serializedMessageHandle);
+}
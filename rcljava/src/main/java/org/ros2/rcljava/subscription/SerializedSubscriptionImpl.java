@@ -0,0 +1,165 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.subscription;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.consumers.Consumer;
+import org.ros2.rcljava.interfaces.MessageDefinition;
+import org.ros2.rcljava.node.Node;
+
+/**
+ * {@inheritDoc}
+ */
+public class SerializedSubscriptionImpl
+    extends SubscriptionImpl<MessageDefinition> implements SerializedSubscription {
+  /**
+   * The callback function that will be triggered when a new serialized message is received.
+   */
+  private final Consumer<ByteBuffer> serializedCallback;
+
+  /**
+   * The native serialized message that is reused for every take, or 0 if it wasn't created
+   * yet, guarded by this.
+   */
+  private long serializedMessageHandle;
+
+  /**
+   * The direct buffer that last wrapped serializedMessageHandle, or null.
+   */
+  private ByteBuffer serializedMessageBuffer;
+
+  /**
+   * Set while serializedMessageHandle holds a message that is being taken or executed.
+   */
+  private boolean serializedMessageInUse;
+
+  /**
+   * Constructor.
+   *
+   * @param nodeReference A {@link java.lang.ref.WeakReference} to the
+   *     @{link org.ros2.rcljava.Node} that created this subscription.
+   * @param handle A pointer to the underlying ROS2 subscription
+   *     structure, as an integer. Must not be zero.
+   * @param messageType The <code>Class</code> of the messages that this
+   *     subscription will receive, which only determines their type support.
+   * @param topic The topic to which this subscription will be subscribed.
+   * @param callback The callback function that will be triggered when a new
+   *     serialized message is received.
+   * @param callbackGroup The @{link CallbackGroup} this subscription belongs to,
+   *     or null to use the default callback group of the node.
+   */
+  public SerializedSubscriptionImpl(final WeakReference<Node> nodeReference, final long handle,
+      final Class<MessageDefinition> messageType, final String topic,
+      final Consumer<ByteBuffer> callback, final CallbackGroup callbackGroup) {
+    super(nodeReference, handle, messageType, topic, (Consumer<MessageDefinition>) null,
+      callbackGroup);
+    this.serializedCallback = callback;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void executeCallback(final ByteBuffer serializedMessage) {
+    this.serializedCallback.accept(serializedMessage);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final synchronized long acquireSerializedMessage() {
+    if (this.serializedMessageInUse) {
+      return nativeCreateSerializedMessage();
+    }
+    if (this.serializedMessageHandle == 0) {
+      this.serializedMessageHandle = nativeCreateSerializedMessage();
+    }
+    this.serializedMessageInUse = true;
+    return this.serializedMessageHandle;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final synchronized ByteBuffer wrapSerializedMessage(
+      final long serializedMessageHandle, final int length) {
+    ByteBuffer buffer;
+    if (serializedMessageHandle == this.serializedMessageHandle) {
+      buffer = nativeWrapSerializedMessage(serializedMessageHandle, this.serializedMessageBuffer);
+      this.serializedMessageBuffer = buffer;
+    } else {
+      buffer = nativeWrapSerializedMessage(serializedMessageHandle, null);
+    }
+    // The previous callback may have moved or reordered the reused buffer
+    buffer.clear();
+    buffer.limit(length);
+    buffer.order(ByteOrder.BIG_ENDIAN);
+    return buffer;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final synchronized void releaseSerializedMessage(final long serializedMessageHandle) {
+    if (serializedMessageHandle == this.serializedMessageHandle) {
+      this.serializedMessageInUse = false;
+    } else {
+      nativeDestroySerializedMessage(serializedMessageHandle);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * A serialized message that is still in use is destroyed once it is released instead.
+   */
+  @Override
+  protected synchronized void destroyNativeMessages() {
+    super.destroyNativeMessages();
+    if (this.serializedMessageHandle != 0) {
+      if (!this.serializedMessageInUse) {
+        nativeDestroySerializedMessage(this.serializedMessageHandle);
+      }
+      this.serializedMessageHandle = 0;
+      this.serializedMessageBuffer = null;
+      this.serializedMessageInUse = false;
+    }
+  }
+
+  /**
+   * Serialized subscriptions don't receive message objects.
+   *
+   * @throws UnsupportedOperationException Always.
+   */
+  @Override
+  public final void executeCallback(final MessageDefinition message) {
+    throw new UnsupportedOperationException("Serialized subscriptions only receive ByteBuffers");
+  }
+
+  /**
+   * Serialized subscriptions don't receive message objects.
+   *
+   * @throws UnsupportedOperationException Always.
+   */
+  @Override
+  public final void executeCallback(final List<MessageDefinition> messages) {
+    throw new UnsupportedOperationException("Serialized subscriptions only receive ByteBuffers");
+  }
+}
@@ -17,11 +17,15 @@ package org.ros2.rcljava.subscription;
 
 import java.lang.ref.WeakReference;
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Supplier;
 
+import org.ros2.rcljava.MessagePool;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.consumers.Consumer;
 import org.ros2.rcljava.events.EventHandler;
 import org.ros2.rcljava.events.SubscriptionEventStatus;
+import org.ros2.rcljava.executors.Schedulable;
 import org.ros2.rcljava.interfaces.Disposable;
 import org.ros2.rcljava.interfaces.MessageDefinition;
 import org.ros2.rcljava.node.Node;
@@ -33,12 +37,37 @@ import org.ros2.rcljava.node.Node;
  *
  * @param <T> The type of the messages that this subscription will receive.
  */
-public interface Subscription<T extends MessageDefinition> extends Disposable {
+public interface Subscription<T extends MessageDefinition> extends Disposable, Schedulable {
   /**
    * @return The type of the messages that this subscription may receive.
    */
   Class<T> getMessageType();
 
+  /**
+   * @return The handle of the native function that converts a message of the type of this
+   *   subscription from Java, resolved once when the subscription is created.
+   */
+  long getFromJavaConverterHandle();
+
+  /**
+   * @return The handle of the native function that converts a message of the type of this
+   *   subscription to Java, resolved once when the subscription is created.
+   */
+  long getToJavaConverterHandle();
+
+  /**
+   * @return The handle of the native function that destroys a message of the type of this
+   *   subscription, resolved once when the subscription is created.
+   */
+  long getDestructorHandle();
+
+  /**
+   * @return The handle of the native message that messages of this subscription are taken
+   *   into, which is created the first time it is needed and destroyed when the subscription
+   *   is disposed.
+   */
+  long getNativeMessageHandle();
+
   /**
    * @return A @{link java.lang.ref.WeakReference} to the
    * @{link org.ros2.rcljava.Node}that created this subscription.
@@ -47,6 +76,90 @@ public interface Subscription<T extends MessageDefinition> extends Disposable {
 
   void executeCallback(T message);
 
+  /**
+   * Execute the callback with messages that were taken together.
+   *
+   * Subscriptions created with a batch callback receive the messages at once, the others
+   * receive them one by one.
+   *
+   * @param messages The taken messages, in the order they were received.
+   */
+  void executeCallback(List<T> messages);
+
+  /**
+   * @return The maximum number of messages taken from the middleware every time this
+   *   subscription is ready.
+   */
+  int getMaxBatchSize();
+
+  /**
+   * Set the maximum number of messages taken from the middleware every time this subscription
+   * is ready.
+   *
+   * Taking several messages at once drains a queue that filled up during a burst without
+   * waiting again for every message. The default is 1.
+   *
+   * @param maxBatchSize The maximum number of messages, at least 1.
+   */
+  void setMaxBatchSize(int maxBatchSize);
+
+  /**
+   * @return The message instance every message is taken into, or null if a new message is
+   *   created for every take.
+   */
+  T getReusableMessage();
+
+  /**
+   * Take every message into the same instance, instead of creating a new message for each.
+   *
+   * The message is filled in place, reusing its primitive arrays and nested messages when
+   * their size didn't change, so receiving does not allocate much more than the strings.
+   * The callback must not keep a reference to the message, and must not run concurrently with
+   * itself, i.e. the subscription must not belong to a reentrant callback group of a
+   * multi-threaded executor.
+   * Batches of messages, see @{link #setMaxBatchSize(int)}, never use this message, but can
+   * be taken into pooled messages, see @{link #setMessagePool(MessagePool)}.
+   *
+   * @param reuseMessage true to take into a single message, false to create a new message
+   *   for every take, which is the default.
+   */
+  void setReuseMessage(boolean reuseMessage);
+
+  /**
+   * @return The pool messages are taken into, or null if new messages are created.
+   */
+  MessagePool<T> getMessagePool();
+
+  /**
+   * Take messages into messages acquired from a pool, and release them to the pool once the
+   * callback returned.
+   *
+   * Unlike @{link #setReuseMessage(boolean)}, this also works for batches of messages and
+   * callbacks that run concurrently, and the pool can be shared with the publishers that
+   * messages are forwarded to.
+   * The callback must not keep a reference to the messages after it returns, it can copy them
+   * with their deepClone() method instead.
+   * The message set with @{link #setReuseMessage(boolean)} takes precedence for single takes.
+   *
+   * @param messagePool The pool to acquire messages from, or null to create new messages,
+   *   which is the default.
+   */
+  void setMessagePool(MessagePool<T> messagePool);
+
+  /**
+   * @return true if the middleware loans the memory messages are taken from, in which case
+   *   executors convert messages straight from that memory instead of copying them into a
+   *   native message first.
+   *   This is typically the case for messages of fixed size with a shared memory transport.
+   */
+  boolean canLoanMessages();
+
+  /**
+   * @return The @{link CallbackGroup} this subscription belongs to, or null if it uses the default
+   *   callback group of its @{link Node}.
+   */
+  CallbackGroup getCallbackGroup();
+
   /**
    * Create an event handler.
    *
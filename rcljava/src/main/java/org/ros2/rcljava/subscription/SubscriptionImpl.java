@@ -16,17 +16,24 @@
 package org.ros2.rcljava.subscription;
 
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Supplier;
 
+import org.ros2.rcljava.MessagePool;
 import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.common.JNIUtils;
 import org.ros2.rcljava.consumers.BiConsumer;
 import org.ros2.rcljava.consumers.Consumer;
 import org.ros2.rcljava.events.EventHandler;
 import org.ros2.rcljava.events.EventHandlerImpl;
 import org.ros2.rcljava.events.SubscriptionEventStatus;
+import org.ros2.rcljava.executors.SchedulingParameters;
+import org.ros2.rcljava.executors.SchedulingParametersHolder;
 import org.ros2.rcljava.interfaces.MessageDefinition;
 import org.ros2.rcljava.node.Node;
 
@@ -64,6 +71,12 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
    */
   private final Class<T> messageType;
 
+  // Handles of the native functions of the message type, so that they are not looked up
+  // again on every take.
+  private final long fromJavaConverterHandle;
+  private final long toJavaConverterHandle;
+  private final long destructorHandle;
+
   /**
    * The topic to which this subscription is subscribed.
    */
@@ -71,12 +84,48 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
 
   /**
    * The callback function that will be triggered when a new message is
-   * received.
+   * received, or null if batchCallback is used.
    */
   private final Consumer<T> callback;
 
+  /**
+   * The callback function that will be triggered with the messages taken together,
+   * or null if callback is used.
+   */
+  private final Consumer<List<T>> batchCallback;
+
+  /**
+   * The maximum number of messages taken every time this subscription is ready.
+   */
+  private volatile int maxBatchSize;
+
+  /**
+   * The message every message is taken into, or null to take into new messages.
+   */
+  private volatile T reusableMessage;
+
+  /**
+   * The pool messages are taken into, or null to take into new messages.
+   */
+  private volatile MessagePool<T> messagePool;
+
+  /**
+   * The callback group this subscription belongs to, or null for the default group of the node.
+   */
+  private final CallbackGroup callbackGroup;
+
+  /**
+   * The parameters the executor orders this entity by among the ready ones.
+   */
+  private final SchedulingParametersHolder schedulingParameters;
+
   private final Collection<EventHandler> eventHandlers;
 
+  /**
+   * The native message that messages are taken into, or 0 if it wasn't created yet.
+   */
+  private long nativeMessageHandle;
+
   /**
    * Constructor.
    *
@@ -94,12 +143,228 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
    */
   public SubscriptionImpl(final WeakReference<Node> nodeReference, final long handle,
       final Class<T> messageType, final String topic, final Consumer<T> callback) {
+    this(nodeReference, handle, messageType, topic, callback, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param nodeReference A {@link java.lang.ref.WeakReference} to the
+   *     @{link org.ros2.rcljava.Node} that created this subscription.
+   * @param handle A pointer to the underlying ROS2 subscription
+   *     structure, as an integer. Must not be zero.
+   * @param messageType The <code>Class</code> of the messages that this
+   *     subscription will receive. We need this because of Java's type erasure,
+   *     which doesn't allow us to use the generic parameter of
+   *     @{link org.ros2.rcljava.Subscription} directly.
+   * @param topic The topic to which this subscription will be subscribed.
+   * @param callback The callback function that will be triggered when a new
+   *     message is received.
+   * @param callbackGroup The @{link CallbackGroup} this subscription belongs to,
+   *     or null to use the default callback group of the node.
+   */
+  public SubscriptionImpl(final WeakReference<Node> nodeReference, final long handle,
+      final Class<T> messageType, final String topic, final Consumer<T> callback,
+      final CallbackGroup callbackGroup) {
     this.nodeReference = nodeReference;
+    this.schedulingParameters = new SchedulingParametersHolder(nodeReference);
     this.handle = handle;
     this.messageType = messageType;
+    T message = newMessageInstance(messageType);
+    this.fromJavaConverterHandle = message.getFromJavaConverterInstance();
+    this.toJavaConverterHandle = message.getToJavaConverterInstance();
+    this.destructorHandle = message.getDestructorInstance();
     this.topic = topic;
     this.callback = callback;
+    this.batchCallback = null;
+    this.maxBatchSize = 1;
+    this.callbackGroup = callbackGroup;
+    this.eventHandlers = new LinkedBlockingQueue<EventHandler>();
+  }
+
+  /**
+   * Constructor for a subscription that receives messages in batches.
+   *
+   * @param nodeReference A {@link java.lang.ref.WeakReference} to the
+   *     @{link org.ros2.rcljava.Node} that created this subscription.
+   * @param handle A pointer to the underlying ROS2 subscription
+   *     structure, as an integer. Must not be zero.
+   * @param messageType The <code>Class</code> of the messages that this
+   *     subscription will receive.
+   * @param topic The topic to which this subscription will be subscribed.
+   * @param batchCallback The callback function that will be triggered with the
+   *     messages taken together.
+   * @param maxBatchSize The maximum number of messages taken together, at least 1.
+   * @param callbackGroup The @{link CallbackGroup} this subscription belongs to,
+   *     or null to use the default callback group of the node.
+   */
+  public SubscriptionImpl(final WeakReference<Node> nodeReference, final long handle,
+      final Class<T> messageType, final String topic, final Consumer<List<T>> batchCallback,
+      final int maxBatchSize, final CallbackGroup callbackGroup) {
+    this.nodeReference = nodeReference;
+    this.schedulingParameters = new SchedulingParametersHolder(nodeReference);
+    this.handle = handle;
+    this.messageType = messageType;
+    T message = newMessageInstance(messageType);
+    this.fromJavaConverterHandle = message.getFromJavaConverterInstance();
+    this.toJavaConverterHandle = message.getToJavaConverterInstance();
+    this.destructorHandle = message.getDestructorInstance();
+    this.topic = topic;
+    this.callback = null;
+    this.batchCallback = batchCallback;
+    this.callbackGroup = callbackGroup;
     this.eventHandlers = new LinkedBlockingQueue<EventHandler>();
+    this.setMaxBatchSize(maxBatchSize);
+  }
+
+  private static <T extends MessageDefinition> T newMessageInstance(final Class<T> messageType) {
+    try {
+      return messageType.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Failed to instantiate message type: ", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final long getFromJavaConverterHandle() {
+    return this.fromJavaConverterHandle;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final long getToJavaConverterHandle() {
+    return this.toJavaConverterHandle;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final long getDestructorHandle() {
+    return this.destructorHandle;
+  }
+
+  private static native long nativeCreateMessage(
+      long fromJavaConverterHandle, MessageDefinition message);
+
+  private static native void nativeDestroyMessage(long destructorHandle, long messageHandle);
+
+  /**
+   * Create the native serialized message of a @{link SerializedSubscriptionImpl}, whose
+   * natives are part of the library of this class.
+   *
+   * @return A pointer to a new, empty native serialized message.
+   */
+  static native long nativeCreateSerializedMessage();
+
+  /**
+   * Destroy a native serialized message and its buffer.
+   */
+  static native void nativeDestroySerializedMessage(long serializedMessageHandle);
+
+  /**
+   * @param serializedMessageHandle A pointer to a native serialized message holding a message.
+   * @param buffer A direct buffer that previously wrapped the serialized message, or null.
+   * @return The passed buffer if it still wraps the whole buffer of the serialized message,
+   *   otherwise a new direct buffer that does.
+   */
+  static native ByteBuffer nativeWrapSerializedMessage(
+      long serializedMessageHandle, ByteBuffer buffer);
+
+  /**
+   * {@inheritDoc}
+   */
+  public final synchronized long getNativeMessageHandle() {
+    if (this.nativeMessageHandle == 0) {
+      this.nativeMessageHandle = nativeCreateMessage(
+        this.fromJavaConverterHandle, newMessageInstance(this.messageType));
+    }
+    return this.nativeMessageHandle;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final int getMaxBatchSize() {
+    return this.maxBatchSize;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void setMaxBatchSize(final int maxBatchSize) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("The maximum batch size must be at least 1");
+    }
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final T getReusableMessage() {
+    return this.reusableMessage;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void setReuseMessage(final boolean reuseMessage) {
+    if (!reuseMessage) {
+      this.reusableMessage = null;
+    } else if (this.reusableMessage == null) {
+      this.reusableMessage = newMessageInstance(this.messageType);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final MessagePool<T> getMessagePool() {
+    return this.messagePool;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void setMessagePool(final MessagePool<T> messagePool) {
+    if (messagePool != null && messagePool.getMessageType() != this.messageType) {
+      throw new IllegalArgumentException(
+        "The message pool must hold messages of type " + this.messageType.getName());
+    }
+    this.messagePool = messagePool;
+  }
+
+  private static native boolean nativeCanLoanMessages(long handle);
+
+  /**
+   * {@inheritDoc}
+   */
+  public final boolean canLoanMessages() {
+    return nativeCanLoanMessages(this.handle);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final CallbackGroup getCallbackGroup() {
+    return this.callbackGroup;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final SchedulingParameters getSchedulingParameters() {
+    return this.schedulingParameters.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  public final void setSchedulingParameters(final SchedulingParameters schedulingParameters) {
+    this.schedulingParameters.set(schedulingParameters);
   }
 
   /**
@@ -131,11 +396,15 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
   createEventHandler(Supplier<T> factory, Consumer<T> callback) {
     final WeakReference<Collection<EventHandler>> weakEventHandlers =
       new WeakReference<Collection<EventHandler>>(this.eventHandlers);
+    final WeakReference<Node> nodeReference = this.nodeReference;
     Consumer<EventHandler> disposeCallback = new Consumer<EventHandler>() {
       public void accept(EventHandler eventHandler) {
         Collection<EventHandler> eventHandlers = weakEventHandlers.get();
-        if (eventHandlers != null) {
-          eventHandlers.remove(eventHandler);
+        if (eventHandlers != null && eventHandlers.remove(eventHandler)) {
+          Node node = nodeReference.get();
+          if (node != null) {
+            node.notifyEntitiesChanged();
+          }
         }
       }
     };
@@ -145,6 +414,10 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
       new EventHandlerImpl<T, Subscription>(
         new WeakReference<Subscription>(this), eventHandle, factory, callback, disposeCallback);
     this.eventHandlers.add(eventHandler);
+    Node node = this.nodeReference.get();
+    if (node != null) {
+      node.notifyEntitiesChanged();
+    }
     return eventHandler;
   }
 
@@ -160,6 +433,10 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
         "The passed eventHandler wasn't created by this subscription");
     }
     eventHandler.dispose();
+    Node node = this.nodeReference.get();
+    if (node != null) {
+      node.notifyEntitiesChanged();
+    }
   }
 
   /**
@@ -208,9 +485,35 @@ public class SubscriptionImpl<T extends MessageDefinition> implements Subscripti
     node.removeSubscription(this);
     nativeDispose(node.getHandle(), this.handle);
     this.handle = 0;
+    this.destroyNativeMessages();
+  }
+
+  /**
+   * Destroy the native messages that messages were taken into, once the subscription was
+   * disposed.
+   */
+  protected synchronized void destroyNativeMessages() {
+    if (this.nativeMessageHandle != 0) {
+      nativeDestroyMessage(this.destructorHandle, this.nativeMessageHandle);
+      this.nativeMessageHandle = 0;
+    }
   }
 
   public void executeCallback(T message) {
-    this.callback.accept(message);
+    if (this.batchCallback != null) {
+      this.batchCallback.accept(Collections.singletonList(message));
+    } else {
+      this.callback.accept(message);
+    }
+  }
+
+  public void executeCallback(List<T> messages) {
+    if (this.batchCallback != null) {
+      this.batchCallback.accept(messages);
+    } else {
+      for (T message : messages) {
+        this.callback.accept(message);
+      }
+    }
   }
 }
@@ -15,9 +15,11 @@
 
 package org.ros2.rcljava.timer;
 
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.executors.Schedulable;
 import org.ros2.rcljava.interfaces.Disposable;
 
-public interface Timer extends Disposable {
+public interface Timer extends Disposable, Schedulable {
   void callTimer();
 
   void executeCallback();
@@ -37,4 +39,10 @@ public interface Timer extends Disposable {
   long timeSinceLastCall();
 
   long timeUntilNextCall();
+
+  /**
+   * @return The @{link CallbackGroup} this timer belongs to, or null if it uses the default
+   *   callback group of its @{link org.ros2.rcljava.node.Node}.
+   */
+  CallbackGroup getCallbackGroup();
 }
@@ -20,8 +20,11 @@ import java.lang.ref.WeakReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.common.JNIUtils;
 import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.executors.SchedulingParameters;
+import org.ros2.rcljava.executors.SchedulingParametersHolder;
 import org.ros2.rcljava.node.Node;
 
 public class TimerImpl implements Timer {
@@ -44,6 +47,10 @@ public class TimerImpl implements Timer {
 
   private final Callback callback;
 
+  private final CallbackGroup callbackGroup;
+
+  private final SchedulingParametersHolder schedulingParameters;
+
   private static native boolean nativeIsReady(long handle);
 
   private static native boolean nativeIsCanceled(long handle);
@@ -64,10 +71,29 @@ public class TimerImpl implements Timer {
 
   public TimerImpl(final WeakReference<Node> nodeReference, final long handle,
       final Callback callback, final long timerPeriodNS) {
+    this(nodeReference, handle, callback, timerPeriodNS, null);
+  }
+
+  public TimerImpl(final WeakReference<Node> nodeReference, final long handle,
+      final Callback callback, final long timerPeriodNS, final CallbackGroup callbackGroup) {
     this.nodeReference = nodeReference;
+    this.schedulingParameters = new SchedulingParametersHolder(nodeReference);
     this.handle = handle;
     this.callback = callback;
     this.timerPeriodNS = timerPeriodNS;
+    this.callbackGroup = callbackGroup;
+  }
+
+  public CallbackGroup getCallbackGroup() {
+    return this.callbackGroup;
+  }
+
+  public SchedulingParameters getSchedulingParameters() {
+    return this.schedulingParameters.get();
+  }
+
+  public void setSchedulingParameters(final SchedulingParameters schedulingParameters) {
+    this.schedulingParameters.set(schedulingParameters);
   }
 
   public long timeSinceLastCall() {
@@ -117,6 +143,7 @@ public class TimerImpl implements Timer {
       logger.error("Node reference is null. Failed to dispose of Timer.");
       return;
     }
+    node.removeTimer(this);
     nativeDispose(this.handle);
     this.handle = 0;
   }
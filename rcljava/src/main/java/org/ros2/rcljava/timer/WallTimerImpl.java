@@ -17,6 +17,7 @@ package org.ros2.rcljava.timer;
 
 import java.lang.ref.WeakReference;
 
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
 import org.ros2.rcljava.concurrent.Callback;
 import org.ros2.rcljava.node.Node;
 import org.ros2.rcljava.timer.TimerImpl;
@@ -32,4 +33,9 @@ public class WallTimerImpl extends TimerImpl implements WallTimer {
       final Callback callback, final long timerPeriodNS) {
     super(nodeReference, handle, callback, timerPeriodNS);
   }
+
+  public WallTimerImpl(final WeakReference<Node> nodeReference, final long handle,
+      final Callback callback, final long timerPeriodNS, final CallbackGroup callbackGroup) {
+    super(nodeReference, handle, callback, timerPeriodNS, callbackGroup);
+  }
 }
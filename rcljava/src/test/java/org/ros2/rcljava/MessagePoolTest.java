@@ -0,0 +1,97 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MessagePoolTest {
+  @BeforeClass
+  public static void setupOnce() throws Exception {
+    // Just to quiet down warnings
+    org.apache.log4j.BasicConfigurator.configure();
+  }
+
+  @Test
+  public final void testAcquireRelease() {
+    MessagePool<rcljava.msg.UInt32> pool =
+        new MessagePool<rcljava.msg.UInt32>(rcljava.msg.UInt32.class);
+    assertEquals(rcljava.msg.UInt32.class, pool.getMessageType());
+    assertEquals(MessagePool.DEFAULT_MAX_FREE_MESSAGES, pool.getMaxFreeMessages());
+    assertEquals(0, pool.getFreeMessageCount());
+
+    rcljava.msg.UInt32 message = pool.acquire();
+    assertNotNull(message);
+    message.setData(42);
+    assertTrue(pool.release(message));
+    assertEquals(1, pool.getFreeMessageCount());
+
+    // Released messages are reused as they are
+    rcljava.msg.UInt32 reused = pool.acquire();
+    assertTrue(message == reused);
+    assertEquals(42, reused.getData());
+    assertEquals(0, pool.getFreeMessageCount());
+  }
+
+  @Test
+  public final void testBoundedFreeLists() {
+    MessagePool<rcljava.msg.UInt32> pool =
+        new MessagePool<rcljava.msg.UInt32>(rcljava.msg.UInt32.class, 2);
+    pool.acquire();
+
+    // Two messages for this thread, two in the shared free list, the rest is dropped
+    assertTrue(pool.release(new rcljava.msg.UInt32()));
+    assertTrue(pool.release(new rcljava.msg.UInt32()));
+    assertTrue(pool.release(new rcljava.msg.UInt32()));
+    assertTrue(pool.release(new rcljava.msg.UInt32()));
+    assertFalse(pool.release(new rcljava.msg.UInt32()));
+    assertEquals(4, pool.getFreeMessageCount());
+  }
+
+  @Test
+  public final void testReleaseFromOtherThread() throws Exception {
+    final MessagePool<rcljava.msg.UInt32> pool =
+        new MessagePool<rcljava.msg.UInt32>(rcljava.msg.UInt32.class);
+    final rcljava.msg.UInt32 message = pool.acquire();
+
+    Thread thread = new Thread(new Runnable() {
+      public void run() {
+        pool.release(message);
+      }
+    });
+    thread.start();
+    thread.join();
+
+    // The other thread never acquired, so the message went to the shared free list
+    assertEquals(1, pool.getFreeMessageCount());
+    assertTrue(message == pool.acquire());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public final void testInvalidMaxFreeMessages() {
+    new MessagePool<rcljava.msg.UInt32>(rcljava.msg.UInt32.class, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public final void testReleaseNull() {
+    new MessagePool<rcljava.msg.UInt32>(rcljava.msg.UInt32.class).release(null);
+  }
+}
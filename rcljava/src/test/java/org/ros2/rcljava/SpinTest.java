@@ -17,6 +17,7 @@ package org.ros2.rcljava;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.lang.System;
 import java.util.concurrent.TimeUnit;
@@ -27,11 +28,13 @@ import org.junit.Test;
 
 import org.ros2.rcljava.RCLJava;
 import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.concurrent.RCLFuture;
 import org.ros2.rcljava.consumers.Consumer;
 import org.ros2.rcljava.events.EventHandler;
 import org.ros2.rcljava.publisher.statuses.OfferedQosIncompatible;
 import org.ros2.rcljava.executors.Executor;
 import org.ros2.rcljava.executors.SingleThreadedExecutor;
+import org.ros2.rcljava.executors.StaticSingleThreadedExecutor;
 import org.ros2.rcljava.node.ComposableNode;
 import org.ros2.rcljava.node.Node;
 import org.ros2.rcljava.timer.Timer;
@@ -100,6 +103,67 @@ public class SpinTest {
     assertEquals(1, timerCallback.getCounter());
   }
 
+  @Test
+  public final void testStaticSpinOnce() {
+    Executor executor = new StaticSingleThreadedExecutor();
+    final Node node = RCLJava.createNode("static_spin_once_node");
+    TimerCallback timerCallback = new TimerCallback(0);
+    Timer timer = node.createWallTimer(100, TimeUnit.MILLISECONDS, timerCallback);
+    assertNotEquals(0, timer.getHandle());
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    executor.addNode(composableNode);
+
+    executor.spinOnce();
+    assertEquals(1, timerCallback.getCounter());
+    executor.spinOnce();
+    assertEquals(2, timerCallback.getCounter());
+  }
+
+  @Test
+  public final void testStaticSpinOnceAfterSubscriptionDisposed() {
+    Executor executor = new StaticSingleThreadedExecutor();
+    final Node node = RCLJava.createNode("static_spin_once_after_subscription_disposed_node");
+    TimerCallback timerCallback = new TimerCallback(0);
+    Timer timer = node.createWallTimer(100, TimeUnit.MILLISECONDS, timerCallback);
+    assertNotEquals(0, timer.getHandle());
+    Publisher<rcljava.msg.UInt32> publisher = node.<rcljava.msg.UInt32>createPublisher(
+        rcljava.msg.UInt32.class, "static_spin_once_after_subscription_disposed_topic");
+    final int[] received = new int[1];
+    Subscription<rcljava.msg.UInt32> subscription =
+        node.<rcljava.msg.UInt32>createSubscription(rcljava.msg.UInt32.class,
+            "static_spin_once_after_subscription_disposed_topic",
+            new Consumer<rcljava.msg.UInt32>() {
+              public void accept(final rcljava.msg.UInt32 msg) {
+                received[0]++;
+              }
+            });
+
+    executor.addNode(new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    });
+
+    executor.spinOnce();
+    assertEquals(1, timerCallback.getCounter());
+
+    // The static executor doesn't collect new entities, but it must stop waiting on the
+    // handle of a disposed one, which was freed.
+    subscription.dispose();
+    publisher.publish(new rcljava.msg.UInt32());
+
+    executor.spinOnce();
+    executor.spinOnce();
+    assertEquals(3, timerCallback.getCounter());
+    assertEquals(0, received[0]);
+  }
+
   @Test
   public final void testSpinOnceTimeout() {
     Executor executor = new SingleThreadedExecutor();
@@ -345,6 +409,68 @@ public class SpinTest {
     assertEquals(1, timerCallback.getCounter());
   }
 
+  @Test
+  public final void testSpinOnceAfterEntitiesChanged() {
+    Executor executor = new SingleThreadedExecutor();
+    final Node node = RCLJava.createNode("spin_once_after_entities_changed_node");
+    TimerCallback timerCallback = new TimerCallback(0);
+    Timer timer = node.createWallTimer(100, TimeUnit.MILLISECONDS, timerCallback);
+    assertNotEquals(0, timer.getHandle());
+
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+
+    executor.addNode(composableNode);
+
+    executor.spinOnce();
+    assertEquals(1, timerCallback.getCounter());
+
+    // The executor reuses its wait set across spins, so it must notice that the
+    // first timer was removed and a new one was created.
+    timer.dispose();
+    TimerCallback timerCallback2 = new TimerCallback(0);
+    Timer timer2 = node.createWallTimer(100, TimeUnit.MILLISECONDS, timerCallback2);
+    assertNotEquals(0, timer2.getHandle());
+
+    executor.spinOnce();
+    assertEquals(1, timerCallback.getCounter());
+    assertEquals(1, timerCallback2.getCounter());
+  }
+
+  @Test
+  public final void testSpinOnceAfterNodeDisposed() {
+    Executor executor = new SingleThreadedExecutor();
+    final Node emptyNode = RCLJava.createNode("spin_once_after_node_disposed_empty_node");
+    final Node node = RCLJava.createNode("spin_once_after_node_disposed_node");
+    TimerCallback timerCallback = new TimerCallback(0);
+    Timer timer = node.createWallTimer(100, TimeUnit.MILLISECONDS, timerCallback);
+    assertNotEquals(0, timer.getHandle());
+
+    executor.addNode(new ComposableNode() {
+      public Node getNode() {
+        return emptyNode;
+      }
+    });
+    executor.addNode(new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    });
+
+    executor.spinOnce();
+    assertEquals(1, timerCallback.getCounter());
+
+    // The node has no entities, so only disposing it tells the executor that the handle of its
+    // notify guard condition can't be waited on anymore.
+    emptyNode.dispose();
+
+    executor.spinOnce();
+    assertEquals(2, timerCallback.getCounter());
+  }
+
   // custom event consumer
   public static class OfferedQosIncompatibleConsumer implements Consumer<OfferedQosIncompatible> {
     public boolean done = false;
@@ -459,4 +585,35 @@ public class SpinTest {
     } while (!eventConsumer.done && System.currentTimeMillis() < start + 1000);
     assert(eventConsumer.done);
   }
+
+  @Test
+  public final void testSpinUntilCompleteFutureSetFromOtherThread() throws Exception {
+    Executor executor = new SingleThreadedExecutor();
+    final Node node = RCLJava.createNode("spin_until_complete_other_thread");
+    ComposableNode composableNode = new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+    executor.addNode(composableNode);
+
+    final RCLFuture<Boolean> future = new RCLFuture<Boolean>();
+    Thread thread = new Thread(new Runnable() {
+      public void run() {
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException ex) {
+          // Complete the future right away
+        }
+        future.set(true);
+      }
+    });
+    thread.start();
+
+    // No entity becomes ready, only completing the future can stop waiting.
+    executor.spinUntilComplete(future);
+    thread.join();
+    assertTrue(future.isDone());
+    assertTrue(future.get());
+  }
 }
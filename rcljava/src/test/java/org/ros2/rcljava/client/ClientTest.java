@@ -18,6 +18,7 @@ package org.ros2.rcljava.client;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.After;
@@ -35,6 +36,7 @@ import java.util.List;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import org.ros2.rcljava.MessagePool;
 import org.ros2.rcljava.RCLJava;
 import org.ros2.rcljava.concurrent.RCLFuture;
 import org.ros2.rcljava.consumers.Consumer;
@@ -190,4 +192,63 @@ public class ClientTest {
     assertEquals(1, client.prunePendingRequestsOlderThan(System.nanoTime()));
     assertEquals(0, client.prunePendingRequestsOlderThan(System.nanoTime()));
   }
+
+  @Test
+  public final void testResponsePool() throws Exception {
+    RCLFuture<rcljava.srv.AddTwoInts_Response> consumerFuture =
+        new RCLFuture<rcljava.srv.AddTwoInts_Response>();
+
+    TestClientConsumer clientConsumer = new TestClientConsumer(consumerFuture);
+
+    Service<rcljava.srv.AddTwoInts> service = node.<rcljava.srv.AddTwoInts>createService(
+        rcljava.srv.AddTwoInts.class, "add_two_ints", clientConsumer);
+
+    rcljava.srv.AddTwoInts_Request request = new rcljava.srv.AddTwoInts_Request();
+    request.setA(2);
+    request.setB(3);
+
+    Client<rcljava.srv.AddTwoInts> client =
+        node.<rcljava.srv.AddTwoInts>createClient(rcljava.srv.AddTwoInts.class, "add_two_ints");
+    MessagePool<rcljava.srv.AddTwoInts_Response> responsePool =
+        new MessagePool<rcljava.srv.AddTwoInts_Response>(rcljava.srv.AddTwoInts_Response.class);
+    client.setResponsePool(responsePool);
+    assertSame(responsePool, client.getResponsePool());
+
+    assertTrue(client.waitForService(Duration.ofSeconds(10)));
+
+    // The response must be read in the callback, as it is released to the pool afterwards
+    final long[] sum = new long[1];
+    final RCLFuture<rcljava.srv.AddTwoInts_Response> callbackFuture =
+        new RCLFuture<rcljava.srv.AddTwoInts_Response>();
+    client.asyncSendRequest(
+        request,
+        new Consumer<Future<rcljava.srv.AddTwoInts_Response>>() {
+            public final void accept(final Future<rcljava.srv.AddTwoInts_Response> futureResponse) {
+              try {
+                rcljava.srv.AddTwoInts_Response response = futureResponse.get();
+                sum[0] = response.getSum();
+                callbackFuture.set(response);
+              } catch (Exception e) {
+                throw new IllegalStateException(e);
+              }
+            }
+        });
+
+    RCLJava.spinUntilComplete(node, callbackFuture, TimeUnit.SECONDS.toNanos(10));
+    assertEquals(5, sum[0]);
+
+    // The response was taken and released in this thread, so it is acquired again
+    assertSame(callbackFuture.get(), responsePool.acquire());
+
+    client.dispose();
+    service.dispose();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public final void testResponsePoolOfOtherType() {
+    Client<rcljava.srv.AddTwoInts> client =
+        node.<rcljava.srv.AddTwoInts>createClient(rcljava.srv.AddTwoInts.class, "add_two_ints");
+    client.setResponsePool(
+        new MessagePool<rcljava.srv.AddTwoInts_Request>(rcljava.srv.AddTwoInts_Request.class));
+  }
 }
@@ -0,0 +1,181 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.consumers.Consumer;
+import org.ros2.rcljava.node.ComposableNode;
+import org.ros2.rcljava.node.Node;
+import org.ros2.rcljava.publisher.Publisher;
+import org.ros2.rcljava.subscription.Subscription;
+
+public class ExecutorAllocationTest {
+  private static final int WARMUP_ITERATIONS = 1000;
+  private static final int ITERATIONS = 1000;
+
+  public static class CountingCallback implements Callback {
+    private int counter;
+
+    public void call() {
+      this.counter++;
+    }
+
+    public int getCounter() {
+      return this.counter;
+    }
+  }
+
+  public static class CountingConsumer implements Consumer<rcljava.msg.UInt32> {
+    private int counter;
+
+    public void accept(final rcljava.msg.UInt32 msg) {
+      this.counter++;
+    }
+
+    public int getCounter() {
+      return this.counter;
+    }
+  }
+
+  @BeforeClass
+  public static void setupOnce() throws Exception {
+    // Just to quiet down warnings
+    org.apache.log4j.BasicConfigurator.configure();
+
+    RCLJava.rclJavaInit();
+  }
+
+  @AfterClass
+  public static void tearDownOnce() {
+    RCLJava.shutdown();
+  }
+
+  private static long getAllocatedBytes() {
+    com.sun.management.ThreadMXBean threadMXBean =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static void assertSpinOnceDoesNotAllocate(Executor executor, String nodeName) {
+    final Node node = RCLJava.createNode(nodeName);
+    CountingCallback callback = new CountingCallback();
+    node.createWallTimer(1, TimeUnit.MILLISECONDS, callback);
+    executor.addNode(new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    });
+
+    for (int i = 0; i < WARMUP_ITERATIONS; ++i) {
+      executor.spinOnce();
+    }
+
+    long allocatedBytesBefore = getAllocatedBytes();
+    for (int i = 0; i < ITERATIONS; ++i) {
+      executor.spinOnce();
+    }
+    long allocatedBytes = getAllocatedBytes() - allocatedBytesBefore;
+
+    assertEquals(WARMUP_ITERATIONS + ITERATIONS, callback.getCounter());
+    // Less than a byte per spin, so that no object is allocated on every spin.
+    assertTrue(
+      "spinOnce() allocated " + allocatedBytes + " bytes in " + ITERATIONS + " spins",
+      allocatedBytes < ITERATIONS);
+    node.dispose();
+  }
+
+  private static void assertSpinOnceTakesWithoutAllocating(Executor executor, String nodeName) {
+    final Node node = RCLJava.createNode(nodeName);
+    Publisher<rcljava.msg.UInt32> publisher = node.<rcljava.msg.UInt32>createPublisher(
+        rcljava.msg.UInt32.class, nodeName + "_topic");
+    publisher.setReuseNativeMessage(true);
+    CountingConsumer consumer = new CountingConsumer();
+    Subscription<rcljava.msg.UInt32> subscription =
+        node.<rcljava.msg.UInt32>createSubscription(
+            rcljava.msg.UInt32.class, nodeName + "_topic", consumer);
+    subscription.setReuseMessage(true);
+    executor.addNode(new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    });
+
+    rcljava.msg.UInt32 msg = new rcljava.msg.UInt32();
+    long timeoutNs = TimeUnit.NANOSECONDS.convert(5, TimeUnit.SECONDS);
+
+    // Wait for the subscription to be matched
+    while (RCLJava.ok() && consumer.getCounter() == 0) {
+      publisher.publish(msg);
+      executor.spinOnce(TimeUnit.NANOSECONDS.convert(10, TimeUnit.MILLISECONDS));
+    }
+
+    // Every spin takes one message, so messages left from matching are just taken later
+    for (int i = 0; i < WARMUP_ITERATIONS; ++i) {
+      publisher.publish(msg);
+      executor.spinOnce(timeoutNs);
+    }
+
+    int counterBefore = consumer.getCounter();
+    long allocatedBytesBefore = getAllocatedBytes();
+    for (int i = 0; i < ITERATIONS; ++i) {
+      publisher.publish(msg);
+      executor.spinOnce(timeoutNs);
+    }
+    long allocatedBytes = getAllocatedBytes() - allocatedBytesBefore;
+
+    assertEquals(ITERATIONS, consumer.getCounter() - counterBefore);
+    // Less than a byte per message, so that no object is allocated to publish or take one.
+    assertTrue(
+      "Publishing and taking allocated " + allocatedBytes + " bytes for " + ITERATIONS
+      + " messages", allocatedBytes < ITERATIONS);
+    node.dispose();
+  }
+
+  @Test
+  public final void testSingleThreadedExecutorSpinOnceDoesNotAllocate() {
+    assertSpinOnceDoesNotAllocate(
+      new SingleThreadedExecutor(), "single_threaded_executor_allocation_node");
+  }
+
+  @Test
+  public final void testStaticSingleThreadedExecutorSpinOnceDoesNotAllocate() {
+    assertSpinOnceDoesNotAllocate(
+      new StaticSingleThreadedExecutor(), "static_single_threaded_executor_allocation_node");
+  }
+
+  @Test
+  public final void testSingleThreadedExecutorTakeDoesNotAllocate() {
+    assertSpinOnceTakesWithoutAllocating(
+      new SingleThreadedExecutor(), "single_threaded_executor_take_allocation_node");
+  }
+
+  @Test
+  public final void testStaticSingleThreadedExecutorTakeDoesNotAllocate() {
+    assertSpinOnceTakesWithoutAllocating(
+      new StaticSingleThreadedExecutor(), "static_single_threaded_executor_take_allocation_node");
+  }
+}
@@ -0,0 +1,148 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.callbackgroups.MutuallyExclusiveCallbackGroup;
+import org.ros2.rcljava.callbackgroups.ReentrantCallbackGroup;
+import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.node.ComposableNode;
+import org.ros2.rcljava.node.Node;
+
+public class MultiThreadedExecutorTest {
+  /**
+   * Timer callback that records how many callbacks sharing the same counters run at once.
+   */
+  public static class ConcurrencyCallback implements Callback {
+    private final AtomicInteger running;
+    private final AtomicInteger maxRunning;
+    private final CountDownLatch calls;
+
+    ConcurrencyCallback(
+        AtomicInteger running, AtomicInteger maxRunning, CountDownLatch calls) {
+      this.running = running;
+      this.maxRunning = maxRunning;
+      this.calls = calls;
+    }
+
+    public void call() {
+      int current = this.running.incrementAndGet();
+      int max = this.maxRunning.get();
+      while (current > max && !this.maxRunning.compareAndSet(max, current)) {
+        max = this.maxRunning.get();
+      }
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException ex) {
+        // The assertions below will catch it if the callbacks didn't overlap
+      }
+      this.running.decrementAndGet();
+      this.calls.countDown();
+    }
+  }
+
+  @BeforeClass
+  public static void setupOnce() throws Exception {
+    // Just to quiet down warnings
+    org.apache.log4j.BasicConfigurator.configure();
+
+    RCLJava.rclJavaInit();
+  }
+
+  @AfterClass
+  public static void tearDownOnce() {
+    RCLJava.shutdown();
+  }
+
+  /**
+   * Spin timers that all fire twice with the passed executor, and return how many of their
+   * callbacks ran at once.
+   */
+  static int spinTimers(
+      final Executor executor, final int numberOfTimers, final String nodeName,
+      final CallbackGroup callbackGroup) throws Exception {
+    final Node node = RCLJava.createNode(nodeName);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch calls = new CountDownLatch(2 * numberOfTimers);
+    for (int i = 0; i < numberOfTimers; ++i) {
+      node.createWallTimer(
+          10, TimeUnit.MILLISECONDS,
+          new ConcurrencyCallback(running, maxRunning, calls), callbackGroup);
+    }
+
+    executor.addNode(new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    });
+    executor.spin();
+
+    assertTrue(calls.await(5, TimeUnit.SECONDS));
+    return maxRunning.get();
+  }
+
+  private static int spinTimers(final String nodeName, final CallbackGroup callbackGroup)
+      throws Exception {
+    return spinTimers(new MultiThreadedExecutor(4), 4, nodeName, callbackGroup);
+  }
+
+  @Test
+  public final void testReentrantCallbacksRunConcurrently() throws Exception {
+    int maxRunning = spinTimers("reentrant_callbacks_node", new ReentrantCallbackGroup());
+    assertTrue(maxRunning > 1);
+  }
+
+  @Test
+  public final void testMutuallyExclusiveCallbacksDoNotOverlap() throws Exception {
+    int maxRunning = spinTimers(
+        "mutually_exclusive_callbacks_node", new MutuallyExclusiveCallbackGroup());
+    assertEquals(1, maxRunning);
+  }
+
+  @Test
+  public final void testDefaultCallbackGroupIsMutuallyExclusive() throws Exception {
+    int maxRunning = spinTimers("default_callback_group_node", null);
+    assertEquals(1, maxRunning);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public final void testSpinOnceWhileSpinning() throws Exception {
+    final Node node = RCLJava.createNode("spin_once_while_spinning_node");
+    Executor executor = new MultiThreadedExecutor(1);
+    executor.addNode(new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    });
+    executor.spin();
+
+    // The dispatcher thread owns the wait set until RCLJava is shut down
+    executor.spinOnce(0);
+  }
+}
@@ -0,0 +1,202 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.consumers.Consumer;
+import org.ros2.rcljava.node.ComposableNode;
+import org.ros2.rcljava.node.Node;
+import org.ros2.rcljava.publisher.Publisher;
+import org.ros2.rcljava.subscription.Subscription;
+import org.ros2.rcljava.timer.Timer;
+
+public class SchedulingParametersTest {
+  public static class RecordingCallback implements Callback {
+    private final String name;
+    private final List<String> calls;
+
+    public RecordingCallback(final String name, final List<String> calls) {
+      this.name = name;
+      this.calls = calls;
+    }
+
+    public void call() {
+      this.calls.add(this.name);
+    }
+  }
+
+  public static class RecordingConsumer implements Consumer<rcljava.msg.UInt32> {
+    private final String name;
+    private final List<String> calls;
+
+    public RecordingConsumer(final String name, final List<String> calls) {
+      this.name = name;
+      this.calls = calls;
+    }
+
+    public void accept(final rcljava.msg.UInt32 msg) {
+      this.calls.add(this.name);
+    }
+  }
+
+  @BeforeClass
+  public static void setupOnce() throws Exception {
+    // Just to quiet down warnings
+    org.apache.log4j.BasicConfigurator.configure();
+
+    RCLJava.rclJavaInit();
+  }
+
+  @AfterClass
+  public static void tearDownOnce() {
+    RCLJava.shutdown();
+  }
+
+  private static ComposableNode toComposableNode(final Node node) {
+    return new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+  }
+
+  /**
+   * Spin once after both timers are ready, and return the name of the timer that ran.
+   */
+  private static String spinOnceWithTimers(
+      String nodeName, SchedulingParameters first, SchedulingParameters second)
+      throws Exception {
+    List<String> calls = new ArrayList<String>();
+    Node node = RCLJava.createNode(nodeName);
+    Timer firstTimer = node.createWallTimer(
+        1, TimeUnit.MILLISECONDS, new RecordingCallback("first", calls));
+    Timer secondTimer = node.createWallTimer(
+        1, TimeUnit.MILLISECONDS, new RecordingCallback("second", calls));
+    firstTimer.setSchedulingParameters(first);
+    secondTimer.setSchedulingParameters(second);
+
+    Executor executor = new SingleThreadedExecutor();
+    executor.addNode(toComposableNode(node));
+    Thread.sleep(10);
+    executor.spinOnce();
+    node.dispose();
+
+    assertEquals(1, calls.size());
+    return calls.get(0);
+  }
+
+  @Test
+  public final void testParameters() {
+    assertTrue(SchedulingParameters.DEFAULT.isDefault());
+    assertFalse(SchedulingParameters.withPriority(1).isDefault());
+
+    SchedulingParameters parameters =
+        SchedulingParameters.withRelativeDeadline(5, TimeUnit.MILLISECONDS);
+    assertEquals(SchedulingParameters.DEFAULT_PRIORITY, parameters.getPriority());
+    assertEquals(5000000, parameters.getRelativeDeadlineNs());
+    assertFalse(parameters.isDefault());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public final void testInvalidDeadline() {
+    new SchedulingParameters(0, 0);
+  }
+
+  @Test
+  public final void testDefaultOrder() throws Exception {
+    assertEquals("first", spinOnceWithTimers(
+        "scheduling_default_order_node", SchedulingParameters.DEFAULT,
+        SchedulingParameters.DEFAULT));
+  }
+
+  @Test
+  public final void testHigherPriorityRunsFirst() throws Exception {
+    assertEquals("second", spinOnceWithTimers(
+        "scheduling_priority_node", SchedulingParameters.withPriority(1),
+        SchedulingParameters.withPriority(10)));
+  }
+
+  @Test
+  public final void testEarliestDeadlineRunsFirst() throws Exception {
+    assertEquals("second", spinOnceWithTimers(
+        "scheduling_deadline_node",
+        SchedulingParameters.withRelativeDeadline(100, TimeUnit.MILLISECONDS),
+        SchedulingParameters.withRelativeDeadline(10, TimeUnit.MILLISECONDS)));
+  }
+
+  private static Publisher<rcljava.msg.UInt32> createRecordingPubSub(
+      Node node, String name, List<String> calls, SchedulingParameters schedulingParameters) {
+    String topic = "scheduling_ready_time_" + name;
+    Subscription<rcljava.msg.UInt32> subscription = node.<rcljava.msg.UInt32>createSubscription(
+        rcljava.msg.UInt32.class, topic, new RecordingConsumer(name, calls));
+    subscription.setSchedulingParameters(schedulingParameters);
+    return node.<rcljava.msg.UInt32>createPublisher(rcljava.msg.UInt32.class, topic);
+  }
+
+  @Test
+  public final void testDeadlineCountsFromReadyTime() throws Exception {
+    List<String> calls = new ArrayList<String>();
+    Node node = RCLJava.createNode("scheduling_ready_time_node");
+    Publisher<rcljava.msg.UInt32> urgentPublisher = createRecordingPubSub(
+        node, "urgent", calls, SchedulingParameters.withPriority(1));
+    Publisher<rcljava.msg.UInt32> earlyPublisher = createRecordingPubSub(
+        node, "early", calls, SchedulingParameters.withRelativeDeadline(50, TimeUnit.MILLISECONDS));
+    Publisher<rcljava.msg.UInt32> latePublisher = createRecordingPubSub(
+        node, "late", calls, SchedulingParameters.withRelativeDeadline(10, TimeUnit.MILLISECONDS));
+
+    Executor executor = new SingleThreadedExecutor();
+    executor.addNode(toComposableNode(node));
+
+    // The message of "early" is found ready together with the urgent one, but has to wait
+    urgentPublisher.publish(new rcljava.msg.UInt32());
+    earlyPublisher.publish(new rcljava.msg.UInt32());
+    Thread.sleep(100);
+    executor.spinOnce();
+
+    // By the time the message of "late" is ready, the deadline of "early" is long past, even
+    // though its relative deadline is longer
+    latePublisher.publish(new rcljava.msg.UInt32());
+    Thread.sleep(100);
+    executor.spinSome();
+    node.dispose();
+
+    assertEquals(3, calls.size());
+    assertEquals("urgent", calls.get(0));
+    assertEquals("early", calls.get(1));
+    assertEquals("late", calls.get(2));
+  }
+
+  @Test
+  public final void testPriorityBeforeDeadline() throws Exception {
+    assertEquals("first", spinOnceWithTimers(
+        "scheduling_priority_deadline_node",
+        new SchedulingParameters(1, SchedulingParameters.NO_DEADLINE),
+        SchedulingParameters.withRelativeDeadline(10, TimeUnit.MILLISECONDS)));
+  }
+}
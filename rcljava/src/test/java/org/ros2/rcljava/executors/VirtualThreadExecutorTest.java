@@ -0,0 +1,70 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.callbackgroups.CallbackGroup;
+import org.ros2.rcljava.callbackgroups.MutuallyExclusiveCallbackGroup;
+import org.ros2.rcljava.callbackgroups.ReentrantCallbackGroup;
+
+public class VirtualThreadExecutorTest {
+  @BeforeClass
+  public static void setupOnce() throws Exception {
+    // Just to quiet down warnings
+    org.apache.log4j.BasicConfigurator.configure();
+
+    RCLJava.rclJavaInit();
+  }
+
+  @AfterClass
+  public static void tearDownOnce() {
+    RCLJava.shutdown();
+  }
+
+  @Before
+  public void setUp() {
+    assumeTrue(
+        "Virtual threads are not supported by this JVM", VirtualThreadExecutor.isSupported());
+  }
+
+  private static int spinTimers(final String nodeName, final CallbackGroup callbackGroup)
+      throws Exception {
+    return MultiThreadedExecutorTest.spinTimers(
+        new VirtualThreadExecutor(), 16, nodeName, callbackGroup);
+  }
+
+  @Test
+  public final void testReentrantCallbacksRunConcurrently() throws Exception {
+    int maxRunning = spinTimers("virtual_reentrant_callbacks_node", new ReentrantCallbackGroup());
+    assertTrue(maxRunning > 1);
+  }
+
+  @Test
+  public final void testMutuallyExclusiveCallbacksDoNotOverlap() throws Exception {
+    int maxRunning = spinTimers(
+        "virtual_mutually_exclusive_callbacks_node", new MutuallyExclusiveCallbackGroup());
+    assertEquals(1, maxRunning);
+  }
+}
@@ -0,0 +1,162 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.guardcondition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.ros2.rcljava.RCLJava;
+import org.ros2.rcljava.concurrent.Callback;
+import org.ros2.rcljava.executors.Executor;
+import org.ros2.rcljava.executors.SingleThreadedExecutor;
+import org.ros2.rcljava.node.ComposableNode;
+import org.ros2.rcljava.node.Node;
+
+public class GuardConditionTest {
+  public static class CountingCallback implements Callback {
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public void call() {
+      this.counter.incrementAndGet();
+    }
+
+    public int getCounter() {
+      return this.counter.get();
+    }
+  }
+
+  @BeforeClass
+  public static void setupOnce() throws Exception {
+    // Just to quiet down warnings
+    org.apache.log4j.BasicConfigurator.configure();
+
+    RCLJava.rclJavaInit();
+  }
+
+  @AfterClass
+  public static void tearDownOnce() {
+    RCLJava.shutdown();
+  }
+
+  private static ComposableNode toComposableNode(final Node node) {
+    return new ComposableNode() {
+      public Node getNode() {
+        return node;
+      }
+    };
+  }
+
+  private static Thread runLater(final long delayMs, final Runnable runnable) {
+    Thread thread = new Thread(new Runnable() {
+      public void run() {
+        try {
+          Thread.sleep(delayMs);
+        } catch (InterruptedException ie) {
+          return;
+        }
+        runnable.run();
+      }
+    });
+    thread.start();
+    return thread;
+  }
+
+  @Test
+  public final void testCreateAndDispose() {
+    Node node = RCLJava.createNode("guard_condition_create_node");
+    GuardCondition guardCondition = node.createGuardCondition(new CountingCallback());
+    assertTrue(guardCondition.getHandle() != 0);
+    assertTrue(node.getGuardConditions().contains(guardCondition));
+    assertFalse(node.getGuardConditions().contains(node.getNotifyGuardCondition()));
+
+    guardCondition.dispose();
+    assertEquals(0, guardCondition.getHandle());
+    assertFalse(node.getGuardConditions().contains(guardCondition));
+    node.dispose();
+  }
+
+  @Test
+  public final void testTriggerWakesUpSpinOnce() throws Exception {
+    Executor executor = new SingleThreadedExecutor();
+    Node node = RCLJava.createNode("guard_condition_trigger_node");
+    CountingCallback callback = new CountingCallback();
+    final GuardCondition guardCondition = node.createGuardCondition(callback);
+    executor.addNode(toComposableNode(node));
+
+    Thread thread = runLater(100, new Runnable() {
+      public void run() {
+        guardCondition.trigger();
+      }
+    });
+    executor.spinOnce();
+    thread.join();
+
+    assertEquals(1, callback.getCounter());
+    node.dispose();
+  }
+
+  @Test
+  public final void testEntityCreationWakesUpSpinOnce() throws Exception {
+    final Executor executor = new SingleThreadedExecutor();
+    final Node node = RCLJava.createNode("guard_condition_entities_node");
+    final CountingCallback callback = new CountingCallback();
+    executor.addNode(toComposableNode(node));
+    // Collect the entities of the node, so that only the timer created below is new.
+    executor.spinSome();
+
+    Thread thread = runLater(100, new Runnable() {
+      public void run() {
+        node.createWallTimer(1, TimeUnit.MILLISECONDS, callback);
+      }
+    });
+    long startNs = System.nanoTime();
+    executor.spinOnce(TimeUnit.NANOSECONDS.convert(5, TimeUnit.SECONDS));
+    long elapsedNs = System.nanoTime() - startNs;
+    thread.join();
+
+    assertEquals(1, callback.getCounter());
+    assertTrue(elapsedNs < TimeUnit.NANOSECONDS.convert(5, TimeUnit.SECONDS));
+    node.dispose();
+  }
+
+  @Test
+  public final void testAddNodeWakesUpSpinOnce() throws Exception {
+    final Executor executor = new SingleThreadedExecutor();
+    final Node node = RCLJava.createNode("guard_condition_add_node");
+    CountingCallback callback = new CountingCallback();
+    final GuardCondition guardCondition = node.createGuardCondition(callback);
+    guardCondition.trigger();
+
+    Thread thread = runLater(100, new Runnable() {
+      public void run() {
+        executor.addNode(toComposableNode(node));
+      }
+    });
+    executor.spinOnce(TimeUnit.NANOSECONDS.convert(5, TimeUnit.SECONDS));
+    thread.join();
+
+    assertEquals(1, callback.getCounter());
+    node.dispose();
+  }
+}
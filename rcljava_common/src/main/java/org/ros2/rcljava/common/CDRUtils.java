@@ -0,0 +1,493 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.common;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+
+/**
+ * Helpers for the CDR (XCDR1) serialization code generated in every message class.
+ *
+ * A serialized message starts with a 4 bytes encapsulation header, followed by its fields.
+ * Every primitive is aligned to its size, relative to the end of the header, called the origin.
+ * Messages are always serialized in little endian, and deserialized in the byte order their
+ * header declares.
+ */
+public final class CDRUtils {
+  /**
+   * The size of the encapsulation header that precedes the fields of a serialized message.
+   */
+  public static final int ENCAPSULATION_HEADER_SIZE = 4;
+
+  private static final byte CDR_BE = 0x00;
+  private static final byte CDR_LE = 0x01;
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  /**
+   * Private constructor so this cannot be instantiated.
+   */
+  private CDRUtils() {}
+
+  /**
+   * Write the encapsulation header, and set the byte order of the buffer to little endian.
+   *
+   * @return The origin the fields are aligned relative to.
+   */
+  public static int writeHeader(final ByteBuffer buffer) {
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    buffer.put((byte) 0x00);
+    buffer.put(CDR_LE);
+    buffer.putShort((short) 0);
+    return buffer.position();
+  }
+
+  /**
+   * Read the encapsulation header, and set the byte order of the buffer to the one it declares.
+   *
+   * @return The origin the fields are aligned relative to.
+   */
+  public static int readHeader(final ByteBuffer buffer) {
+    buffer.get();
+    byte encapsulation = buffer.get();
+    if (encapsulation == CDR_LE) {
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+    } else if (encapsulation == CDR_BE) {
+      buffer.order(ByteOrder.BIG_ENDIAN);
+    } else {
+      throw new IllegalArgumentException("Unsupported encapsulation: " + encapsulation);
+    }
+    buffer.getShort();
+    return buffer.position();
+  }
+
+  /**
+   * @param offset An offset relative to the origin.
+   * @param alignment The alignment, a power of two.
+   * @return The first offset from the passed one that is aligned.
+   */
+  public static int align(final int offset, final int alignment) {
+    return (offset + alignment - 1) & -alignment;
+  }
+
+  /**
+   * Write zeros until the position of the buffer is aligned.
+   */
+  public static void pad(final ByteBuffer buffer, final int origin, final int alignment) {
+    int offset = buffer.position() - origin;
+    for (int i = align(offset, alignment) - offset; i > 0; --i) {
+      buffer.put((byte) 0);
+    }
+  }
+
+  /**
+   * Skip the padding up to the next aligned position of the buffer.
+   */
+  public static void skipPadding(final ByteBuffer buffer, final int origin, final int alignment) {
+    buffer.position(origin + align(buffer.position() - origin, alignment));
+  }
+
+  /**
+   * @param offset The offset, relative to the origin, at which the array starts.
+   * @param length The number of elements of the array.
+   * @param elementSize The size of the elements, which is also their alignment.
+   * @return The offset right after the array.
+   */
+  public static int getArrayEnd(final int offset, final int length, final int elementSize) {
+    if (length == 0) {
+      return offset;
+    }
+    return align(offset, elementSize) + length * elementSize;
+  }
+
+  public static void writeLength(final ByteBuffer buffer, final int origin, final int length) {
+    writeInt(buffer, origin, length);
+  }
+
+  public static int readLength(final ByteBuffer buffer, final int origin) {
+    int length = readInt(buffer, origin);
+    if (length < 0 || length > buffer.remaining()) {
+      throw new IllegalArgumentException("Invalid sequence length: " + length);
+    }
+    return length;
+  }
+
+  public static void writeBoolean(final ByteBuffer buffer, final int origin, final boolean value) {
+    buffer.put(value ? (byte) 1 : (byte) 0);
+  }
+
+  public static boolean readBoolean(final ByteBuffer buffer, final int origin) {
+    return buffer.get() != 0;
+  }
+
+  public static void writeChar(final ByteBuffer buffer, final int origin, final char value) {
+    buffer.put((byte) value);
+  }
+
+  public static char readChar(final ByteBuffer buffer, final int origin) {
+    return (char) (buffer.get() & 0xff);
+  }
+
+  public static void writeByte(final ByteBuffer buffer, final int origin, final byte value) {
+    buffer.put(value);
+  }
+
+  public static byte readByte(final ByteBuffer buffer, final int origin) {
+    return buffer.get();
+  }
+
+  public static void writeShort(final ByteBuffer buffer, final int origin, final short value) {
+    pad(buffer, origin, 2);
+    buffer.putShort(value);
+  }
+
+  public static short readShort(final ByteBuffer buffer, final int origin) {
+    skipPadding(buffer, origin, 2);
+    return buffer.getShort();
+  }
+
+  public static void writeInt(final ByteBuffer buffer, final int origin, final int value) {
+    pad(buffer, origin, 4);
+    buffer.putInt(value);
+  }
+
+  public static int readInt(final ByteBuffer buffer, final int origin) {
+    skipPadding(buffer, origin, 4);
+    return buffer.getInt();
+  }
+
+  public static void writeLong(final ByteBuffer buffer, final int origin, final long value) {
+    pad(buffer, origin, 8);
+    buffer.putLong(value);
+  }
+
+  public static long readLong(final ByteBuffer buffer, final int origin) {
+    skipPadding(buffer, origin, 8);
+    return buffer.getLong();
+  }
+
+  public static void writeFloat(final ByteBuffer buffer, final int origin, final float value) {
+    pad(buffer, origin, 4);
+    buffer.putFloat(value);
+  }
+
+  public static float readFloat(final ByteBuffer buffer, final int origin) {
+    skipPadding(buffer, origin, 4);
+    return buffer.getFloat();
+  }
+
+  public static void writeDouble(final ByteBuffer buffer, final int origin, final double value) {
+    pad(buffer, origin, 8);
+    buffer.putDouble(value);
+  }
+
+  public static double readDouble(final ByteBuffer buffer, final int origin) {
+    skipPadding(buffer, origin, 8);
+    return buffer.getDouble();
+  }
+
+  public static void writeBooleans(
+      final ByteBuffer buffer, final int origin, final boolean[] values) {
+    for (boolean value : values) {
+      buffer.put(value ? (byte) 1 : (byte) 0);
+    }
+  }
+
+  public static void readBooleans(
+      final ByteBuffer buffer, final int origin, final boolean[] values) {
+    for (int i = 0; i < values.length; ++i) {
+      values[i] = buffer.get() != 0;
+    }
+  }
+
+  public static void writeChars(final ByteBuffer buffer, final int origin, final char[] values) {
+    for (char value : values) {
+      buffer.put((byte) value);
+    }
+  }
+
+  public static void readChars(final ByteBuffer buffer, final int origin, final char[] values) {
+    for (int i = 0; i < values.length; ++i) {
+      values[i] = (char) (buffer.get() & 0xff);
+    }
+  }
+
+  public static void writeBytes(final ByteBuffer buffer, final int origin, final byte[] values) {
+    buffer.put(values);
+  }
+
+  public static void readBytes(final ByteBuffer buffer, final int origin, final byte[] values) {
+    buffer.get(values);
+  }
+
+  // Arrays of wider types are copied through a view of the buffer, in its byte order.
+  // Empty arrays are not aligned.
+
+  public static void writeShorts(final ByteBuffer buffer, final int origin, final short[] values) {
+    if (values.length > 0) {
+      pad(buffer, origin, 2);
+      buffer.asShortBuffer().put(values);
+      buffer.position(buffer.position() + values.length * 2);
+    }
+  }
+
+  public static void readShorts(final ByteBuffer buffer, final int origin, final short[] values) {
+    if (values.length > 0) {
+      skipPadding(buffer, origin, 2);
+      buffer.asShortBuffer().get(values);
+      buffer.position(buffer.position() + values.length * 2);
+    }
+  }
+
+  public static void writeInts(final ByteBuffer buffer, final int origin, final int[] values) {
+    if (values.length > 0) {
+      pad(buffer, origin, 4);
+      buffer.asIntBuffer().put(values);
+      buffer.position(buffer.position() + values.length * 4);
+    }
+  }
+
+  public static void readInts(final ByteBuffer buffer, final int origin, final int[] values) {
+    if (values.length > 0) {
+      skipPadding(buffer, origin, 4);
+      buffer.asIntBuffer().get(values);
+      buffer.position(buffer.position() + values.length * 4);
+    }
+  }
+
+  public static void writeLongs(final ByteBuffer buffer, final int origin, final long[] values) {
+    if (values.length > 0) {
+      pad(buffer, origin, 8);
+      buffer.asLongBuffer().put(values);
+      buffer.position(buffer.position() + values.length * 8);
+    }
+  }
+
+  public static void readLongs(final ByteBuffer buffer, final int origin, final long[] values) {
+    if (values.length > 0) {
+      skipPadding(buffer, origin, 8);
+      buffer.asLongBuffer().get(values);
+      buffer.position(buffer.position() + values.length * 8);
+    }
+  }
+
+  public static void writeFloats(final ByteBuffer buffer, final int origin, final float[] values) {
+    if (values.length > 0) {
+      pad(buffer, origin, 4);
+      buffer.asFloatBuffer().put(values);
+      buffer.position(buffer.position() + values.length * 4);
+    }
+  }
+
+  public static void readFloats(final ByteBuffer buffer, final int origin, final float[] values) {
+    if (values.length > 0) {
+      skipPadding(buffer, origin, 4);
+      buffer.asFloatBuffer().get(values);
+      buffer.position(buffer.position() + values.length * 4);
+    }
+  }
+
+  public static void writeDoubles(
+      final ByteBuffer buffer, final int origin, final double[] values) {
+    if (values.length > 0) {
+      pad(buffer, origin, 8);
+      buffer.asDoubleBuffer().put(values);
+      buffer.position(buffer.position() + values.length * 8);
+    }
+  }
+
+  public static void readDoubles(
+      final ByteBuffer buffer, final int origin, final double[] values) {
+    if (values.length > 0) {
+      skipPadding(buffer, origin, 8);
+      buffer.asDoubleBuffer().get(values);
+      buffer.position(buffer.position() + values.length * 8);
+    }
+  }
+
+  /**
+   * Write the elements of a sequence backed by a buffer, from index 0 to its capacity.
+   *
+   * @param values The elements, in their own byte order.
+   * @param elementSize The size of the elements, which is also their alignment.
+   */
+  public static void writeBuffer(
+      final ByteBuffer buffer, final int origin, final ByteBuffer values, final int elementSize) {
+    if (values.capacity() == 0) {
+      return;
+    }
+    pad(buffer, origin, elementSize);
+    if (elementSize == 1 || values.order() == buffer.order()) {
+      ByteBuffer source = values.duplicate();
+      source.clear();
+      buffer.put(source);
+    } else {
+      for (int i = 0; i < values.capacity(); i += elementSize) {
+        for (int j = elementSize - 1; j >= 0; --j) {
+          buffer.put(values.get(i + j));
+        }
+      }
+    }
+  }
+
+  /**
+   * Read the elements of a sequence backed by a buffer, from index 0 to its capacity.
+   *
+   * @param values The buffer to read the elements into, in its own byte order.
+   * @param elementSize The size of the elements, which is also their alignment.
+   */
+  public static void readBuffer(
+      final ByteBuffer buffer, final int origin, final ByteBuffer values, final int elementSize) {
+    if (values.capacity() == 0) {
+      return;
+    }
+    skipPadding(buffer, origin, elementSize);
+    if (elementSize == 1 || values.order() == buffer.order()) {
+      ByteBuffer source = buffer.duplicate();
+      source.limit(source.position() + values.capacity());
+      ByteBuffer destination = values.duplicate();
+      destination.clear();
+      destination.put(source);
+      buffer.position(source.position());
+    } else {
+      for (int i = 0; i < values.capacity(); i += elementSize) {
+        for (int j = elementSize - 1; j >= 0; --j) {
+          values.put(i + j, buffer.get());
+        }
+      }
+    }
+  }
+
+  /**
+   * Write a string as its length in bytes, including the terminating null character,
+   * followed by its UTF-8 bytes and the null character.
+   */
+  public static void writeString(final ByteBuffer buffer, final int origin, final String value) {
+    byte[] bytes = value.getBytes(UTF_8);
+    writeInt(buffer, origin, bytes.length + 1);
+    buffer.put(bytes);
+    buffer.put((byte) 0);
+  }
+
+  public static String readString(final ByteBuffer buffer, final int origin) {
+    int length = readLength(buffer, origin);
+    if (length == 0) {
+      return "";
+    }
+    byte[] bytes = new byte[length - 1];
+    buffer.get(bytes);
+    buffer.get();
+    return new String(bytes, UTF_8);
+  }
+
+  /**
+   * @return The offset right after the passed string, serialized at the passed offset.
+   */
+  public static int getStringEnd(final int offset, final String value) {
+    return align(offset, 4) + 4 + getUTF8Length(value) + 1;
+  }
+
+  private static int getUTF8Length(final String value) {
+    int length = 0;
+    for (int i = 0; i < value.length(); ++i) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        length += 1;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        length += 4;
+        ++i;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Write a wide string as its number of characters, followed by every UTF-16 character
+   * in 4 bytes, as rosidl_typesupport_fastrtps does.
+   */
+  public static void writeWString(final ByteBuffer buffer, final int origin, final String value) {
+    writeInt(buffer, origin, value.length());
+    for (int i = 0; i < value.length(); ++i) {
+      buffer.putInt(value.charAt(i));
+    }
+  }
+
+  public static String readWString(final ByteBuffer buffer, final int origin) {
+    int length = readLength(buffer, origin);
+    char[] chars = new char[length];
+    for (int i = 0; i < length; ++i) {
+      chars[i] = (char) buffer.getInt();
+    }
+    return new String(chars);
+  }
+
+  /**
+   * @return The offset right after the passed wide string, serialized at the passed offset.
+   */
+  public static int getWStringEnd(final int offset, final String value) {
+    return align(offset, 4) + 4 + value.length() * 4;
+  }
+
+  // Skipping serialized fields, used by the views that read messages lazily.
+
+  /**
+   * Move the position of the buffer right after an array of primitives.
+   *
+   * @param length The number of elements of the array.
+   * @param elementSize The size of the elements, which is also their alignment.
+   */
+  public static void skipArray(
+      final ByteBuffer buffer, final int origin, final int length, final int elementSize) {
+    if (length > 0) {
+      skipPadding(buffer, origin, elementSize);
+      buffer.position(buffer.position() + length * elementSize);
+    }
+  }
+
+  public static void skipString(final ByteBuffer buffer, final int origin) {
+    int length = readLength(buffer, origin);
+    buffer.position(buffer.position() + length);
+  }
+
+  public static void skipWString(final ByteBuffer buffer, final int origin) {
+    int length = readLength(buffer, origin);
+    buffer.position(buffer.position() + length * 4);
+  }
+
+  /**
+   * @throws IndexOutOfBoundsException If the index is not within the array.
+   */
+  public static void checkIndex(final int index, final int length) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+    }
+  }
+
+  /**
+   * Fail the serialization of a field whose type has no CDR mapping in Java.
+   *
+   * @throws UnsupportedOperationException Always.
+   */
+  public static void unsupportedType(final String typeName) {
+    throw new UnsupportedOperationException("Cannot serialize fields of type " + typeName);
+  }
+}
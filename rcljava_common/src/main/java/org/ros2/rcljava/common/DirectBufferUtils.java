@@ -0,0 +1,111 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.common;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Helpers for the fields of generated messages that are backed by a direct buffer.
+ *
+ * Such a buffer holds the elements of a sequence in native byte order, from index 0 to its
+ * capacity, so that they are copied to and from the native message with a single memcpy.
+ */
+public final class DirectBufferUtils {
+  /**
+   * Private constructor so this cannot be instantiated.
+   */
+  private DirectBufferUtils() {}
+
+  /**
+   * Allocate the buffer of a sequence, also called from the native message converters.
+   *
+   * @param length The number of elements of the sequence.
+   * @param elementSize The size in bytes of the elements.
+   * @return A zeroed direct buffer in native byte order.
+   */
+  public static ByteBuffer allocate(final int length, final int elementSize) {
+    return ByteBuffer.allocateDirect(length * elementSize).order(ByteOrder.nativeOrder());
+  }
+
+  /**
+   * Get the buffer of a sequence from the elements that a buffer holds, from its position
+   * to its limit.
+   *
+   * A direct buffer is shared, not copied, and a heap buffer is copied into a new direct buffer.
+   *
+   * @param values The elements, in native byte order.
+   * @param elementSize The size in bytes of the elements.
+   * @return A direct buffer in native byte order, whose capacity is the size of the elements.
+   */
+  public static ByteBuffer wrap(final ByteBuffer values, final int elementSize) {
+    if (values.remaining() % elementSize != 0) {
+      throw new IllegalArgumentException(
+        "The size of the buffer must be a multiple of " + elementSize + " bytes");
+    }
+    if (values.isDirect()) {
+      return values.slice().order(ByteOrder.nativeOrder());
+    }
+    ByteBuffer buffer = allocate(values.remaining(), 1);
+    buffer.put(values.duplicate());
+    buffer.rewind();
+    return buffer;
+  }
+
+  /**
+   * Copy the elements of a buffer, from index 0 to its capacity, into a buffer
+   * of the same capacity.
+   */
+  public static void copy(final ByteBuffer source, final ByteBuffer destination) {
+    ByteBuffer from = source.duplicate();
+    from.clear();
+    ByteBuffer to = destination.duplicate();
+    to.clear();
+    to.put(from);
+  }
+
+  /**
+   * @return true if both buffers have the same elements, from index 0 to their capacity.
+   */
+  public static boolean equals(final ByteBuffer lhs, final ByteBuffer rhs) {
+    if (lhs == rhs) {
+      return true;
+    }
+    if (lhs == null || rhs == null || lhs.capacity() != rhs.capacity()) {
+      return false;
+    }
+    for (int i = 0; i < lhs.capacity(); ++i) {
+      if (lhs.get(i) != rhs.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return A hash code of the elements of the buffer, from index 0 to its capacity.
+   */
+  public static int hashCode(final ByteBuffer buffer) {
+    if (buffer == null) {
+      return 0;
+    }
+    int result = 1;
+    for (int i = 0; i < buffer.capacity(); ++i) {
+      result = 31 * result + buffer.get(i);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,68 @@
+/* Copyright 2020 ros2-java contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ros2.rcljava.common;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Fixed-size list view of a float array, whose elements are read and written without boxing.
+ *
+ * Changes to the list are written to the array, and changes to the array are seen by the list.
+ * The methods inherited from {@link java.util.List} box the elements, prefer
+ * {@link #getFloat(int)} and {@link #setFloat(int, float)}.
+ */
+public final class FloatList extends AbstractList<Float> implements RandomAccess {
+  private final float[] array;
+
+  /**
+   * Constructor.
+   *
+   * @param array The array to view, which is not copied.
+   */
+  public FloatList(final float[] array) {
+    this.array = array;
+  }
+
+  public int size() {
+    return this.array.length;
+  }
+
+  public float getFloat(final int index) {
+    return this.array[index];
+  }
+
+  public void setFloat(final int index, final float value) {
+    this.array[index] = value;
+  }
+
+  public Float get(final int index) {
+    return this.array[index];
+  }
+
+  public Float set(final int index, final Float element) {
+    float previous = this.array[index];
+    this.array[index] = element;
+    return previous;
+  }
+
+  /**
+   * @return A copy of the elements.
+   */
+  public float[] toFloatArray() {
+    return this.array.clone();
+  }
+}
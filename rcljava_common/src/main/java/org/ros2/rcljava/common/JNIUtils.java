@@ -15,6 +15,10 @@
 
 package org.ros2.rcljava.common;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +27,12 @@ public final class JNIUtils {
 
   private static final String TYPESUPPORT = "rosidl_typesupport_c";
 
+  /**
+   * The interface packages whose typesupport library was loaded.
+   */
+  private static final Set<String> loadedTypesupportPackages =
+    Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
   /**
    * Private constructor so this cannot be instantiated.
    */
@@ -47,10 +57,24 @@ public final class JNIUtils {
     System.loadLibrary(libraryName);
   }
 
+  /**
+   * Load the typesupport library of the interface package of a generated class.
+   *
+   * All the messages, services and actions of a package share a single library, which
+   * registers the natives of all of them when it is loaded. It is only loaded for the first
+   * class of every package.
+   *
+   * @param cls A generated message, service or action class.
+   */
   public static void loadTypesupport(Class cls) {
-    String libraryName = normalizeClassName(cls);
-    libraryName = libraryName + "__jni__" + JNIUtils.TYPESUPPORT;
+    String className = cls.getName();
+    String packageName = className.substring(0, className.indexOf('.'));
+    if (loadedTypesupportPackages.contains(packageName)) {
+      return;
+    }
+    String libraryName = packageName + "__jni__" + JNIUtils.TYPESUPPORT;
     logger.debug("Loading typesupport: " + libraryName);
     System.loadLibrary(libraryName);
+    loadedTypesupportPackages.add(packageName);
   }
 }
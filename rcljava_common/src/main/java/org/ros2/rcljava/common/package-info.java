@@ -17,5 +17,7 @@
  * Contains a utility class for retrieving information about the RMW and
  * typesupport implemnetations via reflection, to avoid a circular
  * dependency between rcljava and generated messages.
+ * Also contains the helpers used by the generated messages, for their
+ * CDR serialization and for the primitive list views of their arrays.
  */
 package org.ros2.rcljava.common;
@@ -18,6 +18,7 @@ add_custom_command(
   COMMAND ${PYTHON_EXECUTABLE} ${rosidl_generator_java_BIN}
   --generator-arguments-file "${generator_arguments_file}"
   --typesupport-impls "${_typesupport_impls}"
+  --direct-buffer-fields "${rosidl_generator_java_DIRECT_BUFFER_FIELDS}"
   DEPENDS ${target_dependencies} ${rosidl_generate_interfaces_TARGET}
   COMMENT "Generating Java code for ROS interfaces"
   VERBATIM
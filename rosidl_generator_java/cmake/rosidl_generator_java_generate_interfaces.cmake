@@ -121,10 +121,15 @@ foreach(_abs_idl_file ${rosidl_generate_interfaces_ABS_IDL_FILES})
   endforeach()
 endforeach()
 
+# The JNI_OnLoad of the package library, that registers the natives of all the types
+foreach(_typesupport_impl ${_typesupport_impls})
+  list(APPEND _generated_extension_${_typesupport_impl}_files
+    "${_output_path}/${PROJECT_NAME}.ep.${_typesupport_impl}.cpp")
+endforeach()
+
 foreach(_typesupport_impl ${_typesupport_impls})
   foreach(_generated_file ${_generated_extension_${_typesupport_impl}_files})
     list(APPEND _generated_extension_files "${_generated_file}")
-    list(APPEND _typesupport_by_generated_cpp_files "${_typesupport_impl}")
   endforeach()
 endforeach()
 
@@ -145,6 +150,7 @@ set(target_dependencies
   "${rosidl_generator_java_TEMPLATE_DIR}/action.cpp.em"
   "${rosidl_generator_java_TEMPLATE_DIR}/idl.cpp.em"
   "${rosidl_generator_java_TEMPLATE_DIR}/msg.cpp.em"
+  "${rosidl_generator_java_TEMPLATE_DIR}/package.cpp.em"
   "${rosidl_generator_java_TEMPLATE_DIR}/srv.cpp.em"
   "${rosidl_generator_java_TEMPLATE_DIR}/action.java.em"
   "${rosidl_generator_java_TEMPLATE_DIR}/idl.java.em"
@@ -158,6 +164,10 @@ foreach(dep ${target_dependencies})
   endif()
 endforeach()
 
+# Unbounded sequences of integers or floating point numbers can be backed by a direct
+# ByteBuffer instead of an array, so that they are copied with a single memcpy.
+# The fields are listed in rosidl_generator_java_DIRECT_BUFFER_FIELDS before calling
+# rosidl_generate_interfaces(), e.g. "sensor_msgs/msg/Image.data".
 set(generator_arguments_file "${CMAKE_BINARY_DIR}/rosidl_generator_java__arguments.json")
 rosidl_write_generator_arguments(
   "${generator_arguments_file}"
@@ -205,30 +215,22 @@ set_property(
 macro(set_properties _build_type)
   set_target_properties(${_library_name} PROPERTIES
     COMPILE_OPTIONS "${_extension_compile_flags}"
-    LIBRARY_OUTPUT_DIRECTORY${_build_type} ${_output_path}/${_parent_folder}
-    RUNTIME_OUTPUT_DIRECTORY${_build_type} ${_output_path}/${_parent_folder}
+    LIBRARY_OUTPUT_DIRECTORY${_build_type} ${_output_path}
+    RUNTIME_OUTPUT_DIRECTORY${_build_type} ${_output_path}
     C_STANDARD 11
     CXX_STANDARD 14
     OUTPUT_NAME "${_library_path}")
 endmacro()
 
-foreach(_generated_cpp_file ${_generated_extension_files})
-  list(FIND _generated_extension_files ${_generated_cpp_file} _file_index)
-  list(GET _typesupport_by_generated_cpp_files ${_file_index} _typesupport_impl)
+# A single library per typesupport holds the natives of all the types of the package, so that
+# loading them takes a single dlopen, see JNIUtils.loadTypesupport()
+foreach(_typesupport_impl ${_typesupport_impls})
   find_package(${_typesupport_impl} REQUIRED)
-  get_filename_component(_parent_folder "${_generated_cpp_file}" DIRECTORY)
-  get_filename_component(_parent_folder "${_parent_folder}" NAME)
-  get_filename_component(_parent_folder "${_parent_folder}" NAME)
-  get_filename_component(_base_name "${_generated_cpp_file}" NAME_WE)
-  string(REGEX REPLACE "^rosidl_typesupport_" "" _short_typesupport_impl ${_typesupport_impl})
-  set(_library_name "${_parent_folder}${_base_name}${_short_typesupport_impl}")
-  set(_library_path
-    "${rosidl_generate_interfaces_TARGET}_${_parent_folder}_${_base_name}__jni__${_typesupport_impl}"
-  )
-  string_camel_case_to_lower_case_underscore(${_library_path} _library_path)
+  set(_library_name "${rosidl_generate_interfaces_TARGET}__jni__${_typesupport_impl}")
+  set(_library_path "${PROJECT_NAME}__jni__${_typesupport_impl}")
 
   add_library(${_library_name} SHARED
-    ${_generated_cpp_file}
+    ${_generated_extension_${_typesupport_impl}_files}
   )
   add_dependencies(
     ${_library_name}
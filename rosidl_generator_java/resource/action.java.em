@@ -23,6 +23,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_fields': direct_buffer_fields,
 }
 data.update({
   'message': action.goal,
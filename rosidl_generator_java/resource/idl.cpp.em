@@ -11,6 +11,7 @@
 @#  - content (IdlContent, list of elements, e.g. Messages or Services)
 @#  - output_dir (Path)
 @#  - template_basepath (Path)
+@#  - direct_buffer_fields (set of the fields backed by a direct ByteBuffer)
 @#  - typesupport_impl (string, the typesupport identifier of the generated code)
 @#######################################################################
 @{
@@ -32,6 +33,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_fields': direct_buffer_fields,
 }
 
 for message in content.get_elements_of_type(Message):
@@ -56,6 +58,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_fields': direct_buffer_fields,
     'typesupport_impl': typesupport_impl,
 }
 
@@ -82,6 +85,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_fields': direct_buffer_fields,
     'typesupport_impl': typesupport_impl,
 }
 
@@ -8,6 +8,7 @@
 @# Additional context:
 @#  - output_dir (Path)
 @#  - template_basepath (Path)
+@#  - direct_buffer_fields (set of the fields backed by a direct ByteBuffer)
 @#######################################################################
 @
 @#######################################################################
@@ -29,6 +30,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_fields': direct_buffer_fields,
     'imports': [],
     'implements': [],
 }
@@ -54,6 +56,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_fields': direct_buffer_fields,
 }
 
 for service in content.get_elements_of_type(Service):
@@ -77,6 +80,7 @@ data = {
     'interface_path': interface_path,
     'output_dir': output_dir,
     'template_basepath': template_basepath,
+    'direct_buffer_fields': direct_buffer_fields,
 }
 
 for action in content.get_elements_of_type(Action):
@@ -8,10 +8,12 @@ from collections import defaultdict
 from rosidl_generator_c import basetype_to_c
 from rosidl_generator_c import idl_structure_type_to_c_include_prefix
 from rosidl_generator_java import constructor_signatures
+from rosidl_generator_java import DIRECT_COPY_TYPENAMES
 from rosidl_generator_java import get_java_type
 from rosidl_generator_java import get_jni_signature
 from rosidl_generator_java import get_jni_type
 from rosidl_generator_java import get_normalized_type
+from rosidl_generator_java import is_direct_buffer_field
 from rosidl_generator_java import value_methods
 from rosidl_parser.definition import AbstractGenericString
 from rosidl_parser.definition import AbstractString
@@ -25,6 +27,27 @@ from rosidl_parser.definition import NamespacedType
 msg_normalized_type = '__'.join(message.structure.namespaced_type.namespaced_name())
 msg_jni_type = '/'.join(message.structure.namespaced_type.namespaced_name())
 
+
+
+def is_direct_buffer(member):
+    return is_direct_buffer_field(message, member, direct_buffer_fields)
+
+
+# Arrays of types whose C representation has the same layout as the corresponding JNI type
+# are copied to Java without converting every element
+direct_copy_typenames = DIRECT_COPY_TYPENAMES
+has_direct_copy_arrays = any(
+    isinstance(member.type, AbstractNestedType) and
+    isinstance(member.type.value_type, BasicType) and
+    member.type.value_type.typename in direct_copy_typenames and
+    not is_direct_buffer(member)
+    for member in message.structure.members)
+has_direct_buffer_fields = any(
+    is_direct_buffer(member) for member in message.structure.members)
+# Fields that can be null in Java
+has_nullable_members = any(
+    not isinstance(member.type, BasicType) for member in message.structure.members)
+
 # Collect JNI types and includes
 cache = defaultdict(lambda: False)
 cache[msg_normalized_type] = msg_jni_type
@@ -76,6 +99,26 @@ for member in message.structure.members:
         elif include_prefix.endswith('__get_result'):
             include_prefix = include_prefix[:-12]
         member_includes.add(include_prefix + '.h')
+
+# JNI signatures of the fields of the Java class, resolved once when the library is loaded
+field_signatures = {}
+has_string_arrays = False
+for member in message.structure.members:
+    type_ = member.type
+    prefix = ''
+    if isinstance(type_, AbstractNestedType):
+        type_ = type_.value_type
+        prefix = '['
+        if isinstance(type_, AbstractGenericString):
+            has_string_arrays = True
+    if is_direct_buffer(member):
+        field_signatures[member.name] = 'Ljava/nio/ByteBuffer;'
+    elif isinstance(type_, BasicType):
+        field_signatures[member.name] = prefix + get_jni_signature(type_)
+    elif isinstance(type_, AbstractGenericString):
+        field_signatures[member.name] = prefix + 'Ljava/lang/String;'
+    else:
+        field_signatures[member.name] = prefix + 'L' + '/'.join(type_.namespaced_name()) + ';'
 }@
 @{
 # TODO(jacobperron): Remove this logic after https://github.com/ros2/rosidl/pull/432 (Foxy)
@@ -106,7 +149,9 @@ member_includes.add(f'{message_c_include_prefix}.h')
 #include <algorithm>
 #include <cassert>
 #include <cstdint>
+#include <cstring>
 #include <string>
+#include <utility>
 
 #include "rosidl_runtime_c/message_type_support_struct.h"
 
@@ -153,6 +198,23 @@ jlong _j@(normalized_type)_to_java_converter_ptr_global = 0;
 _j@(normalized_type)_to_java_signature _j@(normalized_type)_to_java_function = nullptr;
 @[ end if]@
 @[end for]@
+@[if has_string_arrays]@
+jclass _jjava_lang_String_class_global = nullptr;
+@[end if]@
+@[if has_direct_buffer_fields]@
+jclass _jdirect_buffer_utils_class_global = nullptr;
+jmethodID _jdirect_buffer_utils_allocate_global = nullptr;
+@[end if]@
+
+@[for member in message.structure.members]@
+jfieldID _jfield_@(member.name)_fid_global = nullptr;
+@[end for]@
+@[if has_direct_copy_arrays]@
+
+// Size in bytes from which primitive arrays are copied to Java through
+// GetPrimitiveArrayCritical, which avoids an intermediate copy on VMs that pin arrays
+const size_t kCriticalArrayCopyThreshold = 4096;
+@[end if]@
 }  // namespace
 
 @{
@@ -214,6 +276,21 @@ JNIEXPORT jlong JNICALL Java_@(underscore_separated_jni_type_name)_getDestructor
   if (ros_message == nullptr) {
     ros_message = @(msg_normalized_type)__create();
   }
+@[if has_nullable_members]@
+
+  // Fields that are null in Java are swapped with the ones of a new message, so that a native
+  // message that is converted into again doesn't keep the values it had before
+  @(msg_normalized_type) * _default_message = nullptr;
+  auto _get_default_message = [env, &_default_message]() {
+    if (_default_message == nullptr) {
+      _default_message = @(msg_normalized_type)__create();
+      if (_default_message == nullptr) {
+        rcljava_throw_exception(env, "java/lang/IllegalStateException", "unable to create @(msg_normalized_type) ros_message");
+      }
+    }
+    return _default_message;
+  };
+@[end if]@
 @[for member in message.structure.members]@
 @{
 base_type = member.type.value_type if isinstance(member.type, AbstractNestedType) else member.type
@@ -222,15 +299,44 @@ get_java_name = get_java_type(base_type, use_primitives=True)
 get_method_name = get_java_name.capitalize()
 jni_signature = get_jni_signature(base_type)
 }@
-@[  if isinstance(member.type, AbstractNestedType)]
+@[  if is_direct_buffer(member)]@
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
+  jobject _jbuffer_@(member.name)_obj = env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
+
+  if (_jbuffer_@(member.name)_obj != nullptr) {
+    // Copy straight from the direct buffer, which is in native byte order
+    void * _jbuffer_@(member.name)_address = env->GetDirectBufferAddress(_jbuffer_@(member.name)_obj);
+    jlong _jbuffer_@(member.name)_bytes = env->GetDirectBufferCapacity(_jbuffer_@(member.name)_obj);
+    if (_jbuffer_@(member.name)_bytes < 0 || (_jbuffer_@(member.name)_bytes > 0 && _jbuffer_@(member.name)_address == nullptr)) {
+      rcljava_throw_exception(env, "java/lang/IllegalArgumentException", "@(member.name) must be a direct buffer");
+    } else {
+      size_t _jbuffer_@(member.name)_size = static_cast<size_t>(_jbuffer_@(member.name)_bytes) / sizeof(*ros_message->@(member.name).data);
+      // Keep the buffer of the passed message if it is large enough
+      if (ros_message->@(member.name).capacity < _jbuffer_@(member.name)_size) {
+        rosidl_runtime_c__@(member.type.value_type.typename)__Sequence__fini(&(ros_message->@(member.name)));
+        if (!rosidl_runtime_c__@(member.type.value_type.typename)__Sequence__init(&(ros_message->@(member.name)), _jbuffer_@(member.name)_size)) {
+          rcljava_throw_exception(env, "java/lang/IllegalStateException", "unable to create @(member.type.value_type)__Array ros_message");
+        }
+      } else {
+        ros_message->@(member.name).size = _jbuffer_@(member.name)_size;
+      }
+      if (ros_message->@(member.name).size == _jbuffer_@(member.name)_size && _jbuffer_@(member.name)_size > 0) {
+        memcpy(ros_message->@(member.name).data, _jbuffer_@(member.name)_address, _jbuffer_@(member.name)_size * sizeof(*ros_message->@(member.name).data));
+      }
+    }
+    env->DeleteLocalRef(_jbuffer_@(member.name)_obj);
+  } else if (_get_default_message() != nullptr) {
+    std::swap(ros_message->@(member.name), _default_message->@(member.name));
+  }
+@[  elif isinstance(member.type, AbstractNestedType)]
 @[    if isinstance(member.type.value_type, BasicType)]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "[@(jni_signature)");
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
   j@(get_java_name)Array _jarray_@(member.name)_obj = (j@(get_java_name)Array)env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
 @[    elif isinstance(member.type.value_type, AbstractGenericString)]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "[Ljava/lang/String;");
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
   jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
 @[    else]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "[L@('/'.join(member.type.value_type.namespaced_name()));");
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
   jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
 @[    end if]@
 
@@ -241,26 +347,29 @@ jni_signature = get_jni_signature(base_type)
 @[      else]@
     jint _jarray_@(member.name)_size = env->GetArrayLength(_jarray_@(member.name)_obj);
 @[      end if]@
-@[      if isinstance(member.type.value_type, AbstractString)]@
-    if (!rosidl_runtime_c__String__Sequence__init(&(ros_message->@(member.name)), _jarray_@(member.name)_size)) {
-      rcljava_throw_exception(env, "java/lang/IllegalStateException", "unable to create String__Array ros_message");
-    }
-@[      elif isinstance(member.type.value_type, AbstractWString)]@
-    if (!rosidl_runtime_c__U16String__Sequence__init(&(ros_message->@(member.name)), _jarray_@(member.name)_size)) {
-      rcljava_throw_exception(env, "java/lang/IllegalStateException", "unable to create U16String__Array ros_message");
-    }
-@[      else]@
-@[        if isinstance(member.type.value_type, BasicType)]@
-    if (!rosidl_runtime_c__@(member.type.value_type.typename)__Sequence__init(&(ros_message->@(member.name)), _jarray_@(member.name)_size)) {
-      rcljava_throw_exception(env, "java/lang/IllegalStateException", "unable to create @(member.type.value_type)__Array ros_message");
-    }
-@[        else]@
-    if (!@('__'.join(member.type.value_type.namespaced_name()))__Sequence__init(&(ros_message->@(member.name)), _jarray_@(member.name)_size)) {
-      rcljava_throw_exception(env, "java/lang/IllegalStateException", "unable to create @(member.type.value_type)__Array ros_message");
+@{
+if isinstance(member.type.value_type, AbstractString):
+    sequence_type = 'rosidl_runtime_c__String'
+    array_name = 'String__Array'
+elif isinstance(member.type.value_type, AbstractWString):
+    sequence_type = 'rosidl_runtime_c__U16String'
+    array_name = 'U16String__Array'
+elif isinstance(member.type.value_type, BasicType):
+    sequence_type = 'rosidl_runtime_c__' + member.type.value_type.typename
+    array_name = '%s__Array' % member.type.value_type
+else:
+    sequence_type = '__'.join(member.type.value_type.namespaced_name())
+    array_name = '%s__Array' % member.type.value_type
+}@
+    // Keep the buffer of the passed message if it is large enough
+    if (ros_message->@(member.name).capacity < static_cast<size_t>(_jarray_@(member.name)_size)) {
+      @(sequence_type)__Sequence__fini(&(ros_message->@(member.name)));
+      if (!@(sequence_type)__Sequence__init(&(ros_message->@(member.name)), _jarray_@(member.name)_size)) {
+        rcljava_throw_exception(env, "java/lang/IllegalStateException", "unable to create @(array_name) ros_message");
+      }
+    } else {
+      ros_message->@(member.name).size = _jarray_@(member.name)_size;
     }
-
-@[        end if]@
-@[      end if]@
     auto _dest_@(member.name) = ros_message->@(member.name).data;
 @[    else]@
     jint _jarray_@(member.name)_size = @(member.type.size);
@@ -275,6 +384,16 @@ jni_signature = get_jni_signature(base_type)
     for (jint i = 0; i < _jarray_@(member.name)_size; ++i) {
       auto element = env->GetObjectArrayElement(_jarray_@(member.name)_obj, i);
       if (element == nullptr) {
+        // Null elements stand for default ones, as when the message is serialized
+@[      if isinstance(member.type.value_type, AbstractString)]@
+        rosidl_runtime_c__String__assign(&_dest_@(member.name)[i], "");
+@[      elif isinstance(member.type.value_type, AbstractWString)]@
+        rosidl_runtime_c__U16String__assign(
+          &_dest_@(member.name)[i], reinterpret_cast<const uint16_t *>(u""));
+@[      else]@
+        @(normalized_type)__fini(&_dest_@(member.name)[i]);
+        @(normalized_type)__init(&_dest_@(member.name)[i]);
+@[      end if]@
         continue;
       }
 @[      if isinstance(member.type.value_type, AbstractString)]@
@@ -294,16 +413,18 @@ jni_signature = get_jni_signature(base_type)
         env->ReleaseStringChars(_jfield_@(member.name)_value, _str_@(member.name));
       }
 @[      else]@
-      _dest_@(member.name)[i] = *_j@(normalized_type)_from_java_function(element, nullptr);
+      _j@(normalized_type)_from_java_function(element, &_dest_@(member.name)[i]);
 @[      end if]@
       env->DeleteLocalRef(element);
     }
 @[    end if]@
     env->DeleteLocalRef(_jarray_@(member.name)_obj);
+  } else if (_get_default_message() != nullptr) {
+    std::swap(ros_message->@(member.name), _default_message->@(member.name));
   }
 @[  else]@
 @[    if isinstance(member.type, AbstractGenericString)]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "Ljava/lang/String;");
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
   jstring _jvalue@(member.name) = static_cast<jstring>(env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid));
 
   if (_jvalue@(member.name) != nullptr) {
@@ -318,29 +439,39 @@ jni_signature = get_jni_signature(base_type)
       &ros_message->@(member.name), _str@(member.name));
     env->ReleaseStringChars(_jvalue@(member.name), _str@(member.name));
 @[      end if]@
+    env->DeleteLocalRef(_jvalue@(member.name));
+  } else if (_get_default_message() != nullptr) {
+    std::swap(ros_message->@(member.name), _default_message->@(member.name));
   }
 @[    elif isinstance(member.type, BasicType)]@
 @{
 jni_signature = get_jni_signature(member.type)
 get_method_name = 'Get%sField' % get_java_type(member.type, use_primitives=True).capitalize()
 }@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "@(jni_signature)");
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
   ros_message->@(member.name) = env->@(get_method_name)(_jmessage_obj, _jfield_@(member.name)_fid);
 
 @[    else]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(
-    _j@(msg_normalized_type)_class_global, "@(member.name)", "L@('/'.join(member.type.namespaced_name()));");
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
   assert(_jfield_@(member.name)_fid != nullptr);
 
   jobject _jfield_@(member.name)_obj = env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
 
   if (_jfield_@(member.name)_obj != nullptr) {
-    ros_message->@(member.name) = *_j@(normalized_type)_from_java_function(_jfield_@(member.name)_obj, nullptr);
+    _j@(normalized_type)_from_java_function(_jfield_@(member.name)_obj, &(ros_message->@(member.name)));
+    env->DeleteLocalRef(_jfield_@(member.name)_obj);
+  } else if (_get_default_message() != nullptr) {
+    std::swap(ros_message->@(member.name), _default_message->@(member.name));
   }
-  env->DeleteLocalRef(_jfield_@(member.name)_obj);
 @[    end if]@
 @[  end if]@
 @[end for]@
+@[if has_nullable_members]@
+  if (_default_message != nullptr) {
+    // Frees the values the fields that were null had before
+    @(msg_normalized_type)__destroy(_default_message);
+  }
+@[end if]@
   assert(ros_message != nullptr);
   return ros_message;
 }
@@ -369,35 +500,79 @@ get_java_name = get_java_type(base_type, use_primitives=True)
 get_method_name = get_java_name.capitalize()
 jni_signature = get_jni_signature(base_type)
 }@
-@[  if isinstance(member.type, AbstractNestedType)]@
+@[  if is_direct_buffer(member)]@
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
+  const size_t _jbuffer_@(member.name)_bytes = sizeof(*_ros_message->@(member.name).data) * _ros_message->@(member.name).size;
+
+  // Fill the buffer of the passed message in place if it has the right size
+  jobject _jbuffer_@(member.name)_obj = env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
+  if (_jbuffer_@(member.name)_obj == nullptr || env->GetDirectBufferCapacity(_jbuffer_@(member.name)_obj) != static_cast<jlong>(_jbuffer_@(member.name)_bytes)) {
+    env->DeleteLocalRef(_jbuffer_@(member.name)_obj);
+    _jbuffer_@(member.name)_obj = env->CallStaticObjectMethod(
+      _jdirect_buffer_utils_class_global, _jdirect_buffer_utils_allocate_global,
+      static_cast<jint>(_ros_message->@(member.name).size), static_cast<jint>(sizeof(*_ros_message->@(member.name).data)));
+  }
+  void * _jbuffer_@(member.name)_address = nullptr;
+  if (_jbuffer_@(member.name)_obj != nullptr) {
+    _jbuffer_@(member.name)_address = env->GetDirectBufferAddress(_jbuffer_@(member.name)_obj);
+  }
+  if (_jbuffer_@(member.name)_address != nullptr && _jbuffer_@(member.name)_bytes > 0) {
+    memcpy(_jbuffer_@(member.name)_address, _ros_message->@(member.name).data, _jbuffer_@(member.name)_bytes);
+  }
+  env->SetObjectField(_jmessage_obj, _jfield_@(member.name)_fid, _jbuffer_@(member.name)_obj);
+  env->DeleteLocalRef(_jbuffer_@(member.name)_obj);
+@[  elif isinstance(member.type, AbstractNestedType)]@
 @[    if isinstance(member.type.value_type, BasicType)]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "[@(jni_signature)");
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
 @[    elif isinstance(member.type.value_type, AbstractGenericString)]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "[Ljava/lang/String;");
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
 @[    else]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "[L@('/'.join(member.type.value_type.namespaced_name()));");
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
 @[    end if]@
 
 @[    if isinstance(member.type.value_type, BasicType)]@
 @[      if isinstance(member.type, Array)]@
-  j@(get_java_name)Array _jarray_@(member.name)_obj = env->New@(get_method_name)Array(@(member.type.size));
-  auto * _j@(get_java_name)_@(member.name)_buf = static_cast<j@(get_java_name) *>(malloc(sizeof(j@(get_java_name)) * @(member.type.size)));
-  std::copy(_ros_message->@(member.name), _ros_message->@(member.name) + @(member.type.size), _j@(get_java_name)_@(member.name)_buf);
-  env->Set@(get_method_name)ArrayRegion(_jarray_@(member.name)_obj, 0, @(member.type.size), (const j@(get_java_name) *)_j@(get_java_name)_@(member.name)_buf);
+  jsize _jarray_@(member.name)_size = @(member.type.size);
+  auto _ros_@(member.name)_data = _ros_message->@(member.name);
 @[      else]@
-  j@(get_java_name)Array _jarray_@(member.name)_obj = env->New@(get_method_name)Array(_ros_message->@(member.name).size);
-  auto * _j@(get_java_name)_@(member.name)_buf = static_cast<j@(get_java_name) *>(malloc(sizeof(j@(get_java_name)) * _ros_message->@(member.name).size));
-  std::copy(_ros_message->@(member.name).data, _ros_message->@(member.name).data + _ros_message->@(member.name).size, _j@(get_java_name)_@(member.name)_buf);
-  env->Set@(get_method_name)ArrayRegion(_jarray_@(member.name)_obj, 0, _ros_message->@(member.name).size, (const j@(get_java_name) *)_j@(get_java_name)_@(member.name)_buf);
+  jsize _jarray_@(member.name)_size = static_cast<jsize>(_ros_message->@(member.name).size);
+  auto _ros_@(member.name)_data = _ros_message->@(member.name).data;
 @[      end if]@
+  // Fill the array of the passed message in place if it has the right length
+  j@(get_java_name)Array _jarray_@(member.name)_obj = static_cast<j@(get_java_name)Array>(env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid));
+  if (_jarray_@(member.name)_obj == nullptr || env->GetArrayLength(_jarray_@(member.name)_obj) != _jarray_@(member.name)_size) {
+    env->DeleteLocalRef(_jarray_@(member.name)_obj);
+    _jarray_@(member.name)_obj = env->New@(get_method_name)Array(_jarray_@(member.name)_size);
+  }
+@[      if member.type.value_type.typename in direct_copy_typenames]@
+  static_assert(
+    sizeof(*_ros_@(member.name)_data) == sizeof(j@(get_java_name)),
+    "@(member.type.value_type.typename) must have the same size as j@(get_java_name)");
+  // Copy straight from the ROS buffer
+  const size_t _jarray_@(member.name)_bytes = sizeof(j@(get_java_name)) * _jarray_@(member.name)_size;
+  void * _jarray_@(member.name)_critical = nullptr;
+  if (_jarray_@(member.name)_bytes >= kCriticalArrayCopyThreshold) {
+    _jarray_@(member.name)_critical = env->GetPrimitiveArrayCritical(_jarray_@(member.name)_obj, nullptr);
+  }
+  if (_jarray_@(member.name)_critical != nullptr) {
+    memcpy(_jarray_@(member.name)_critical, _ros_@(member.name)_data, _jarray_@(member.name)_bytes);
+    env->ReleasePrimitiveArrayCritical(_jarray_@(member.name)_obj, _jarray_@(member.name)_critical, 0);
+  } else {
+    env->Set@(get_method_name)ArrayRegion(_jarray_@(member.name)_obj, 0, _jarray_@(member.name)_size, reinterpret_cast<const j@(get_java_name) *>(_ros_@(member.name)_data));
+  }
+@[      else]@
+  auto * _j@(get_java_name)_@(member.name)_buf = static_cast<j@(get_java_name) *>(malloc(sizeof(j@(get_java_name)) * _jarray_@(member.name)_size));
+  std::copy(_ros_@(member.name)_data, _ros_@(member.name)_data + _jarray_@(member.name)_size, _j@(get_java_name)_@(member.name)_buf);
+  env->Set@(get_method_name)ArrayRegion(_jarray_@(member.name)_obj, 0, _jarray_@(member.name)_size, (const j@(get_java_name) *)_j@(get_java_name)_@(member.name)_buf);
   free(_j@(get_java_name)_@(member.name)_buf);
+@[      end if]@
 @[    elif isinstance(member.type.value_type, AbstractGenericString)]@
 @[      if isinstance(member.type, Array)]@
-  jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->NewObjectArray(@(member.type.size), env->FindClass("java/lang/String"), NULL);
+  jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->NewObjectArray(@(member.type.size), _jjava_lang_String_class_global, NULL);
   for (size_t i = 0; i < @(member.type.size); i++) {
     auto _ros_@(member.name)_element = _ros_message->@(member.name)[i];
 @[      else]@
-  jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->NewObjectArray(_ros_message->@(member.name).size, env->FindClass("java/lang/String"), NULL);
+  jobjectArray _jarray_@(member.name)_obj = (jobjectArray)env->NewObjectArray(_ros_message->@(member.name).size, _jjava_lang_String_class_global, NULL);
   for (size_t i = 0; i < _ros_message->@(member.name).size; i++) {
     auto _ros_@(member.name)_element = _ros_message->@(member.name).data[i];
 @[      end if]@
@@ -430,7 +605,7 @@ jni_signature = get_jni_signature(base_type)
   env->DeleteLocalRef(_jarray_@(member.name)_obj);
 @[  else]@
 @[    if isinstance(member.type, AbstractGenericString)]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "Ljava/lang/String;");
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
   if (_ros_message->@(member.name).data != nullptr) {
 @[      if isinstance(member.type, AbstractString)]@
     env->SetObjectField(_jmessage_obj, _jfield_@(member.name)_fid, env->NewStringUTF(_ros_message->@(member.name).data));
@@ -443,16 +618,18 @@ jni_signature = get_jni_signature(base_type)
 jni_signature = get_jni_signature(member.type)
 set_method_name = 'Set%sField' % get_java_type(member.type, use_primitives=True).capitalize()
 }@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(_j@(msg_normalized_type)_class_global, "@(member.name)", "@(jni_signature)");
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
   env->@(set_method_name)(_jmessage_obj, _jfield_@(member.name)_fid, _ros_message->@(member.name));
 @[    else]@
-  auto _jfield_@(member.name)_fid = env->GetFieldID(
-    _j@(msg_normalized_type)_class_global, "@(member.name)", "L@('/'.join(member.type.namespaced_name()));");
+  auto _jfield_@(member.name)_fid = _jfield_@(member.name)_fid_global;
   assert(_jfield_@(member.name)_fid != nullptr);
 
-  jobject _jfield_@(member.name)_obj = _j@(normalized_type)_to_java_function(&(_ros_message->@(member.name)), nullptr);
+  // Fill the nested message of the passed message in place, if there is one
+  jobject _jfield_@(member.name)_obj = env->GetObjectField(_jmessage_obj, _jfield_@(member.name)_fid);
+  _jfield_@(member.name)_obj = _j@(normalized_type)_to_java_function(&(_ros_message->@(member.name)), _jfield_@(member.name)_obj);
 
   env->SetObjectField(_jmessage_obj, _jfield_@(member.name)_fid, _jfield_@(member.name)_obj);
+  env->DeleteLocalRef(_jfield_@(member.name)_obj);
 @[    end if]@
 @[  end if]@
 @[end for]@
@@ -460,7 +637,8 @@ set_method_name = 'Set%sField' % get_java_type(member.type, use_primitives=True)
   return _jmessage_obj;
 }
 
-JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM * vm, void *)
+// Called from the JNI_OnLoad of the package library, see package.cpp.em
+jint @(underscore_separated_type_name)__jni_on_load(JavaVM * vm)
 {
   // Can only call this once
   if (g_vm == nullptr) {
@@ -515,12 +693,41 @@ if value_method:
       reinterpret_cast<_j@(normalized_type)_to_java_signature>(_j@(normalized_type)_to_java_converter_ptr_global);
     assert(_j@(normalized_type)_to_java_function != nullptr);
 @[  end if]@
+@[end for]@
+@[if has_string_arrays]@
+
+    auto _jjava_lang_String_class_local = env->FindClass("java/lang/String");
+    assert(_jjava_lang_String_class_local != nullptr);
+    _jjava_lang_String_class_global = static_cast<jclass>(env->NewGlobalRef(_jjava_lang_String_class_local));
+    env->DeleteLocalRef(_jjava_lang_String_class_local);
+    assert(_jjava_lang_String_class_global != nullptr);
+@[end if]@
+@[if has_direct_buffer_fields]@
+
+    auto _jdirect_buffer_utils_class_local = env->FindClass("org/ros2/rcljava/common/DirectBufferUtils");
+    assert(_jdirect_buffer_utils_class_local != nullptr);
+    _jdirect_buffer_utils_class_global = static_cast<jclass>(env->NewGlobalRef(_jdirect_buffer_utils_class_local));
+    env->DeleteLocalRef(_jdirect_buffer_utils_class_local);
+    assert(_jdirect_buffer_utils_class_global != nullptr);
+    _jdirect_buffer_utils_allocate_global = env->GetStaticMethodID(
+      _jdirect_buffer_utils_class_global, "allocate", "(II)Ljava/nio/ByteBuffer;");
+    assert(_jdirect_buffer_utils_allocate_global != nullptr);
+@[end if]@
+@[if message.structure.members]@
+
+    // Resolve the fields once, instead of on every conversion
+@[end if]@
+@[for member in message.structure.members]@
+    _jfield_@(member.name)_fid_global = env->GetFieldID(
+      _j@(msg_normalized_type)_class_global, "@(member.name)", "@(field_signatures[member.name])");
+    assert(_jfield_@(member.name)_fid_global != nullptr);
 @[end for]@
   }
   return JNI_VERSION_1_6;
 }
 
-JNIEXPORT void JNICALL JNI_OnUnload(JavaVM * vm, void *)
+// Called from the JNI_OnUnload of the package library, see package.cpp.em
+void @(underscore_separated_type_name)__jni_on_unload(JavaVM * vm)
 {
   (void)vm;
   assert(g_vm != nullptr);
@@ -548,6 +755,22 @@ JNIEXPORT void JNICALL JNI_OnUnload(JavaVM * vm, void *)
       _j@(normalized_type)_to_java_function = nullptr;
 @[  end if]@
     }
+@[end for]@
+@[if has_string_arrays]@
+    if (_jjava_lang_String_class_global != nullptr) {
+      env->DeleteGlobalRef(_jjava_lang_String_class_global);
+      _jjava_lang_String_class_global = nullptr;
+    }
+@[end if]@
+@[if has_direct_buffer_fields]@
+    if (_jdirect_buffer_utils_class_global != nullptr) {
+      env->DeleteGlobalRef(_jdirect_buffer_utils_class_global);
+      _jdirect_buffer_utils_class_global = nullptr;
+      _jdirect_buffer_utils_allocate_global = nullptr;
+    }
+@[end if]@
+@[for member in message.structure.members]@
+    _jfield_@(member.name)_fid_global = nullptr;
 @[end for]@
   }
 }
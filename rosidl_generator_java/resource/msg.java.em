@@ -7,10 +7,13 @@ package @(package_name + '.' + interface_path.parts[0]);
 @{
 from rosidl_generator_java import convert_lower_case_underscore_to_camel_case
 from rosidl_generator_java import get_java_type
+from rosidl_generator_java import is_direct_buffer_field
 from rosidl_generator_java import primitive_value_to_java
 from rosidl_generator_java import value_to_java
 from rosidl_parser.definition import AbstractGenericString
 from rosidl_parser.definition import AbstractNestedType
+from rosidl_parser.definition import AbstractSequence
+from rosidl_parser.definition import AbstractWString
 from rosidl_parser.definition import Array
 from rosidl_parser.definition import BasicType
 from rosidl_parser.definition import BoundedSequence
@@ -21,14 +24,67 @@ interfaces_implemented = ['MessageDefinition'] + implements
 interfaces_implemented = ', '.join(interfaces_implemented)
 
 message_imports = [
-    'org.apache.commons.lang3.builder.EqualsBuilder',
-    'org.apache.commons.lang3.builder.HashCodeBuilder',
+    'org.ros2.rcljava.common.CDRUtils',
+    'org.ros2.rcljava.common.DirectBufferUtils',
     'org.ros2.rcljava.common.JNIUtils',
     'org.ros2.rcljava.interfaces.MessageDefinition',
     'org.slf4j.Logger',
     'org.slf4j.LoggerFactory',
 ]
 message_imports.extend(imports)
+
+# Suffix of the CDRUtils methods and size in bytes of the basic types that have a CDR mapping
+cdr_basic_types = {
+    'boolean': ('Boolean', 1),
+    'char': ('Char', 1),
+    'octet': ('Byte', 1),
+    'uint8': ('Byte', 1),
+    'int8': ('Byte', 1),
+    'uint16': ('Short', 2),
+    'int16': ('Short', 2),
+    'uint32': ('Int', 4),
+    'int32': ('Int', 4),
+    'uint64': ('Long', 8),
+    'int64': ('Long', 8),
+    'float': ('Float', 4),
+    'double': ('Double', 8),
+}
+
+
+def is_direct_buffer(member):
+    return is_direct_buffer_field(message, member, direct_buffer_fields)
+
+
+def get_list_type(type_):
+    return 'org.ros2.rcljava.common.' + get_java_type(type_).capitalize() + 'List'
+
+
+def get_hash_code(java_type, value):
+    # The hash HashCodeBuilder(17, 37) of commons-lang3 appends for a value
+    if java_type == 'boolean':
+        return '(%s ? 0 : 1)' % value
+    if java_type in ('byte', 'char', 'short', 'int'):
+        return value
+    if java_type == 'long':
+        return '(int) (%s ^ (%s >> 32))' % (value, value)
+    if java_type == 'float':
+        return 'Float.floatToIntBits(%s)' % value
+    if java_type == 'double':
+        bits = 'Double.doubleToLongBits(%s)' % value
+        return '(int) (%s ^ (%s >> 32))' % (bits, bits)
+    return '(%s == null ? 0 : %s.hashCode())' % (value, value)
+
+
+def get_cdr_kind(type_):
+    if isinstance(type_, AbstractNestedType):
+        type_ = type_.value_type
+    if isinstance(type_, BasicType):
+        return 'basic' if type_.typename in cdr_basic_types else 'unsupported'
+    if isinstance(type_, AbstractWString):
+        return 'WString'
+    if isinstance(type_, AbstractGenericString):
+        return 'String'
+    return 'message'
 }@
 @[for message_import in message_imports]@
 import @(message_import);
@@ -81,7 +137,29 @@ public class @(type_name) implements @(interfaces_implemented) {
 
 @[for member in message.structure.members]@
 
-@[  if isinstance(member.type, AbstractNestedType)]@
+@[  if is_direct_buffer(member)]@
+@{
+element_size = cdr_basic_types[member.type.value_type.typename][1]
+}@
+  private java.nio.ByteBuffer @(member.name) = DirectBufferUtils.allocate(0, @(element_size));
+
+  /**
+   * @@param @(member.name) The elements of this field, from the position to the limit of the buffer,
+   *   in native byte order. A direct buffer is shared with this message, other buffers are copied.
+   */
+  public final @(type_name) set@(convert_lower_case_underscore_to_camel_case(member.name))(final java.nio.ByteBuffer @(member.name)) {
+    this.@(member.name) = DirectBufferUtils.wrap(@(member.name), @(element_size));
+    return this;
+  }
+
+  /**
+   * @@return The direct buffer backing this field, in native byte order, which holds
+   *   one element every @(element_size) bytes from index 0 to its capacity.
+   */
+  public final java.nio.ByteBuffer get@(convert_lower_case_underscore_to_camel_case(member.name))() {
+    return this.@(member.name);
+  }
+@[  elif isinstance(member.type, AbstractNestedType)]@
 @[    if member.has_annotation('default')]@
   private @(get_java_type(member.type))[] @(member.name) = new @(get_java_type(member.type))[] @(value_to_java(member.type, member.get_annotation_value('default')['value']));
 @[    else]@
@@ -117,10 +195,14 @@ public class @(type_name) implements @(interfaces_implemented) {
     }
 @[    end if]@
 @[    if isinstance(member.type.value_type, BasicType)]@
-    @(get_java_type(member.type, use_primitives=False))[] boxed_arr = @(member.name).toArray(new @(get_java_type(member.type, use_primitives=False))[]{});
+    if (@(member.name) instanceof @(get_list_type(member.type))) {
+      this.@(member.name) = ((@(get_list_type(member.type))) @(member.name)).to@(get_java_type(member.type).capitalize())Array();
+      return this;
+    }
     @(get_java_type(member.type))[] unboxed_arr = new @(get_java_type(member.type))[@(member.name).size()];
-    for (int i = 0; i < @(member.name).size(); i++) {
-      unboxed_arr[i] = boxed_arr[i].@(get_java_type(member.type))Value();
+    int i = 0;
+    for (@(get_java_type(member.type, use_primitives=False)) element : @(member.name)) {
+      unboxed_arr[i++] = element;
     }
     this.@(member.name) = unboxed_arr;
 @[    else]@
@@ -133,6 +215,16 @@ public class @(type_name) implements @(interfaces_implemented) {
     return this.@(member.name);
   }
 
+@[    if isinstance(member.type.value_type, BasicType)]@
+  /**
+   * @@return A fixed-size view of the array of this field, whose elements are read and written
+   *   without boxing through @@{link @(get_list_type(member.type))#get@(get_java_type(member.type).capitalize())(int)} and
+   *   @@{link @(get_list_type(member.type))#set@(get_java_type(member.type).capitalize())(int, @(get_java_type(member.type)))}.
+   */
+  public final @(get_list_type(member.type)) get@(convert_lower_case_underscore_to_camel_case(member.name))AsList() {
+    return new @(get_list_type(member.type))(this.@(member.name));
+  }
+@[    else]@
   /**
    * For better performance, use @@{link @(type_name)#get@(convert_lower_case_underscore_to_camel_case(member.name))} instead.
    */
@@ -144,6 +236,7 @@ public class @(type_name) implements @(interfaces_implemented) {
     }
     return list;
   }
+@[    end if]@
 @[  else]@
 @[    if member.has_annotation('default')]@
   private @(get_java_type(member.type)) @(member.name) = @(value_to_java(member.type, member.get_annotation_value('default')['value']));
@@ -174,25 +267,594 @@ public class @(type_name) implements @(interfaces_implemented) {
 @[  end if]@
 @[end for]@
 
+  /**
+   * @@return The same hash code as HashCodeBuilder(17, 37) of commons-lang3 when every field is
+   *   appended to it, which earlier versions used, so that hash codes don't change.
+   */
   public int hashCode() {
-    return new HashCodeBuilder(17, 37)
+    int result = 17;
+@[for member in message.structure.members]@
+@{
+java_type = get_java_type(member.type)
+}@
+@[  if is_direct_buffer(member)]@
+    result = 37 * result + DirectBufferUtils.hashCode(this.@(member.name));
+@[  elif isinstance(member.type, AbstractNestedType)]@
+    if (this.@(member.name) == null) {
+      result = 37 * result;
+    } else {
+      for (@(java_type) element : this.@(member.name)) {
+        result = 37 * result + @(get_hash_code(java_type, 'element'));
+      }
+    }
+@[  else]@
+    result = 37 * result + @(get_hash_code(java_type, 'this.' + member.name));
+@[  end if]@
+@[end for]@
+    return result;
+  }
+
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj == null || obj.getClass() != getClass()) {
+      return false;
+    }
+    @(type_name) rhs = (@(type_name)) obj;
+@[for member in message.structure.members]@
+@{
+java_type = get_java_type(member.type)
+}@
+@[  if is_direct_buffer(member)]@
+    if (!DirectBufferUtils.equals(this.@(member.name), rhs.@(member.name))) {
+@[  elif isinstance(member.type, AbstractNestedType)]@
+    if (!java.util.Arrays.equals(this.@(member.name), rhs.@(member.name))) {
+@[  elif java_type == 'float']@
+    if (Float.floatToIntBits(this.@(member.name)) != Float.floatToIntBits(rhs.@(member.name))) {
+@[  elif java_type == 'double']@
+    if (Double.doubleToLongBits(this.@(member.name)) != Double.doubleToLongBits(rhs.@(member.name))) {
+@[  elif isinstance(member.type, BasicType)]@
+    if (this.@(member.name) != rhs.@(member.name)) {
+@[  else]@
+    if (this.@(member.name) == null ? rhs.@(member.name) != null : !this.@(member.name).equals(rhs.@(member.name))) {
+@[  end if]@
+      return false;
+    }
+@[end for]@
+    return true;
+  }
+
+  /**
+   * Copy the fields of another message into this one.
+   *
+   * Arrays and nested messages of this message are reused when their length matches,
+   * so that the copy does not allocate.
+   *
+   * @@param other The message to copy.
+   * @@return This message.
+   */
+  public final @(type_name) copyFrom(final @(type_name) other) {
+    if (other == this) {
+      return this;
+    }
 @[for member in message.structure.members]@
-      .append(this.@(member.name))
+@{
+java_type = get_java_type(member.type)
+}@
+@[  if is_direct_buffer(member)]@
+@{
+element_size = cdr_basic_types[member.type.value_type.typename][1]
+}@
+    if (other.@(member.name) == null) {
+      this.@(member.name) = null;
+    } else {
+      if (this.@(member.name) == null || this.@(member.name) == other.@(member.name) || this.@(member.name).capacity() != other.@(member.name).capacity()) {
+        this.@(member.name) = DirectBufferUtils.allocate(other.@(member.name).capacity() / @(element_size), @(element_size));
+      }
+      DirectBufferUtils.copy(other.@(member.name), this.@(member.name));
+    }
+@[  elif isinstance(member.type, AbstractNestedType)]@
+    if (other.@(member.name) == null) {
+      this.@(member.name) = null;
+    } else {
+      if (this.@(member.name) == null || this.@(member.name) == other.@(member.name) || this.@(member.name).length != other.@(member.name).length) {
+        this.@(member.name) = new @(java_type)[other.@(member.name).length];
+      }
+@[    if isinstance(member.type.value_type, NamespacedType)]@
+      for (int i = 0; i < other.@(member.name).length; ++i) {
+        if (other.@(member.name)[i] == null) {
+          this.@(member.name)[i] = null;
+        } else {
+          // An element shared with the other message is replaced, like the array itself
+          if (this.@(member.name)[i] == null || this.@(member.name)[i] == other.@(member.name)[i]) {
+            this.@(member.name)[i] = new @(java_type)();
+          }
+          this.@(member.name)[i].copyFrom(other.@(member.name)[i]);
+        }
+      }
+@[    else]@
+      System.arraycopy(other.@(member.name), 0, this.@(member.name), 0, other.@(member.name).length);
+@[    end if]@
+    }
+@[  elif isinstance(member.type, NamespacedType)]@
+    if (other.@(member.name) == null) {
+      this.@(member.name) = null;
+    } else {
+      if (this.@(member.name) == null || this.@(member.name) == other.@(member.name)) {
+        this.@(member.name) = new @(java_type)();
+      }
+      this.@(member.name).copyFrom(other.@(member.name));
+    }
+@[  else]@
+    this.@(member.name) = other.@(member.name);
+@[  end if]@
 @[end for]@
-      .toHashCode();
+    return this;
   }
 
- public boolean equals(Object obj) {
-   if (obj == null) { return false; }
-   if (obj == this) { return true; }
-   if (obj.getClass() != getClass()) {
-     return false;
-   }
-   @(type_name) rhs = (@(type_name)) obj;
-   return new EqualsBuilder()
+  /**
+   * Set the fields of this message back to the values a new message has.
+   *
+   * Fixed size arrays and nested messages are reset in place. Like in a new message, the
+   * elements of fixed size arrays of strings and messages are null.
+   *
+   * @@return This message.
+   */
+  public final @(type_name) reset() {
 @[for member in message.structure.members]@
-                .append(this.@(member.name), rhs.@(member.name))
+@{
+java_type = get_java_type(member.type)
+if java_type == 'boolean':
+    zero_value = 'false'
+elif isinstance(member.type, BasicType):
+    zero_value = '0'
+elif isinstance(member.type, AbstractNestedType) and isinstance(member.type.value_type, BasicType):
+    zero_value = '(%s) 0' % java_type
+else:
+    zero_value = '""'
+}@
+@[  if is_direct_buffer(member)]@
+    if (this.@(member.name) == null || this.@(member.name).capacity() != 0) {
+      this.@(member.name) = DirectBufferUtils.allocate(0, @(cdr_basic_types[member.type.value_type.typename][1]));
+    }
+@[  elif member.has_annotation('default')]@
+@[    if isinstance(member.type, AbstractNestedType)]@
+    this.@(member.name) = new @(java_type)[] @(value_to_java(member.type, member.get_annotation_value('default')['value']));
+@[    else]@
+    this.@(member.name) = @(value_to_java(member.type, member.get_annotation_value('default')['value']));
+@[    end if]@
+@[  elif isinstance(member.type, Array)]@
+    if (this.@(member.name) == null || this.@(member.name).length != @(member.type.size)) {
+      this.@(member.name) = new @(java_type)[@(member.type.size)];
+    }
+@[    if isinstance(member.type.value_type, BasicType)]@
+    java.util.Arrays.fill(this.@(member.name), @(zero_value));
+@[    else]@
+    java.util.Arrays.fill(this.@(member.name), null);
+@[    end if]@
+@[  elif isinstance(member.type, AbstractNestedType)]@
+    if (this.@(member.name) == null || this.@(member.name).length != 0) {
+      this.@(member.name) = new @(java_type)[] {};
+    }
+@[  elif isinstance(member.type, NamespacedType)]@
+    if (this.@(member.name) == null) {
+      this.@(member.name) = new @(java_type)();
+    } else {
+      this.@(member.name).reset();
+    }
+@[  else]@
+    this.@(member.name) = @(zero_value);
+@[  end if]@
+@[end for]@
+    return this;
+  }
+
+  /**
+   * @@return A copy of this message that shares no array or nested message with it.
+   */
+  public final @(type_name) deepClone() {
+    return new @(type_name)().copyFrom(this);
+  }
+
+  /**
+   * A message that is never modified, whose fields are serialized in place of the ones that
+   * are null, so that they stand for default values like they do in the native converter.
+   */
+  private static final class Defaults {
+    static final @(type_name) MESSAGE = new @(type_name)();
+  }
+
+  /**
+   * Serialize this message in CDR, starting with the encapsulation header.
+   *
+   * The byte order of the buffer is set to little endian, and the message is written at its
+   * position, see @@{link #getSerializedSize()} for the number of bytes needed.
+   *
+   * @@param buffer The buffer to serialize this message into.
+   */
+  public final void serialize(final java.nio.ByteBuffer buffer) {
+    this.serializeFields(buffer, CDRUtils.writeHeader(buffer));
+  }
+
+  /**
+   * Deserialize this message from CDR, starting with the encapsulation header.
+   *
+   * The fields of this message are overwritten, reusing its arrays when their length matches.
+   * The byte order of the buffer is set to the one the header declares.
+   *
+   * @@param buffer The buffer to read the serialized message from, at its position.
+   */
+  public final void deserialize(final java.nio.ByteBuffer buffer) {
+    this.deserializeFields(buffer, CDRUtils.readHeader(buffer));
+  }
+
+  /**
+   * @@return The number of bytes @@{link #serialize(java.nio.ByteBuffer)} writes.
+   */
+  public final int getSerializedSize() {
+    return CDRUtils.ENCAPSULATION_HEADER_SIZE + this.getSerializedFieldsEnd(0);
+  }
+
+  /**
+   * Serialize the fields of this message, without encapsulation header.
+   *
+   * @@param buffer The buffer to serialize the fields into, at its position.
+   * @@param origin The position in the buffer that the fields are aligned relative to.
+   */
+  public final void serializeFields(final java.nio.ByteBuffer buffer, final int origin) {
+@[for member in message.structure.members]@
+@{
+cdr_kind = get_cdr_kind(member.type)
+base_type = member.type.value_type if isinstance(member.type, AbstractNestedType) else member.type
+nullable = cdr_kind != 'unsupported' and not isinstance(member.type, BasicType)
+field = ('_' if nullable else 'this.') + member.name
+if is_direct_buffer(member):
+    field_type = 'java.nio.ByteBuffer'
+elif isinstance(member.type, AbstractNestedType):
+    field_type = get_java_type(member.type) + '[]'
+else:
+    field_type = get_java_type(member.type)
+}@
+@[  if nullable]@
+    final @(field_type) @(field) = this.@(member.name) != null ? this.@(member.name) : Defaults.MESSAGE.@(member.name);
+@[  end if]@
+@[  if cdr_kind == 'unsupported']@
+    CDRUtils.unsupportedType("@(base_type.typename)");
+@[  elif is_direct_buffer(member)]@
+    CDRUtils.writeLength(buffer, origin, @(field).capacity() / @(cdr_basic_types[base_type.typename][1]));
+    CDRUtils.writeBuffer(buffer, origin, @(field), @(cdr_basic_types[base_type.typename][1]));
+@[  elif isinstance(member.type, AbstractNestedType)]@
+@[    if isinstance(member.type, AbstractSequence)]@
+    CDRUtils.writeLength(buffer, origin, @(field).length);
+@[    end if]@
+@[    if cdr_kind == 'basic']@
+    CDRUtils.write@(cdr_basic_types[base_type.typename][0])s(buffer, origin, @(field));
+@[    elif cdr_kind == 'message']@
+    for (@(get_java_type(member.type)) element : @(field)) {
+      // Elements of fixed size arrays may still be null, they stand for default values
+      (element != null ? element : new @(get_java_type(member.type))()).serializeFields(buffer, origin);
+    }
+@[    else]@
+    for (java.lang.String element : @(field)) {
+      CDRUtils.write@(cdr_kind)(buffer, origin, element != null ? element : "");
+    }
+@[    end if]@
+@[  elif cdr_kind == 'basic']@
+    CDRUtils.write@(cdr_basic_types[base_type.typename][0])(buffer, origin, @(field));
+@[  elif cdr_kind == 'message']@
+    @(field).serializeFields(buffer, origin);
+@[  else]@
+    CDRUtils.write@(cdr_kind)(buffer, origin, @(field));
+@[  end if]@
+@[end for]@
+  }
+
+  /**
+   * Deserialize the fields of this message, without encapsulation header.
+   *
+   * @@param buffer The buffer to read the fields from, at its position.
+   * @@param origin The position in the buffer that the fields are aligned relative to.
+   */
+  public final void deserializeFields(final java.nio.ByteBuffer buffer, final int origin) {
+@[for member in message.structure.members]@
+@{
+cdr_kind = get_cdr_kind(member.type)
+base_type = member.type.value_type if isinstance(member.type, AbstractNestedType) else member.type
+}@
+@[  if cdr_kind == 'unsupported']@
+    CDRUtils.unsupportedType("@(base_type.typename)");
+@[  elif is_direct_buffer(member)]@
+    int _@(member.name)_length = CDRUtils.readLength(buffer, origin);
+    if (this.@(member.name) == null || this.@(member.name).capacity() != _@(member.name)_length * @(cdr_basic_types[base_type.typename][1])) {
+      this.@(member.name) = DirectBufferUtils.allocate(_@(member.name)_length, @(cdr_basic_types[base_type.typename][1]));
+    }
+    CDRUtils.readBuffer(buffer, origin, this.@(member.name), @(cdr_basic_types[base_type.typename][1]));
+@[  elif isinstance(member.type, AbstractNestedType)]@
+@[    if isinstance(member.type, AbstractSequence)]@
+    int _@(member.name)_length = CDRUtils.readLength(buffer, origin);
+@[    else]@
+    int _@(member.name)_length = @(member.type.size);
+@[    end if]@
+    if (this.@(member.name) == null || this.@(member.name).length != _@(member.name)_length) {
+      this.@(member.name) = new @(get_java_type(member.type))[_@(member.name)_length];
+    }
+@[    if cdr_kind == 'basic']@
+    CDRUtils.read@(cdr_basic_types[base_type.typename][0])s(buffer, origin, this.@(member.name));
+@[    elif cdr_kind == 'message']@
+    for (int i = 0; i < _@(member.name)_length; ++i) {
+      if (this.@(member.name)[i] == null) {
+        this.@(member.name)[i] = new @(get_java_type(member.type))();
+      }
+      this.@(member.name)[i].deserializeFields(buffer, origin);
+    }
+@[    else]@
+    for (int i = 0; i < _@(member.name)_length; ++i) {
+      this.@(member.name)[i] = CDRUtils.read@(cdr_kind)(buffer, origin);
+    }
+@[    end if]@
+@[  elif cdr_kind == 'basic']@
+    this.@(member.name) = CDRUtils.read@(cdr_basic_types[base_type.typename][0])(buffer, origin);
+@[  elif cdr_kind == 'message']@
+    if (this.@(member.name) == null) {
+      this.@(member.name) = new @(get_java_type(member.type))();
+    }
+    this.@(member.name).deserializeFields(buffer, origin);
+@[  else]@
+    this.@(member.name) = CDRUtils.read@(cdr_kind)(buffer, origin);
+@[  end if]@
+@[end for]@
+  }
+
+  /**
+   * @@param offset The offset, relative to the origin, the fields would be serialized at.
+   * @@return The offset right after the serialized fields of this message.
+   */
+  public final int getSerializedFieldsEnd(int offset) {
+@[for member in message.structure.members]@
+@{
+cdr_kind = get_cdr_kind(member.type)
+base_type = member.type.value_type if isinstance(member.type, AbstractNestedType) else member.type
+nullable = cdr_kind != 'unsupported' and not isinstance(member.type, BasicType)
+field = ('_' if nullable else 'this.') + member.name
+if is_direct_buffer(member):
+    field_type = 'java.nio.ByteBuffer'
+elif isinstance(member.type, AbstractNestedType):
+    field_type = get_java_type(member.type) + '[]'
+else:
+    field_type = get_java_type(member.type)
+}@
+@[  if nullable]@
+    final @(field_type) @(field) = this.@(member.name) != null ? this.@(member.name) : Defaults.MESSAGE.@(member.name);
+@[  end if]@
+@[  if cdr_kind == 'unsupported']@
+    CDRUtils.unsupportedType("@(base_type.typename)");
+@[  elif is_direct_buffer(member)]@
+    offset = CDRUtils.align(offset, 4) + 4;
+    offset = CDRUtils.getArrayEnd(offset, @(field).capacity() / @(cdr_basic_types[base_type.typename][1]), @(cdr_basic_types[base_type.typename][1]));
+@[  elif isinstance(member.type, AbstractNestedType)]@
+@[    if isinstance(member.type, AbstractSequence)]@
+    offset = CDRUtils.align(offset, 4) + 4;
+@[    end if]@
+@[    if cdr_kind == 'basic']@
+    offset = CDRUtils.getArrayEnd(offset, @(field).length, @(cdr_basic_types[base_type.typename][1]));
+@[    elif cdr_kind == 'message']@
+    for (@(get_java_type(member.type)) element : @(field)) {
+      offset = (element != null ? element : new @(get_java_type(member.type))()).getSerializedFieldsEnd(offset);
+    }
+@[    else]@
+    for (java.lang.String element : @(field)) {
+      offset = CDRUtils.get@(cdr_kind)End(offset, element != null ? element : "");
+    }
+@[    end if]@
+@[  elif cdr_kind == 'basic']@
+    offset = CDRUtils.align(offset, @(cdr_basic_types[base_type.typename][1])) + @(cdr_basic_types[base_type.typename][1]);
+@[  elif cdr_kind == 'message']@
+    offset = @(field).getSerializedFieldsEnd(offset);
+@[  else]@
+    offset = CDRUtils.get@(cdr_kind)End(offset, @(field));
+@[  end if]@
+@[end for]@
+    return offset;
+  }
+
+  /**
+   * Read-only view of a serialized @(type_name), whose getters read the fields from the buffer
+   * when they are called, instead of deserializing the whole message.
+   *
+   * The offset of a field is found by skipping the fields before it the first time it is read,
+   * and then kept.
+   * Views are not thread safe, and share the buffer with the views of their nested messages.
+   */
+  public static final class View {
+    private static final int FIELD_COUNT = @(len(message.structure.members));
+
+    private final java.nio.ByteBuffer buffer;
+
+    private final int origin;
+
+    private final int[] offsets = new int[FIELD_COUNT];
+
+    private int knownOffsets;
+
+    /**
+     * Constructor.
+     *
+     * @@param buffer The buffer the fields are serialized in, in their byte order.
+     * @@param origin The position in the buffer that the fields are aligned relative to.
+     * @@param offset The offset, relative to the origin, at which the fields start.
+     */
+    public View(final java.nio.ByteBuffer buffer, final int origin, final int offset) {
+      this.buffer = buffer;
+      this.origin = origin;
+      this.offsets[0] = offset;
+      this.knownOffsets = 1;
+    }
+
+    /**
+     * Create a view of a serialized message, starting with the encapsulation header.
+     *
+     * The view reads a duplicate of the buffer, whose position is not changed.
+     *
+     * @@param buffer The buffer holding the serialized message, at its position.
+     * @@return The view of the message.
+     */
+    public static View wrap(final java.nio.ByteBuffer buffer) {
+      java.nio.ByteBuffer duplicate = buffer.duplicate();
+      int origin = CDRUtils.readHeader(duplicate);
+      return new View(duplicate, origin, duplicate.position() - origin);
+    }
+
+    /**
+     * Move the position of the buffer right after the serialized fields of a message.
+     *
+     * @@param buffer The buffer the fields are serialized in, at their position.
+     * @@param origin The position in the buffer that the fields are aligned relative to.
+     */
+    public static void skipFields(final java.nio.ByteBuffer buffer, final int origin) {
+      for (int field = 0; field < FIELD_COUNT; ++field) {
+        skipField(buffer, origin, field);
+      }
+    }
+
+    private static void skipField(
+        final java.nio.ByteBuffer buffer, final int origin, final int field) {
+      switch (field) {
+@[for index, member in enumerate(message.structure.members)]@
+@{
+cdr_kind = get_cdr_kind(member.type)
+base_type = member.type.value_type if isinstance(member.type, AbstractNestedType) else member.type
+}@
+        case @(index):
+@[  if cdr_kind == 'unsupported']@
+          CDRUtils.unsupportedType("@(base_type.typename)");
+@[  elif isinstance(member.type, AbstractNestedType)]@
+@[    if isinstance(member.type, AbstractSequence)]@
+          int _@(member.name)_length = CDRUtils.readLength(buffer, origin);
+@[    else]@
+          int _@(member.name)_length = @(member.type.size);
+@[    end if]@
+@[    if cdr_kind == 'basic']@
+          CDRUtils.skipArray(buffer, origin, _@(member.name)_length, @(cdr_basic_types[base_type.typename][1]));
+@[    else]@
+          for (int i = 0; i < _@(member.name)_length; ++i) {
+@[      if cdr_kind == 'message']@
+            @(get_java_type(member.type)).View.skipFields(buffer, origin);
+@[      else]@
+            CDRUtils.skip@(cdr_kind)(buffer, origin);
+@[      end if]@
+          }
+@[    end if]@
+@[  elif cdr_kind == 'basic']@
+          CDRUtils.skipArray(buffer, origin, 1, @(cdr_basic_types[base_type.typename][1]));
+@[  elif cdr_kind == 'message']@
+          @(get_java_type(member.type)).View.skipFields(buffer, origin);
+@[  else]@
+          CDRUtils.skip@(cdr_kind)(buffer, origin);
+@[  end if]@
+          break;
+@[end for]@
+        default:
+          throw new IndexOutOfBoundsException("Invalid field: " + field);
+      }
+    }
+
+    /**
+     * Set the position of the buffer to the start of a field.
+     */
+    private void seek(final int field) {
+      while (this.knownOffsets <= field) {
+        int previous = this.knownOffsets - 1;
+        this.buffer.position(this.origin + this.offsets[previous]);
+        skipField(this.buffer, this.origin, previous);
+        this.offsets[this.knownOffsets++] = this.buffer.position() - this.origin;
+      }
+      this.buffer.position(this.origin + this.offsets[field]);
+    }
+
+    /**
+     * Deserialize the whole message.
+     *
+     * @@return A new @(type_name) with the fields of this view.
+     */
+    public final @(type_name) toMessage() {
+      this.seek(0);
+      @(type_name) message = new @(type_name)();
+      message.deserializeFields(this.buffer, this.origin);
+      return message;
+    }
+@[for index, member in enumerate(message.structure.members)]@
+@{
+cdr_kind = get_cdr_kind(member.type)
+base_type = member.type.value_type if isinstance(member.type, AbstractNestedType) else member.type
+camel_name = convert_lower_case_underscore_to_camel_case(member.name)
+}@
+@[  if cdr_kind == 'unsupported']@
+@[  elif isinstance(member.type, AbstractNestedType)]@
+
+    public final int get@(camel_name)Length() {
+      this.seek(@(index));
+@[    if isinstance(member.type, AbstractSequence)]@
+      return CDRUtils.readLength(this.buffer, this.origin);
+@[    else]@
+      return @(member.type.size);
+@[    end if]@
+    }
+@[    if cdr_kind == 'message']@
+
+    public final @(get_java_type(member.type)).View get@(camel_name)(final int index) {
+      CDRUtils.checkIndex(index, this.get@(camel_name)Length());
+      for (int i = 0; i < index; ++i) {
+        @(get_java_type(member.type)).View.skipFields(this.buffer, this.origin);
+      }
+      return new @(get_java_type(member.type)).View(
+        this.buffer, this.origin, this.buffer.position() - this.origin);
+    }
+@[    else]@
+
+    public final @(get_java_type(member.type)) get@(camel_name)(final int index) {
+      CDRUtils.checkIndex(index, this.get@(camel_name)Length());
+@[      if cdr_kind == 'basic']@
+      CDRUtils.skipArray(this.buffer, this.origin, index, @(cdr_basic_types[base_type.typename][1]));
+      return CDRUtils.read@(cdr_basic_types[base_type.typename][0])(this.buffer, this.origin);
+@[      else]@
+      for (int i = 0; i < index; ++i) {
+        CDRUtils.skip@(cdr_kind)(this.buffer, this.origin);
+      }
+      return CDRUtils.read@(cdr_kind)(this.buffer, this.origin);
+@[      end if]@
+    }
+
+    public final @(get_java_type(member.type))[] get@(camel_name)() {
+      @(get_java_type(member.type))[] values = new @(get_java_type(member.type))[this.get@(camel_name)Length()];
+@[      if cdr_kind == 'basic']@
+      CDRUtils.read@(cdr_basic_types[base_type.typename][0])s(this.buffer, this.origin, values);
+@[      else]@
+      for (int i = 0; i < values.length; ++i) {
+        values[i] = CDRUtils.read@(cdr_kind)(this.buffer, this.origin);
+      }
+@[      end if]@
+      return values;
+    }
+@[    end if]@
+@[  elif cdr_kind == 'message']@
+
+    public final @(get_java_type(member.type)).View get@(camel_name)() {
+      this.seek(@(index));
+      return new @(get_java_type(member.type)).View(
+        this.buffer, this.origin, this.offsets[@(index)]);
+    }
+@[  else]@
+
+    public final @(get_java_type(member.type)) get@(camel_name)() {
+      this.seek(@(index));
+@[    if cdr_kind == 'basic']@
+      return CDRUtils.read@(cdr_basic_types[base_type.typename][0])(this.buffer, this.origin);
+@[    else]@
+      return CDRUtils.read@(cdr_kind)(this.buffer, this.origin);
+@[    end if]@
+    }
+@[  end if]@
 @[end for]@
-                .isEquals();
   }
 }
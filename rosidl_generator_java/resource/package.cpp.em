@@ -0,0 +1,150 @@
+// generated from rosidl_generator_java/resource/package.cpp.em
+// with input from @(package_name)
+// generated code does not contain a copyright notice
+@
+@#######################################################################
+@# EmPy template for generating the JNI_OnLoad of the library of a package
+@#
+@# Context:
+@#  - package_name (string)
+@#  - contents (list of IdlContent, the interfaces of the package)
+@#  - typesupport_impl (string, the typesupport identifier of the generated code)
+@#######################################################################
+@{
+from rosidl_generator_java import get_jni_mangled_name
+from rosidl_parser.definition import Action
+from rosidl_parser.definition import Message
+from rosidl_parser.definition import Service
+
+# Every message, service and action of the package, in the order they are registered
+messages = []
+services = []
+actions = []
+for content in contents:
+    for message in content.get_elements_of_type(Message):
+        messages.append(message.structure.namespaced_type)
+    for service in content.get_elements_of_type(Service):
+        services.append(service.namespaced_type)
+        messages.append(service.request_message.structure.namespaced_type)
+        messages.append(service.response_message.structure.namespaced_type)
+    for action in content.get_elements_of_type(Action):
+        actions.append(action.namespaced_type)
+        messages.append(action.goal.structure.namespaced_type)
+        messages.append(action.result.structure.namespaced_type)
+        messages.append(action.feedback.structure.namespaced_type)
+        messages.append(action.feedback_message.structure.namespaced_type)
+        for service in (action.send_goal_service, action.get_result_service):
+            services.append(service.namespaced_type)
+            messages.append(service.request_message.structure.namespaced_type)
+            messages.append(service.response_message.structure.namespaced_type)
+
+message_natives = ('getDestructor', 'getFromJavaConverter', 'getToJavaConverter', 'getTypeSupport')
+}@
+
+#include <jni.h>
+
+#ifdef __cplusplus
+extern "C" {
+#endif
+
+// Natives of the generated classes, defined in the code generated for every type
+@[for type_ in messages]@
+@[  for native in message_natives]@
+JNIEXPORT jlong JNICALL Java_@(get_jni_mangled_name(type_.namespaced_name()))_@(native)(JNIEnv *, jclass);
+@[  end for]@
+@[end for]@
+@[for type_ in services]@
+JNIEXPORT jlong JNICALL Java_@(get_jni_mangled_name(type_.namespaced_name()))_getServiceTypeSupport(JNIEnv *, jclass);
+@[end for]@
+@[for type_ in actions]@
+JNIEXPORT jlong JNICALL Java_@(get_jni_mangled_name(type_.namespaced_name()))_getActionTypeSupport(JNIEnv *, jclass);
+@[end for]@
+
+#ifdef __cplusplus
+}
+#endif
+
+// Resolve the cached classes, methods and fields of every message, see msg.cpp.em
+@[for type_ in messages]@
+jint @('_'.join(type_.namespaced_name()))__jni_on_load(JavaVM * vm);
+void @('_'.join(type_.namespaced_name()))__jni_on_unload(JavaVM * vm);
+@[end for]@
+
+namespace
+{
+jint register_natives(
+  JNIEnv * env, const char * class_name, const JNINativeMethod * methods, jint number_of_methods)
+{
+  jclass jclass_local = env->FindClass(class_name);
+  if (jclass_local == nullptr) {
+    return JNI_ERR;
+  }
+  jint ret = env->RegisterNatives(jclass_local, methods, number_of_methods);
+  env->DeleteLocalRef(jclass_local);
+  return ret;
+}
+}  // namespace
+
+JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM * vm, void *)
+{
+  JNIEnv * env;
+  if (vm->GetEnv(reinterpret_cast<void **>(&env), JNI_VERSION_1_6) != JNI_OK) {
+    return JNI_ERR;
+  }
+
+  // Register the natives of all the types at once, before initializing any of them, as
+  // messages call the natives of the types of their fields while they are initialized.
+@[for type_ in messages]@
+@{
+mangled_name = get_jni_mangled_name(type_.namespaced_name())
+}@
+  {
+    const JNINativeMethod methods[] = {
+@[  for native in message_natives]@
+      {const_cast<char *>("@(native)"), const_cast<char *>("()J"),
+        reinterpret_cast<void *>(&Java_@(mangled_name)_@(native))},
+@[  end for]@
+    };
+    if (register_natives(env, "@('/'.join(type_.namespaced_name()))", methods, @(len(message_natives))) != JNI_OK) {
+      return JNI_ERR;
+    }
+  }
+@[end for]@
+@[for type_ in services]@
+  {
+    const JNINativeMethod methods[] = {
+      {const_cast<char *>("getServiceTypeSupport"), const_cast<char *>("()J"),
+        reinterpret_cast<void *>(&Java_@(get_jni_mangled_name(type_.namespaced_name()))_getServiceTypeSupport)},
+    };
+    if (register_natives(env, "@('/'.join(type_.namespaced_name()))", methods, 1) != JNI_OK) {
+      return JNI_ERR;
+    }
+  }
+@[end for]@
+@[for type_ in actions]@
+  {
+    const JNINativeMethod methods[] = {
+      {const_cast<char *>("getActionTypeSupport"), const_cast<char *>("()J"),
+        reinterpret_cast<void *>(&Java_@(get_jni_mangled_name(type_.namespaced_name()))_getActionTypeSupport)},
+    };
+    if (register_natives(env, "@('/'.join(type_.namespaced_name()))", methods, 1) != JNI_OK) {
+      return JNI_ERR;
+    }
+  }
+@[end for]@
+
+@[for type_ in messages]@
+  if (@('_'.join(type_.namespaced_name()))__jni_on_load(vm) == JNI_ERR) {
+    return JNI_ERR;
+  }
+@[end for]@
+  return JNI_VERSION_1_6;
+}
+
+JNIEXPORT void JNICALL JNI_OnUnload(JavaVM * vm, void *)
+{
+  (void)vm;
+@[for type_ in messages]@
+  @('_'.join(type_.namespaced_name()))__jni_on_unload(vm);
+@[end for]@
+}
@@ -21,7 +21,11 @@ from rosidl_parser.definition import AbstractGenericString
 from rosidl_parser.definition import AbstractNestedType
 from rosidl_parser.definition import BASIC_TYPES
 from rosidl_parser.definition import BasicType
+from rosidl_parser.definition import IdlLocator
 from rosidl_parser.definition import NamespacedType
+from rosidl_parser.definition import UnboundedSequence
+from rosidl_parser.parser import parse_idl_file
+from rosidl_pycommon import expand_template
 from rosidl_pycommon import generate_files
 from rosidl_pycommon import read_generator_arguments
 
@@ -31,11 +35,12 @@ def convert_lower_case_underscore_to_camel_case(word):
     return ''.join(x.capitalize() or '_' for x in word.split('_'))
 
 
-def generate_java(generator_arguments_file, typesupport_impls):
+def generate_java(generator_arguments_file, typesupport_impls, direct_buffer_fields=()):
     args = read_generator_arguments(generator_arguments_file)
     additional_context = {
         'output_dir': pathlib.Path(args['output_dir']),
         'template_basepath': pathlib.Path(args['template_dir']),
+        'direct_buffer_fields': frozenset(direct_buffer_fields),
     }
     mapping = {
         'idl.java.em': '_%s.java',
@@ -53,9 +58,55 @@ def generate_java(generator_arguments_file, typesupport_impls):
             mapping,
             additional_context=additional_context,
             keep_case=True)
+
+    # The types of the package share a single library, whose JNI_OnLoad registers the natives
+    # of all of them at once
+    contents = []
+    for idl_tuple in args.get('idl_tuples', []):
+        idl_parts = idl_tuple.rsplit(':', 1)
+        contents.append(parse_idl_file(IdlLocator(*idl_parts)).content)
+    for impl in typesupport_impls:
+        data = {
+            'package_name': args['package_name'],
+            'contents': contents,
+            'typesupport_impl': impl,
+        }
+        output_file = additional_context['output_dir'] / '{0}.ep.{1}.cpp'.format(
+            args['package_name'], impl)
+        expand_template(
+            'package.cpp.em',
+            data,
+            output_file,
+            template_basepath=additional_context['template_basepath'])
     return 0
 
 
+# Types whose C representation has the same layout as the corresponding JNI type
+DIRECT_COPY_TYPENAMES = (
+    'octet', 'uint8', 'int8', 'uint16', 'int16', 'uint32', 'int32', 'uint64', 'int64',
+    'float', 'double')
+
+
+def is_direct_buffer_field(message, member, direct_buffer_fields):
+    """
+    Check if a field is backed by a direct ByteBuffer instead of an array.
+
+    Fields are selected by name, e.g. 'sensor_msgs/msg/Image.data', and must be unbounded
+    sequences of a type listed in DIRECT_COPY_TYPENAMES without a default value.
+    """
+    field_name = '/'.join(message.structure.namespaced_type.namespaced_name()) + '.' + member.name
+    if field_name not in direct_buffer_fields:
+        return False
+    if not isinstance(member.type, UnboundedSequence) or \
+            not isinstance(member.type.value_type, BasicType) or \
+            member.type.value_type.typename not in DIRECT_COPY_TYPENAMES or \
+            member.has_annotation('default'):
+        raise ValueError(
+            "Field '%s' cannot be backed by a direct buffer, only unbounded sequences of "
+            'integers and floating point numbers without default value can' % field_name)
+    return True
+
+
 def escape_string(s):
     s = s.replace('\\', '\\\\')
     s = s.replace('"', '\\"')
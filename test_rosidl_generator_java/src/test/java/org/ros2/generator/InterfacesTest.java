@@ -17,18 +17,27 @@ package org.ros2.generator;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Method;
 import java.lang.Runnable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import org.ros2.rcljava.common.IntList;
+
 public class InterfacesTest {
   public class ListFixtureData {
     public boolean[] boolArr = new boolean[]{true, false, true};
@@ -1217,4 +1226,312 @@ public class InterfacesTest {
       expectedInt32Result, nestedResult.getNestedValue().getBasicTypesValue().getInt32Value());
   }
 
+  @Test
+  public final void testDirectBufferFields() {
+    test_rosidl_generator_java.msg.DirectBuffers message =
+      new test_rosidl_generator_java.msg.DirectBuffers();
+    assertEquals(0, message.getData().capacity());
+
+    // Direct buffers are shared with the message
+    ByteBuffer data = ByteBuffer.allocateDirect(4);
+    message.setData(data);
+    data.put(2, (byte) 42);
+    assertEquals(42, message.getData().get(2));
+
+    // Other buffers are copied into a direct buffer in native byte order
+    ByteBuffer points = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+    points.putFloat(0, 1.125f);
+    points.putFloat(4, -1.125f);
+    message.setPoints(points);
+    assertTrue(message.getPoints().isDirect());
+    assertEquals(-1.125f, message.getPoints().asFloatBuffer().get(1), 0.0f);
+
+    assertThrows(IllegalArgumentException.class, new Runnable() {
+      public void run() {
+        new test_rosidl_generator_java.msg.DirectBuffers().setPoints(ByteBuffer.allocate(6));
+      }
+    });
+
+    message.setFrameId("frame");
+    ByteBuffer serialized = ByteBuffer.allocate(message.getSerializedSize());
+    message.serialize(serialized);
+    serialized.flip();
+    test_rosidl_generator_java.msg.DirectBuffers deserialized =
+      new test_rosidl_generator_java.msg.DirectBuffers();
+    deserialized.deserialize(serialized);
+    assertEquals(message, deserialized);
+    assertEquals(message.hashCode(), deserialized.hashCode());
+
+    deserialized.getPoints().putFloat(0, 0.0f);
+    assertFalse(message.equals(deserialized));
+  }
+
+  @Test
+  public final void testPrimitiveListViews() {
+    test_rosidl_generator_java.msg.Arrays arrays = new test_rosidl_generator_java.msg.Arrays();
+    arrays.setInt32Values(new int[] {1, 2, 3});
+
+    // Primitive lists write through to the array of the message, and back
+    IntList int32Values = arrays.getInt32ValuesAsList();
+    assertEquals(3, int32Values.size());
+    assertEquals(2, int32Values.getInt(1));
+    int32Values.setInt(1, 20);
+    assertEquals(20, arrays.getInt32Values()[1]);
+    int32Values.set(2, 30);
+    assertEquals(30, arrays.getInt32Values()[2]);
+    arrays.getInt32Values()[0] = 10;
+    assertEquals(10, int32Values.getInt(0));
+    assertEquals(Arrays.asList(10, 20, 30), int32Values);
+
+    // Setting a primitive list copies its array
+    test_rosidl_generator_java.msg.Arrays other = new test_rosidl_generator_java.msg.Arrays();
+    other.setInt32Values(int32Values);
+    assertArrayEquals(new int[] {10, 20, 30}, other.getInt32Values());
+    assertFalse(arrays.getInt32Values() == other.getInt32Values());
+    int32Values.setInt(0, 100);
+    assertEquals(10, other.getInt32Values()[0]);
+
+    // Lists of strings are copies that can be changed freely
+    List<String> stringValues = arrays.getStringValuesAsList();
+    stringValues.set(0, "changed");
+    assertEquals(null, arrays.getStringValues()[0]);
+    test_rosidl_generator_java.msg.UnboundedSequences sequences =
+      new test_rosidl_generator_java.msg.UnboundedSequences();
+    List<String> sequenceStrings = sequences.getStringValuesAsList();
+    sequenceStrings.add("added");
+    assertEquals(0, sequences.getStringValues().length);
+  }
+
+  @Test
+  public final void testCopyFromResetAndDeepClone() {
+    test_rosidl_generator_java.msg.UnboundedSequences source =
+      new test_rosidl_generator_java.msg.UnboundedSequences();
+    source.setInt32Values(new int[] {1, 2, 3});
+    source.setStringValues(Arrays.asList("a", "b"));
+    test_rosidl_generator_java.msg.BasicTypes basicTypes =
+      new test_rosidl_generator_java.msg.BasicTypes();
+    basicTypes.setInt32Value(7);
+    source.setBasicTypesValues(Arrays.asList(basicTypes));
+    source.setAlignmentCheck(42);
+
+    // Arrays of the right length are reused, everything else is copied
+    test_rosidl_generator_java.msg.UnboundedSequences copy =
+      new test_rosidl_generator_java.msg.UnboundedSequences();
+    copy.setInt32Values(new int[3]);
+    int[] int32Values = copy.getInt32Values();
+    assertTrue(copy.copyFrom(source) == copy);
+    assertEquals(source, copy);
+    assertTrue(int32Values == copy.getInt32Values());
+    assertFalse(source.getBasicTypesValues()[0] == copy.getBasicTypesValues()[0]);
+    source.getBasicTypesValues()[0].setInt32Value(8);
+    assertEquals(7, copy.getBasicTypesValues()[0].getInt32Value());
+
+    test_rosidl_generator_java.msg.UnboundedSequences clone = source.deepClone();
+    assertEquals(source, clone);
+    assertFalse(source.getInt32Values() == clone.getInt32Values());
+
+    copy.reset();
+    assertEquals(new test_rosidl_generator_java.msg.UnboundedSequences(), copy);
+
+    test_rosidl_generator_java.msg.Defaults defaults = new test_rosidl_generator_java.msg.Defaults();
+    defaults.setInt32Value(0);
+    defaults.setBoolValue(false);
+    defaults.reset();
+    assertEquals(new test_rosidl_generator_java.msg.Defaults(), defaults);
+
+    // Elements of fixed size arrays are null again, like in a new message
+    test_rosidl_generator_java.msg.Arrays arrays = new test_rosidl_generator_java.msg.Arrays();
+    arrays.getStringValues()[0] = "a";
+    arrays.getBasicTypesValues()[0] = basicTypes;
+    arrays.reset();
+    assertEquals(new test_rosidl_generator_java.msg.Arrays(), arrays);
+    assertEquals(null, arrays.getStringValues()[0]);
+    assertEquals(null, arrays.getBasicTypesValues()[0]);
+  }
+
+  @Test
+  public final void testCopyFromSharedMessages() {
+    // Nested messages shared with the source are replaced, so the copy is independent
+    test_rosidl_generator_java.msg.Nested source = new test_rosidl_generator_java.msg.Nested();
+    test_rosidl_generator_java.msg.Nested copy = new test_rosidl_generator_java.msg.Nested();
+    copy.setBasicTypesValue(source.getBasicTypesValue());
+    copy.copyFrom(source);
+    copy.getBasicTypesValue().setInt32Value(7);
+    assertEquals(0, source.getBasicTypesValue().getInt32Value());
+
+    test_rosidl_generator_java.msg.UnboundedSequences sourceSequences =
+      new test_rosidl_generator_java.msg.UnboundedSequences();
+    sourceSequences.setBasicTypesValues(
+      new test_rosidl_generator_java.msg.BasicTypes[] {
+        new test_rosidl_generator_java.msg.BasicTypes()});
+    test_rosidl_generator_java.msg.UnboundedSequences copySequences =
+      new test_rosidl_generator_java.msg.UnboundedSequences();
+    copySequences.setBasicTypesValues(
+      new test_rosidl_generator_java.msg.BasicTypes[] {sourceSequences.getBasicTypesValues()[0]});
+    copySequences.copyFrom(sourceSequences);
+    copySequences.getBasicTypesValues()[0].setInt32Value(7);
+    assertEquals(0, sourceSequences.getBasicTypesValues()[0].getInt32Value());
+  }
+
+  @Test
+  public final void testHashCodeAndEquals() {
+    test_rosidl_generator_java.msg.BasicTypes basicTypes =
+      new test_rosidl_generator_java.msg.BasicTypes();
+    basicTypes.setBoolValue(true);
+    basicTypes.setByteValue((byte) -1);
+    basicTypes.setCharValue((byte) 'a');
+    basicTypes.setFloat32Value(Float.NaN);
+    basicTypes.setFloat64Value(Double.NaN);
+    basicTypes.setInt8Value((byte) -128);
+    basicTypes.setUint8Value((byte) 255);
+    basicTypes.setInt16Value((short) -2);
+    basicTypes.setUint16Value((short) 65535);
+    basicTypes.setInt32Value(-3);
+    basicTypes.setUint32Value(0xFFFFFFFF);
+    basicTypes.setInt64Value(Long.MIN_VALUE);
+    basicTypes.setUint64Value(-1L);
+
+    // Hash codes are the same as with the builders of commons-lang3, used by earlier versions
+    assertEquals(
+      new HashCodeBuilder(17, 37)
+        .append(basicTypes.getBoolValue())
+        .append(basicTypes.getByteValue())
+        .append(basicTypes.getCharValue())
+        .append(basicTypes.getFloat32Value())
+        .append(basicTypes.getFloat64Value())
+        .append(basicTypes.getInt8Value())
+        .append(basicTypes.getUint8Value())
+        .append(basicTypes.getInt16Value())
+        .append(basicTypes.getUint16Value())
+        .append(basicTypes.getInt32Value())
+        .append(basicTypes.getUint32Value())
+        .append(basicTypes.getInt64Value())
+        .append(basicTypes.getUint64Value())
+        .toHashCode(),
+      basicTypes.hashCode());
+    test_rosidl_generator_java.msg.Nested nested = new test_rosidl_generator_java.msg.Nested();
+    nested.setBasicTypesValue(basicTypes);
+    assertEquals(
+      new HashCodeBuilder(17, 37).append(basicTypes).toHashCode(), nested.hashCode());
+    nested.setBasicTypesValue(null);
+    assertEquals(
+      new HashCodeBuilder(17, 37).append((Object) null).toHashCode(), nested.hashCode());
+    test_rosidl_generator_java.msg.UnboundedSequences sequences =
+      new test_rosidl_generator_java.msg.UnboundedSequences();
+    sequences.setFloat64Values(new double[] {Double.NaN, -0.0, 1.5});
+    sequences.setBasicTypesValues(
+      new test_rosidl_generator_java.msg.BasicTypes[] {basicTypes, null});
+    test_rosidl_generator_java.msg.UnboundedSequences sequencesClone = sequences.deepClone();
+    assertTrue(EqualsBuilder.reflectionEquals(sequences, sequencesClone));
+    assertEquals(sequences, sequencesClone);
+
+    // NaN equals NaN, like in the builders, so messages with NaN can be used as map keys
+    test_rosidl_generator_java.msg.BasicTypes copy = basicTypes.deepClone();
+    assertEquals(basicTypes, copy);
+    assertEquals(basicTypes.hashCode(), copy.hashCode());
+    Map<test_rosidl_generator_java.msg.BasicTypes, String> map =
+      new HashMap<test_rosidl_generator_java.msg.BasicTypes, String>();
+    map.put(basicTypes, "value");
+    assertEquals("value", map.get(copy));
+
+    // -0.0 and 0.0 are different values
+    copy.setFloat32Value(0.0f);
+    basicTypes.setFloat32Value(-0.0f);
+    assertNotEquals(basicTypes, copy);
+    assertFalse(new EqualsBuilder()
+        .append(basicTypes.getFloat32Value(), copy.getFloat32Value()).isEquals());
+    copy.setFloat32Value(-0.0f);
+    copy.setFloat64Value(0.0);
+    basicTypes.setFloat64Value(-0.0);
+    assertNotEquals(basicTypes, copy);
+
+    // Arrays and nested messages are compared by their elements
+    test_rosidl_generator_java.msg.UnboundedSequences otherSequences = sequences.deepClone();
+    assertEquals(sequences, otherSequences);
+    assertEquals(sequences.hashCode(), otherSequences.hashCode());
+    otherSequences.getFloat64Values()[1] = 0.0;
+    assertNotEquals(sequences, otherSequences);
+    otherSequences.getFloat64Values()[1] = -0.0;
+    otherSequences.getBasicTypesValues()[1] = new test_rosidl_generator_java.msg.BasicTypes();
+    assertNotEquals(sequences, otherSequences);
+    otherSequences.getBasicTypesValues()[1] = null;
+    otherSequences.getBasicTypesValues()[0].setInt32Value(4);
+    assertNotEquals(sequences, otherSequences);
+    otherSequences.getBasicTypesValues()[0].setInt32Value(-3);
+    assertEquals(sequences, otherSequences);
+    assertEquals(sequences.hashCode(), otherSequences.hashCode());
+
+    // Direct and heap buffers are compared by their contents, not by their byte order
+    test_rosidl_generator_java.msg.DirectBuffers buffers =
+      new test_rosidl_generator_java.msg.DirectBuffers();
+    buffers.setData(ByteBuffer.wrap(new byte[] {1, 2, 3}));
+    test_rosidl_generator_java.msg.DirectBuffers otherBuffers =
+      new test_rosidl_generator_java.msg.DirectBuffers();
+    ByteBuffer data = ByteBuffer.allocateDirect(3).order(ByteOrder.LITTLE_ENDIAN);
+    data.put(new byte[] {1, 2, 3});
+    data.flip();
+    otherBuffers.setData(data);
+    assertEquals(buffers, otherBuffers);
+    assertEquals(buffers.hashCode(), otherBuffers.hashCode());
+    data.put(0, (byte) 4);
+    assertNotEquals(buffers, otherBuffers);
+  }
+
+  @Test
+  public final void testSerializeUnsetArrayElements() {
+    // Elements of fixed size arrays start out null and are serialized as default values
+    test_rosidl_generator_java.msg.Arrays arrays = new test_rosidl_generator_java.msg.Arrays();
+    ByteBuffer serialized = ByteBuffer.allocate(arrays.getSerializedSize());
+    arrays.serialize(serialized);
+    assertFalse(serialized.hasRemaining());
+    serialized.flip();
+
+    test_rosidl_generator_java.msg.Arrays deserialized = new test_rosidl_generator_java.msg.Arrays();
+    deserialized.deserialize(serialized);
+    assertEquals("", deserialized.getStringValues()[0]);
+    assertEquals(
+      new test_rosidl_generator_java.msg.BasicTypes(), deserialized.getBasicTypesValues()[0]);
+  }
+
+  @Test
+  public final void testSerializeNullFields() {
+    // Fields that are null are serialized as default values, like in the native conversion
+    test_rosidl_generator_java.msg.Strings strings = new test_rosidl_generator_java.msg.Strings();
+    strings.setStringValue(null);
+    strings.setStringValueDefault1(null);
+    ByteBuffer serialized = ByteBuffer.allocate(strings.getSerializedSize());
+    strings.serialize(serialized);
+    assertFalse(serialized.hasRemaining());
+    serialized.flip();
+    test_rosidl_generator_java.msg.Strings deserializedStrings =
+      new test_rosidl_generator_java.msg.Strings();
+    deserializedStrings.deserialize(serialized);
+    assertEquals(new test_rosidl_generator_java.msg.Strings(), deserializedStrings);
+
+    test_rosidl_generator_java.msg.Nested nested = new test_rosidl_generator_java.msg.Nested();
+    nested.setBasicTypesValue(null);
+    serialized = ByteBuffer.allocate(nested.getSerializedSize());
+    nested.serialize(serialized);
+    assertFalse(serialized.hasRemaining());
+    serialized.flip();
+    test_rosidl_generator_java.msg.Nested deserializedNested =
+      new test_rosidl_generator_java.msg.Nested();
+    deserializedNested.deserialize(serialized);
+    assertEquals(new test_rosidl_generator_java.msg.Nested(), deserializedNested);
+
+    test_rosidl_generator_java.msg.UnboundedSequences unboundedSequences =
+      new test_rosidl_generator_java.msg.UnboundedSequences();
+    unboundedSequences.setInt32Values((int[]) null);
+    unboundedSequences.setStringValues((String[]) null);
+    unboundedSequences.setBasicTypesValues((test_rosidl_generator_java.msg.BasicTypes[]) null);
+    serialized = ByteBuffer.allocate(unboundedSequences.getSerializedSize());
+    unboundedSequences.serialize(serialized);
+    assertFalse(serialized.hasRemaining());
+    serialized.flip();
+    test_rosidl_generator_java.msg.UnboundedSequences deserializedSequences =
+      new test_rosidl_generator_java.msg.UnboundedSequences();
+    deserializedSequences.deserialize(serialized);
+    assertEquals(
+      new test_rosidl_generator_java.msg.UnboundedSequences(), deserializedSequences);
+  }
 }